@@ -1,11 +1,20 @@
 package com.market.server.config;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
 @Configuration
 public class AsyncConfig {
   
@@ -24,4 +33,32 @@ public class AsyncConfig {
     executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
     return executor;
   }
+  
+  /**
+   * 상품상세 조회(상품/옵션/거래지역 동시 조회)에 사용하는 스레드풀
+   * 스레드 수와 대기열을 제한하여 DB 커넥션을 과도하게 사용하지 않도록 한다.
+   * 스레드마다 DB 커넥션을 하나씩 사용하므로 스레드 수는 DB 커넥션풀 크기의 절반 이하로 제한한다.
+   * 대기열 크기(executor.queued), 대기시간(executor.idle), 실행시간(executor) metric을 등록한다.
+   * 
+   * @param meterRegistry
+   * @param poolSize
+   * @param queueCapacity
+   * @return
+   */
+  @Bean("productDetailExecutor")
+  public ExecutorService productDetailExecutor(MeterRegistry meterRegistry,
+                                               @Value("${product.detail.fanout.poolSize}") int poolSize,
+                                               @Value("${product.detail.fanout.queueCapacity}") int queueCapacity,
+                                               @Value("${spring.datasource.hikari.maximum-pool-size}") int dbPoolSize) {
+    if(poolSize > dbPoolSize / 2) {
+      throw new IllegalArgumentException("product.detail.fanout.poolSize must be less than or equal to "
+                                         + "spring.datasource.hikari.maximum-pool-size / 2 (" + dbPoolSize / 2 + ")");
+    }
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                                         new ArrayBlockingQueue<>(queueCapacity),
+                                                         new CustomizableThreadFactory("productDetail-"),
+                                                         new ThreadPoolExecutor.AbortPolicy()); // 가득 찬 경우 호출한 곳에서 직접 실행
+    executor.allowCoreThreadTimeOut(true);
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, "productDetail");
+  }
 }
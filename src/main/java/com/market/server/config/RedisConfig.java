@@ -11,6 +11,7 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -19,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.market.server.utils.RedisKeyFactory;
 
 @Configuration
 public class RedisConfig {
@@ -34,6 +36,9 @@ public class RedisConfig {
     @Value("${expire.default}")
     private long defaultExpireSecond;
 
+    @Value("${expire.product.detail}")
+    private long productDetailExpireSecond;
+
     /**
      * Class <=> Json간 변환을 담당한다.
      *
@@ -100,8 +105,26 @@ public class RedisConfig {
                         .fromSerializer(new StringRedisSerializer())).serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper)));
 
+        // 상품상세 캐시는 로컬 캐시(L1)의 2차 캐시로 사용하므로 TTL을 짧게 가져간다.
         return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisConnectionFactory)
-                .cacheDefaults(configuration).build();
+                .cacheDefaults(configuration)
+                .withCacheConfiguration(RedisKeyFactory.PRODUCT_DETAIL_CACHE,
+                        configuration.entryTtl(Duration.ofSeconds(productDetailExpireSecond)))
+                .build();
+    }
+
+    /**
+     * Redis pub/sub 메시지를 수신하기 위한 listener container 등록.<br>
+     * spring session에서 등록하는 container와 구분하기 위해 이름으로 주입받아 사용한다.
+     *
+     * @param redisConnectionFactory
+     * @return
+     */
+    @Bean("redisMessageListenerContainer")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
     }
     /**
      * 어플리케이션에서 사용할 redisTemplate 설정
@@ -0,0 +1,103 @@
+package com.market.server.controller.admin;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.market.server.aop.LoginCheck;
+import com.market.server.aop.LoginCheck.UserType;
+import com.market.server.dto.Search;
+import com.market.server.service.order.Impl.OrderExportServiceImpl;
+import com.market.server.service.product.Impl.SellerSalesServiceImpl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+
+
+@RestController
+@RequestMapping("/admin/order/")
+@Log4j2
+public class AdminOrderController {
+	
+	private final OrderExportServiceImpl orderExportService;
+	
+	private final SellerSalesServiceImpl sellerSalesService;
+	
+	@Autowired
+    public AdminOrderController(OrderExportServiceImpl orderExportService, SellerSalesServiceImpl sellerSalesService) {
+        this.orderExportService = orderExportService;
+        this.sellerSalesService = sellerSalesService;
+    }
+	
+	/**
+	 * 기간 내 주문 또는 주문이력을 파일로 내려받는다.(정산용)
+	 * 조회 결과를 한 건씩 응답에 바로 쓴다.
+	 * 
+	 * @param type order : 주문(주문일시 기준), log : 주문이력(변경일시 기준)
+	 * @param format csv, jsonl
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @param gzip gzip 압축여부
+	 * @return
+	 */
+	@GetMapping("export")
+	@LoginCheck(type = UserType.ADMIN)
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "type", defaultValue = "order") String type,
+			                                            @RequestParam(value = "format", defaultValue = "csv") String format,
+			                                            @RequestParam("fromDate") String fromDate,
+			                                            @RequestParam("toDate") String toDate,
+			                                            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+		Search search = orderExportService.prepare(type, format, fromDate, toDate);
+		
+		String fileName = type + "_" + fromDate.replace("-", "") + "_" + toDate.replace("-", "") + "." + format + (gzip ? ".gz" : "");
+		MediaType contentType;
+		if(gzip) {
+			contentType = MediaType.parseMediaType("application/gzip");
+		}else if(OrderExportServiceImpl.FORMAT_CSV.equals(format)) {
+			contentType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+		}else {
+			contentType = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+		}
+		
+		StreamingResponseBody body = out -> orderExportService.export(search, gzip, out);
+		
+		return ResponseEntity.status(HttpStatus.OK)
+				.contentType(contentType)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(body);
+	}
+	
+	/**
+	 * 기간 내 판매자 일별 판매집계를 주문이력에서 다시 계산한다.
+	 * 
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @return 재집계 일수
+	 */
+	@PostMapping("sales/rebuild")
+	@LoginCheck(type = UserType.ADMIN)
+	public ResponseEntity<RebuildResponse> rebuildSales(@RequestParam("fromDate") String fromDate,
+			                                            @RequestParam("toDate") String toDate) {
+		int days = sellerSalesService.rebuild(fromDate, toDate);
+		return new ResponseEntity<RebuildResponse>(new RebuildResponse(days), HttpStatus.OK);
+	}
+	
+	// -------------- response 객체 --------------
+	
+	@Getter
+    @AllArgsConstructor
+    private static class RebuildResponse {
+        private int days;
+    }
+	
+}
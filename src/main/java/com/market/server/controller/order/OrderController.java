@@ -6,22 +6,30 @@ import javax.servlet.http.HttpSession;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.market.server.aop.LoginCheck;
 import com.market.server.aop.LoginCheck.UserType;
+import com.market.server.dto.CursorPage;
+import com.market.server.dto.Search;
 import com.market.server.dto.order.OrderDTO;
 import com.market.server.dto.order.OrderDetailDTO;
+import com.market.server.service.order.Impl.OrderIdempotencyServiceImpl;
 import com.market.server.service.order.Impl.OrderServiceImpl;
+import com.market.server.service.order.Impl.OrderSummaryServiceImpl;
 import com.market.server.utils.SessionUtil;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 
@@ -33,38 +41,70 @@ public class OrderController {
 	
 	private final OrderServiceImpl orderService;
 	
+	private final OrderIdempotencyServiceImpl orderIdempotencyService;
+	
+	private final OrderSummaryServiceImpl orderSummaryService;
+	
 	@Autowired
-    public OrderController(OrderServiceImpl orderService) {
-        this.orderService = orderService;
+    public OrderController(OrderServiceImpl orderService, OrderIdempotencyServiceImpl orderIdempotencyService,
+    		               OrderSummaryServiceImpl orderSummaryService) {
+        this.orderService            = orderService;
+        this.orderIdempotencyService = orderIdempotencyService;
+        this.orderSummaryService     = orderSummaryService;
     }
 	
 	/**
 	 * 상품을 주문한다.
+	 * Idempotency-Key 헤더를 전달하면 같은 키로 재요청 시 주문을 다시 처리하지 않고 기존 주문코드를 반환한다.
 	 * 
 	 * @param session
+	 * @param idempotencyKey 멱등키(선택)
 	 * @param orderDTO
-	 * @return
+	 * @return 주문코드
 	 */
 	@PostMapping
-	@ResponseStatus(HttpStatus.CREATED)
 	@LoginCheck(type = UserType.USER)
-	public HttpStatus doOrder(HttpSession session, @RequestBody OrderDTO orderDTO) {
-		orderDTO.setLoginNo(SessionUtil.getLoginUserNo(session));
-		orderService.doOrder(orderDTO);
-		return HttpStatus.OK;
+	public ResponseEntity<OrderResponse> doOrder(HttpSession session,
+			                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+			                                     @RequestBody OrderDTO orderDTO) {
+		int loginNo = SessionUtil.getLoginUserNo(session);
+		orderDTO.setLoginNo(loginNo);
+		
+		String orderCd;
+		if(idempotencyKey == null) {
+			orderService.doOrder(orderDTO);
+			orderCd = orderDTO.getOrderCd();
+		}else {
+			orderCd = orderIdempotencyService.execute(loginNo, idempotencyKey, orderDTO, () -> {
+				orderService.doOrder(orderDTO);
+				return orderDTO.getOrderCd();
+			});
+		}
+		
+		return new ResponseEntity<OrderResponse>(new OrderResponse(orderCd), HttpStatus.CREATED);
 	}
 	
 	/**
-	 * 본인이 주문한 상품을 조회한다.
+	 * 본인이 주문한 상품을 주문일시 역순으로 조회한다.
+	 * 주문상태코드, 조회기간(yyyy-MM-dd)은 선택 조건이다.
 	 * 
 	 * @param session
+	 * @param orderListRequest
 	 * @return
 	 */
 	@GetMapping("myInfo")
 	@LoginCheck(type = UserType.USER)
-	public List<OrderDetailDTO> getOrderList(HttpSession session) {
-		List<OrderDetailDTO> orderDetailDTO = orderService.getOrderList(SessionUtil.getLoginUserNo(session));
-		return orderDetailDTO;
+	public ResponseEntity<OrderListResponse> getOrderList(HttpSession session, OrderListRequest orderListRequest) {
+		Search search = new Search();
+		search.add("loginNo",       SessionUtil.getLoginUserNo(session));
+		search.add("orderStatusCd", orderListRequest.getOrderStatusCd()); // 주문상태코드
+		search.add("fromOrderDate", orderListRequest.getFromOrderDate()); // from 주문일자
+		search.add("toOrderDate",   orderListRequest.getToOrderDate());   // to 주문일자
+		
+		// keyset 페이징 (cursor : 이전 응답의 nextCursor, 첫 페이지는 null)
+		CursorPage<OrderDetailDTO> orderPage = orderService.getOrderList(search, orderListRequest.getCursor(), orderListRequest.getPgSz());
+		
+		return new ResponseEntity<OrderListResponse>(new OrderListResponse(orderPage.getList(), orderPage.getNextCursor()), HttpStatus.OK);
 	}
 	
 	
@@ -79,4 +119,53 @@ public class OrderController {
 	public void updateOrderStatus(OrderDTO orderDTO) {
 		orderService.updateOrderStatus(orderDTO);
 	}
+	
+	/**
+	 * 주문내역 요약(TBL_ORDER_SUMMARY)을 다시 적재한다.(백그라운드 처리)
+	 * 이미 적재 중인 경우 started는 false이다.
+	 * 
+	 * @return
+	 */
+	@PostMapping("summary/rebuild")
+	@LoginCheck(type = UserType.ADMIN)
+	public ResponseEntity<RebuildResponse> rebuildOrderSummary() {
+		boolean started = orderSummaryService.startRebuild();
+		return new ResponseEntity<RebuildResponse>(new RebuildResponse(started), started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT);
+	}
+	
+	// -------------- response 객체 --------------
+	
+	@Getter
+    @AllArgsConstructor
+    private static class OrderResponse {
+        private String orderCd;
+    }
+	
+	@Getter
+    @AllArgsConstructor
+    private static class OrderListResponse {
+        private List<OrderDetailDTO> orderList;
+        private String nextCursor;
+    }
+	
+	@Getter
+    @AllArgsConstructor
+    private static class RebuildResponse {
+        private boolean started;
+    }
+	
+	// -------------- request 객체 --------------
+	
+	@Setter
+    @Getter
+    private static class OrderListRequest {
+    	// 검색조건
+    	private String orderStatusCd;
+    	private String fromOrderDate;
+    	private String toOrderDate;
+    	
+    	// 페이징
+    	private String cursor;
+    	private int pgSz;
+    }
 }
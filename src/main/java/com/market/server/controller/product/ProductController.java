@@ -1,5 +1,6 @@
 package com.market.server.controller.product;
 
+import java.io.InputStream;
 import java.util.List;
 
 import javax.servlet.http.HttpSession;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,10 +23,16 @@ import com.market.server.aop.LoginCheck;
 import com.market.server.aop.LoginCheck.UserType;
 import com.market.server.dto.Search;
 import com.market.server.dto.option.OptionDTO;
-import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductCardDTO;
 import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.dto.product.ProductImportResultDTO;
+import com.market.server.dto.product.ProductStockDTO;
+import com.market.server.dto.product.SellerSalesDTO;
 import com.market.server.dto.product.TradingAreaDTO;
+import com.market.server.service.product.Impl.ProductImportServiceImpl;
 import com.market.server.service.product.Impl.ProductServiceImpl;
+import com.market.server.service.product.Impl.ProductStockServiceImpl;
+import com.market.server.service.product.Impl.SellerSalesServiceImpl;
 import com.market.server.utils.SessionUtil;
 
 import lombok.AllArgsConstructor;
@@ -41,9 +49,19 @@ public class ProductController {
 	
 	private final ProductServiceImpl productService;
 	
+	private final ProductImportServiceImpl productImportService;
+	
+	private final ProductStockServiceImpl productStockService;
+	
+	private final SellerSalesServiceImpl sellerSalesService;
+	
 	@Autowired
-    public ProductController(ProductServiceImpl productService) {
-        this.productService = productService;
+    public ProductController(ProductServiceImpl productService, ProductImportServiceImpl productImportService,
+                             ProductStockServiceImpl productStockService, SellerSalesServiceImpl sellerSalesService) {
+        this.productService       = productService;
+        this.productImportService = productImportService;
+        this.productStockService  = productStockService;
+        this.sellerSalesService   = sellerSalesService;
     }
 	
 	/**
@@ -77,12 +95,33 @@ public class ProductController {
 		search.add("pgSz", productRequest.getPgSz()); // 페이지 당 row 수
 		search.setRow();
     	
-		List<ProductDTO> productList = productService.productInfo(search);
+		List<ProductCardDTO> productList = productService.productInfo(search);
 		ProductsResponse productsResponse = new ProductsResponse(productList);
 		
 		return new ResponseEntity<ProductsResponse>(productsResponse, HttpStatus.OK);
 	}
 	
+	/**
+	 * 본인이 등록한 상품의 일별 판매통계를 조회한다.(배송완료 : 판매, 환불완료 : 환불)
+	 * 
+	 * @param session
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @param itemCd 상품코드(선택)
+	 * @return 일별 판매집계, 상품별 합계
+	 */
+	@GetMapping("myProducts/stats")
+	@LoginCheck(type = UserType.USER)
+	public ResponseEntity<SalesStatsResponse> myProductStats(HttpSession session,
+			                                                 @RequestParam("fromDate") String fromDate,
+			                                                 @RequestParam("toDate") String toDate,
+			                                                 @RequestParam(value = "itemCd", required = false) String itemCd) {
+		List<SellerSalesDTO> salesList = sellerSalesService.getSalesList(SessionUtil.getLoginUserNo(session), fromDate, toDate, itemCd);
+		SalesStatsResponse salesStatsResponse = new SalesStatsResponse(salesList, sellerSalesService.sumByItem(salesList));
+		
+		return new ResponseEntity<SalesStatsResponse>(salesStatsResponse, HttpStatus.OK);
+	}
+	
 	/**
 	 * 본인이 등록한 특정 상품의 상세 정보를 조회한다.
 	 * 
@@ -120,6 +159,25 @@ public class ProductController {
 		return HttpStatus.CREATED;
 	}
 	
+	/**
+	 * 상품을 일괄등록한다.
+	 * 요청 본문(CSV, JSON Lines)을 그대로 읽어 처리하므로 multipart가 아닌 파일 내용을 본문으로 전송한다.
+	 * 
+	 * @param session
+	 * @param format CSV(기본값), JSONL
+	 * @param inputStream 요청 본문
+	 * @return 등록 결과(row별 오류, 초당 처리 row 수)
+	 */
+	@PostMapping("import")
+	@LoginCheck(type = UserType.USER)
+	public ResponseEntity<ProductImportResultDTO> importProducts(HttpSession session,
+			                                                     @RequestParam(value = "format", defaultValue = "CSV") ProductImportServiceImpl.Format format,
+			                                                     InputStream inputStream) {
+		ProductImportResultDTO result = productImportService.importProducts(SessionUtil.getLoginUserNo(session), inputStream, format);
+		
+		return new ResponseEntity<ProductImportResultDTO>(result, HttpStatus.OK);
+	}
+	
 	/**
 	 * 상품 정보를 수정한다.
 	 * 
@@ -133,6 +191,18 @@ public class ProductController {
 		productService.updateProduct(productDetailDTO);
 	}
 	
+	/**
+	 * 상품옵션의 재고수량을 등록/변경한다.
+	 * 
+	 * @param session
+	 * @param productStockDTO
+	 */
+	@PatchMapping("stock")
+	@LoginCheck(type = UserType.USER)
+	public void updateStock(HttpSession session, @RequestBody ProductStockDTO productStockDTO) {
+		productStockService.setStock(SessionUtil.getLoginUserNo(session), productStockDTO);
+	}
+	
 	/**
 	 * 등록한 상품 정보를 삭제한다.
 	 * 
@@ -154,8 +224,15 @@ public class ProductController {
 	
 	@Getter
     @AllArgsConstructor
+    private static class SalesStatsResponse {
+        private List<SellerSalesDTO> dailyList; // 일별 판매집계
+        private List<SellerSalesDTO> totalList; // 상품별 합계
+    }
+	
+	@Getter
+    @AllArgsConstructor
     private static class ProductsResponse {
-        private List<ProductDTO> productDTO;
+        private List<ProductCardDTO> productDTO; // 기존 응답 필드명 유지
     }
 	
 	// -------------- request 객체 --------------
@@ -7,12 +7,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.market.server.dto.CursorPage;
 import com.market.server.dto.Search;
-import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductCardDTO;
 import com.market.server.dto.product.ProductDetailDTO;
 import com.market.server.service.product.Impl.ProductServiceImpl;
 
@@ -52,12 +54,32 @@ public class ProductSearchController {
 		search.add("delYn" , "N");
 		search.add("sortStatus", productSearchRequest.getSortStatus());
 		
-		search.add("pg"  , productSearchRequest.getPg());
-		search.add("pgSz", productSearchRequest.getPgSz());
-		search.setRow();
+		// keyset 페이징 (cursor : 이전 응답의 nextCursor, 첫 페이지는 null)
+		CursorPage<ProductCardDTO> productPage = productService.productInfoByCursor(search, productSearchRequest.getCursor(),
+				                                                                productSearchRequest.getPgSz());
+		SearchResponse searchResponse = new SearchResponse(productPage.getList(), productPage.getNextCursor());
 		
-		List<ProductDTO> productList  = productService.productInfo(search);
-		SearchResponse searchResponse = new SearchResponse(productList);
+		return new ResponseEntity<SearchResponse>(searchResponse, HttpStatus.OK);
+	}
+	
+	/**
+	 * 키워드로 상품을 검색한다.
+	 * 상품명/제목/설명을 대상으로 하며 카테고리/구분코드는 선택 조건이다.
+	 * 
+	 * @param keywordSearchRequest
+	 * @return
+	 */
+	@GetMapping("keyword")
+	public ResponseEntity<SearchResponse> getProductListByKeyword(@RequestBody KeywordSearchRequest keywordSearchRequest) {
+		
+		Search search = new Search();
+		search.add("keyword",    keywordSearchRequest.getKeyword());
+		search.add("categoryCd", keywordSearchRequest.getCategoryCd());
+		search.add("divisionCd", keywordSearchRequest.getDivisionCd());
+		
+		CursorPage<ProductCardDTO> productPage = productService.productInfoByKeyword(search, keywordSearchRequest.getCursor(),
+				                                                                 keywordSearchRequest.getPgSz());
+		SearchResponse searchResponse = new SearchResponse(productPage.getList(), productPage.getNextCursor());
 		
 		return new ResponseEntity<SearchResponse>(searchResponse, HttpStatus.OK);
 	}
@@ -79,6 +101,22 @@ public class ProductSearchController {
 		return new ResponseEntity<ProductDetailDTO>(productDetailDTO, HttpStatus.OK);
 	}
 	
+	/**
+	 * 여러 상품의 상세 정보를 한번에 조회한다.(장바구니, 찜목록, 추천상품 등)
+	 * countView가 true인 경우에만 조회수를 증가시킨다.
+	 * 
+	 * @param productDetailsRequest
+	 * @return
+	 */
+	@PostMapping("details")
+	public ResponseEntity<DetailsResponse> getProductDetailList(@RequestBody ProductDetailsRequest productDetailsRequest){
+		
+		List<ProductDetailDTO> productDetailList = productService.productDetailList(productDetailsRequest.getItemCdList(),
+				                                                                    productDetailsRequest.isCountView());
+		
+		return new ResponseEntity<DetailsResponse>(new DetailsResponse(productDetailList), HttpStatus.OK);
+	}
+	
 	/**
 	 * 특정 상품 좋아요 클릭 시 count 증가한다.
 	 * 
@@ -94,7 +132,14 @@ public class ProductSearchController {
 	@Getter
     @AllArgsConstructor
     private static class SearchResponse {
-        private List<ProductDTO> productDTO;
+        private List<ProductCardDTO> productDTO; // 기존 응답 필드명 유지
+        private String nextCursor;
+    }
+	
+	@Getter
+    @AllArgsConstructor
+    private static class DetailsResponse {
+        private List<ProductDetailDTO> productDetailList;
     }
 	
 	// -------------- request 객체 --------------
@@ -106,8 +151,29 @@ public class ProductSearchController {
     	private String sortStatus;
     	
     	// 페이징
-    	private int pg;
+    	private String cursor;
+    	private int pg; // 미사용(cursor 페이징으로 변경), 기존 요청 호환용
     	private int pgSz;
     }
+    
+    @Setter
+    @Getter
+    private static class KeywordSearchRequest {
+    	// 검색조건
+    	private String keyword;
+    	private String categoryCd;
+    	private String divisionCd;
+    	
+    	// 페이징
+    	private String cursor;
+    	private int pgSz;
+    }
+    
+    @Setter
+    @Getter
+    private static class ProductDetailsRequest {
+    	private List<String> itemCdList; // 상품코드 목록
+    	private boolean countView;       // 조회수 증가여부
+    }
 	
 }
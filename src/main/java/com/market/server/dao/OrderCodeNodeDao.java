@@ -0,0 +1,67 @@
+package com.market.server.dao;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import com.market.server.utils.RedisKeyFactory;
+
+@Repository
+public class OrderCodeNodeDao {
+
+	// 본인이 점유한 노드번호인 경우에만 만료시간을 연장한다.
+	private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+			"return redis.call('PEXPIRE', KEYS[1], ARGV[2])", Long.class);
+
+	// 본인이 점유한 노드번호인 경우에만 반납한다.
+	private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+			"return redis.call('DEL', KEYS[1])", Long.class);
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 노드번호를 점유한다.
+	 *
+	 * @param nodeId
+	 * @param owner 점유 서버 식별값
+	 * @param leaseMillis
+	 * @return 점유 성공여부
+	 */
+	public boolean acquire(int nodeId, String owner, long leaseMillis) {
+		return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+				.setIfAbsent(RedisKeyFactory.generateOrderCodeNodeKey(nodeId), owner, leaseMillis, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * 점유중인 노드번호의 만료시간을 연장한다.
+	 *
+	 * @param nodeId
+	 * @param owner
+	 * @param leaseMillis
+	 * @return 연장 성공여부(다른 서버가 점유했거나 만료된 경우 false)
+	 */
+	public boolean renew(int nodeId, String owner, long leaseMillis) {
+		Long result = stringRedisTemplate.execute(RENEW_SCRIPT,
+				Collections.singletonList(RedisKeyFactory.generateOrderCodeNodeKey(nodeId)), owner, String.valueOf(leaseMillis));
+		return result != null && result == 1;
+	}
+
+	/**
+	 * 점유중인 노드번호를 반납한다.
+	 *
+	 * @param nodeId
+	 * @param owner
+	 */
+	public void release(int nodeId, String owner) {
+		stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(RedisKeyFactory.generateOrderCodeNodeKey(nodeId)), owner);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.market.server.dao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.market.server.utils.RedisKeyFactory;
+
+/**
+ * 주문 요청 멱등키 저장소
+ *
+ * 값 : 처리중 "P:요청지문" / 처리완료 "D:요청지문:주문코드"
+ */
+@Repository
+public class OrderIdempotencyDao {
+
+	public static final String PENDING = "P";
+	public static final String DONE    = "D";
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 멱등키를 처리중으로 선점한다.
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey
+	 * @param fingerprint 요청지문
+	 * @param pendingMillis 처리중 상태 유지 시간(서버 장애 시 선점 해제)
+	 * @return 선점 성공여부
+	 */
+	public boolean begin(int loginNo, String idempotencyKey, String fingerprint, long pendingMillis) {
+		return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+				.setIfAbsent(RedisKeyFactory.generateOrderIdempotencyKey(loginNo, idempotencyKey),
+						PENDING + ":" + fingerprint, pendingMillis, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * 처리 결과를 저장한다.
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey
+	 * @param fingerprint
+	 * @param orderCd
+	 * @param ttlMillis
+	 */
+	public void complete(int loginNo, String idempotencyKey, String fingerprint, String orderCd, long ttlMillis) {
+		stringRedisTemplate.opsForValue().set(RedisKeyFactory.generateOrderIdempotencyKey(loginNo, idempotencyKey),
+				DONE + ":" + fingerprint + ":" + orderCd, ttlMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 멱등키 유지 시간을 변경한다.(처리중 상태 연장)
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey
+	 * @param ttlMillis
+	 */
+	public void expire(int loginNo, String idempotencyKey, long ttlMillis) {
+		stringRedisTemplate.expire(RedisKeyFactory.generateOrderIdempotencyKey(loginNo, idempotencyKey), ttlMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 멱등키 상태를 조회한다.
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey
+	 * @return [상태, 요청지문, 주문코드(처리완료인 경우)], 없는 경우 null
+	 */
+	public String[] get(int loginNo, String idempotencyKey) {
+		String value = stringRedisTemplate.opsForValue().get(RedisKeyFactory.generateOrderIdempotencyKey(loginNo, idempotencyKey));
+		return value == null ? null : value.split(":", 3);
+	}
+
+	/**
+	 * 멱등키를 삭제한다.(처리 실패 시 재요청 허용)
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey
+	 */
+	public void remove(int loginNo, String idempotencyKey) {
+		stringRedisTemplate.delete(RedisKeyFactory.generateOrderIdempotencyKey(loginNo, idempotencyKey));
+	}
+
+}
@@ -1,80 +1,217 @@
 package com.market.server.dao;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.market.server.dto.order.OrderDTO;
 import com.market.server.utils.RedisKeyFactory;
 
+/**
+ * 주문이력 stream (ORDERS:STREAM:{shard})
+ *
+ * 주문코드 기준으로 shard를 나누어 추가하고, consumer group(ORDER_LOG)으로 읽어 DB에 반영한 뒤 ack/삭제한다.
+ * ack 전에 서버가 종료되면 다음 조회 시 pending 이력을 다시 읽는다.
+ */
 @Repository
 public class OrderLogDao {
 
+	public static final String GROUP = "ORDER_LOG";
+
 	@Autowired
-	private RedisTemplate<String, Object> redisTemplate;
-	
-	@Autowired
-	private ObjectMapper objectMapper;
-	
-	@Value("${expire.orderLog}")
-	private long orderLogExpireSecond;
-	
-	
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Value("${order.log.stream.shards}")
+	private int shards;
+
+	public int getShards() {
+		return shards;
+	}
+
 	/**
-	 * redis list에 변경된 주문상태를 추가한다.
-	 * RedisKeyFactory로 주문코드, 내부 키를 이용해 키를 생산산 후 주문정보이력을 저장시킨다.
-	 * 
-	 * @param orderDTO
-	 * @param orderCd
+	 * 변경된 주문상태를 주문이력 stream에 추가한다.(pipeline)
+	 *
+	 * @param orderList 주문이력(TBL_ORDER_INFO_LOG 저장 정보)
 	 */
-	public void addOrder(OrderDTO orderDTO) {
-		final String key = RedisKeyFactory.ORDER_KEY;
-		
-		redisTemplate.watch(key);
-		
-		try {
-			redisTemplate.multi();
-			redisTemplate.opsForList().rightPush(key, orderDTO);
-			redisTemplate.expire(key, orderLogExpireSecond, TimeUnit.SECONDS);
-			
-			redisTemplate.exec();
-			
-		}catch (Exception e) {
-			redisTemplate.discard(); // 트랜잭션 종료시 unwatch()가 호출된다
-		    System.out.println(e.getMessage());
-		    throw e;
+	public void addOrderList(List<OrderDTO> orderList) {
+		stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			StringRedisConnection stringConnection = (StringRedisConnection) connection;
+			for(OrderDTO orderDTO : orderList) {
+				stringConnection.xAdd(StreamRecords.newRecord()
+						.in(RedisKeyFactory.generateOrderStreamKey(shardOf(orderDTO.getOrderCd())))
+						.ofStrings(toFields(orderDTO)));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * shard별 consumer group을 생성한다. 이미 있는 경우 무시한다.
+	 */
+	public void createGroups() {
+		for(int shard = 0; shard < shards; shard++) {
+			String key = RedisKeyFactory.generateOrderStreamKey(shard);
+			try {
+				stringRedisTemplate.execute((RedisCallback<Object>) connection -> connection.execute("XGROUP",
+						bytes("CREATE"), bytes(key), bytes(GROUP), bytes("0"), bytes("MKSTREAM")));
+			}catch (DataAccessException e) {
+				if(e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+					throw e;
+				}
+			}
 		}
 	}
-	
+
+	/**
+	 * 주문이력을 읽는다.
+	 *
+	 * @param shard
+	 * @param consumer 소비자(서버) 이름
+	 * @param pending true : 본인이 읽고 ack하지 않은 이력, false : 새 이력
+	 * @param count 최대 건수
+	 * @return stream id, 주문이력
+	 */
+	public List<MapRecord<String, Object, Object>> read(int shard, String consumer, boolean pending, int count) {
+		List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+				Consumer.from(GROUP, consumer),
+				StreamReadOptions.empty().count(count),
+				StreamOffset.create(RedisKeyFactory.generateOrderStreamKey(shard), pending ? ReadOffset.from("0") : ReadOffset.lastConsumed()));
+		return records == null ? Collections.emptyList() : records;
+	}
+
 	/**
-	 * 주문이력 정보를 모두 조회한다.
-	 * 
-	 * @param key
-	 * @return
+	 * 다른 소비자가 읽고 minIdle 이상 ack하지 않은 이력을 가져온다.(종료된 서버의 이력 처리)
+	 *
+	 * @param shard
+	 * @param consumer
+	 * @param minIdle
+	 * @param count
+	 * @return 가져온 건수
+	 */
+	public int claimIdle(int shard, String consumer, Duration minIdle, int count) {
+		String key = RedisKeyFactory.generateOrderStreamKey(shard);
+		PendingMessages pendingMessages = stringRedisTemplate.opsForStream().pending(key, GROUP, Range.unbounded(), count);
+
+		List<String> ids = new ArrayList<>();
+		for(PendingMessage pendingMessage : pendingMessages) {
+			if(!consumer.equals(pendingMessage.getConsumerName())
+					&& pendingMessage.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0) {
+				ids.add(pendingMessage.getIdAsString());
+			}
+		}
+		if(ids.isEmpty()) {
+			return 0;
+		}
+
+		stringRedisTemplate.execute((RedisCallback<Object>) connection -> ((StringRedisConnection) connection)
+				.xClaim(key, GROUP, consumer, XClaimOptions.minIdle(minIdle).ids(ids.toArray(new String[0]))));
+		return ids.size();
+	}
+
+	/**
+	 * DB에 반영한 이력을 ack하고 stream에서 삭제한다.
+	 *
+	 * @param shard
+	 * @param ids stream id
 	 */
-	public List<OrderDTO> findAll(String key) {
-		List<OrderDTO> orderList = redisTemplate.opsForList()
-			.range(key, 0, -1)
-			.stream()
-			.map(item -> objectMapper.convertValue(item, OrderDTO.class))
-			.collect(Collectors.toList());
-				
-	    return orderList;
-    }
-	
+	public void ackAndDelete(int shard, List<String> ids) {
+		String key = RedisKeyFactory.generateOrderStreamKey(shard);
+		String[] idArray = ids.toArray(new String[0]);
+
+		stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			StringRedisConnection stringConnection = (StringRedisConnection) connection;
+			stringConnection.xAck(key, GROUP, idArray);
+			stringConnection.xDel(key, idArray);
+			return null;
+		});
+	}
+
 	/**
-	 * 주문이력을 전부 삭제한다. rddis에서 해당 키에있는 내용을 모두 삭제한다.
-	 * 
-	 * @param key
+	 * stream 이력을 주문정보로 변환한다.
+	 *
+	 * @param record
 	 * @return
 	 */
-	public boolean deleteByOrder(String key) {
-		return redisTemplate.delete(key);
+	public static OrderDTO toOrder(MapRecord<String, Object, Object> record) {
+		Map<Object, Object> fields = record.getValue();
+
+		OrderDTO orderDTO = new OrderDTO((String) fields.get("orderCd"), (String) fields.get("orderStatusCd"), (String) fields.get("regDttm"));
+		orderDTO.setOrderSeq(Integer.parseInt((String) fields.getOrDefault("orderSeq", "0")));
+		orderDTO.setLoginNo(toInteger(fields.get("loginNo")));
+		orderDTO.setItemCd((String) fields.get("itemCd"));
+		orderDTO.setOptionCd((String) fields.get("optionCd"));
+		orderDTO.setOrderCnt(toInteger(fields.get("orderCnt")));
+		orderDTO.setOrderPrice(toLong(fields.get("orderPrice")));
+		orderDTO.setDeliveryPrice(toLong(fields.get("deliveryPrice")));
+		orderDTO.setDiscountPrice(toLong(fields.get("discountPrice")));
+		orderDTO.setTotalPrice(toLong(fields.get("totalPrice")));
+		orderDTO.setOrderDttm((String) fields.get("orderDttm"));
+		return orderDTO;
+	}
+
+	private static Map<String, String> toFields(OrderDTO orderDTO) {
+		Map<String, String> fields = new HashMap<>();
+		fields.put("orderSeq", String.valueOf(orderDTO.getOrderSeq()));
+		putIfNotNull(fields, "orderCd",       orderDTO.getOrderCd());
+		putIfNotNull(fields, "orderStatusCd", orderDTO.getOrderStatusCd());
+		putIfNotNull(fields, "loginNo",       orderDTO.getLoginNo());
+		putIfNotNull(fields, "itemCd",        orderDTO.getItemCd());
+		putIfNotNull(fields, "optionCd",      orderDTO.getOptionCd());
+		putIfNotNull(fields, "orderCnt",      orderDTO.getOrderCnt());
+		putIfNotNull(fields, "orderPrice",    orderDTO.getOrderPrice());
+		putIfNotNull(fields, "deliveryPrice", orderDTO.getDeliveryPrice());
+		putIfNotNull(fields, "discountPrice", orderDTO.getDiscountPrice());
+		putIfNotNull(fields, "totalPrice",    orderDTO.getTotalPrice());
+		putIfNotNull(fields, "orderDttm",     orderDTO.getOrderDttm());
+		putIfNotNull(fields, "regDttm",       orderDTO.getRegDttm());
+		return fields;
+	}
+
+	private static void putIfNotNull(Map<String, String> fields, String field, Object value) {
+		if(value != null) {
+			fields.put(field, String.valueOf(value));
+		}
+	}
+
+	private static Integer toInteger(Object value) {
+		return value == null ? null : Integer.valueOf((String) value);
+	}
+
+	private static Long toLong(Object value) {
+		return value == null ? null : Long.valueOf((String) value);
+	}
+
+	/**
+	 * 주문코드로 shard를 결정한다.
+	 */
+	private int shardOf(String orderCd) {
+		return Math.floorMod(orderCd.hashCode(), shards);
 	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
 }
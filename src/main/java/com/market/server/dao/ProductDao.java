@@ -1,73 +1,155 @@
 package com.market.server.dao;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
 
 @Repository
+@Log4j2
 public class ProductDao {
 
+	public static final String SNAPSHOT_ID_FIELD = "__id";
+
+	// snapshot 번호를 조회하고, 없으면 Redis 서버 시각(us)으로 저장한다.(Redis 시각 기준으로 증가)
+	private static final RedisScript<Long> SNAPSHOT_ID_SCRIPT = new DefaultRedisScript<>(
+			"local id = redis.call('HGET', KEYS[1], '" + SNAPSHOT_ID_FIELD + "') " +
+			"if id then return tonumber(id) end " +
+			"redis.replicate_commands() " +
+			"local time = redis.call('TIME') " +
+			"id = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+			"redis.call('HSET', KEYS[1], '" + SNAPSHOT_ID_FIELD + "', id) " +
+			"return id", Long.class);
+
 	@Autowired
 	private RedisTemplate<String, Object> redisTemplate;
 	
-	@Autowired
-	private ObjectMapper objectMapper;
-	
 	@Value("${expire.goods.cnt}")
 	private Long goodsCntExpireSecond;
 	
 	/**
-	 * 상품의 count 정보를 저장한다.
+	 * 상품별 count 증가분을 반영한다.
+	 * 상품 수만큼 HINCRBY를 pipeline으로 한번에 전송한다.
 	 * 
-	 * @param gubun
-	 * @param itemCd
+	 * @param key
+	 * @param deltaMap 상품코드별 증가분
 	 */
-	public void addProductCntInfo(String key, String itemCd, int Cnt) {
-		
-		redisTemplate.watch(key);
+	public void incrementProductCntInfo(String key, Map<String, Long> deltaMap) {
+		RedisSerializer<String> serializer = RedisSerializer.string();
+		byte[] rawKey = serializer.serialize(key);
 		
+		redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for(Map.Entry<String, Long> entry : deltaMap.entrySet()) {
+				connection.hIncrBy(rawKey, serializer.serialize(entry.getKey()), entry.getValue());
+			}
+			connection.expire(rawKey, goodsCntExpireSecond);
+			return null;
+		});
+	}
+	
+	/**
+	 * 상품의 count 정보 존재여부를 확인한다.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public boolean hasProductCntInfo(String key) {
+		return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+	}
+	
+	/**
+	 * 상품의 count 정보를 snapshot key로 변경한다.
+	 * 변경 이후 들어오는 증가분은 새로운 key에 쌓인다.
+	 * 
+	 * @param key
+	 * @param snapshotKey
+	 * @return 변경여부(key가 없거나 snapshotKey가 이미 존재하면 false)
+	 */
+	public boolean renameProductCntInfo(String key, String snapshotKey) {
+		if(!hasProductCntInfo(key)) {
+			return false;
+		}
 		try {
-			redisTemplate.multi();
-			redisTemplate.opsForHash().put(key, itemCd, Cnt);
-			redisTemplate.expire(key, goodsCntExpireSecond, TimeUnit.SECONDS);
-			
-			redisTemplate.exec();
-			
-		}catch (Exception e) {
-			redisTemplate.discard(); // 트랜잭션 종료시 unwatch()가 호출된다
-		    System.out.println(e.getMessage());
-		    throw e;
+			return Boolean.TRUE.equals(redisTemplate.renameIfAbsent(key, snapshotKey));
+		}catch (RedisSystemException e) { // hasKey 이후 key가 만료된 경우
+			return false;
 		}
-		
 	}
 	
 	/**
-	 * 상품별 카운트 정보를 조회한다.
+	 * snapshot 번호를 조회한다. 처음 조회하는 snapshot은 번호를 새로 부여한다.
+	 * DB 반영 시 상품별로 마지막 반영한 snapshot 번호를 저장하여 같은 snapshot이 다시 반영되지 않도록 한다.
+	 * 
+	 * @param snapshotKey
+	 * @return 이전 snapshot보다 큰 번호
+	 */
+	public long getSnapshotId(String snapshotKey) {
+		Long snapshotId = redisTemplate.execute(SNAPSHOT_ID_SCRIPT, Collections.singletonList(snapshotKey));
+		return snapshotId == null ? 0 : snapshotId;
+	}
+	
+	/**
+	 * 상품의 count 정보를 HSCAN으로 나누어 조회한다.(snapshot 번호 제외)
 	 * 
 	 * @param key
-	 * @param subKey
-	 * @return
+	 * @param chunkSize 한번에 처리할 상품 수
+	 * @param chunkConsumer 상품코드별 count 처리
 	 */
-	public int getProductCntInfo(String key, String subKey) {
-		Integer count = objectMapper.convertValue(redisTemplate.opsForHash().get(key, subKey),Integer.class);
-		return count == null ? 0 : count;
+	public void scanProductCntInfo(String key, int chunkSize, Consumer<Map<String, Long>> chunkConsumer) {
+		ScanOptions scanOptions = ScanOptions.scanOptions().count(chunkSize).build();
+		Map<String, Long> chunk = new HashMap<>();
+		
+		Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(key, scanOptions);
+		try {
+			while(cursor.hasNext()) {
+				Map.Entry<Object, Object> entry = cursor.next();
+				if(SNAPSHOT_ID_FIELD.equals(entry.getKey())) {
+					continue;
+				}
+				chunk.merge((String) entry.getKey(), ((Number) entry.getValue()).longValue(), Long::sum);
+				
+				if(chunk.size() >= chunkSize) {
+					chunkConsumer.accept(chunk);
+					chunk = new HashMap<>();
+				}
+			}
+		}finally {
+			try {
+				cursor.close();
+			}catch (Exception e) {
+				log.error("scan cursor close error! {}", key, e);
+			}
+		}
+		
+		if(!chunk.isEmpty()) {
+			chunkConsumer.accept(chunk);
+		}
 	}
 	
 	/**
-	 * 상품의 count 정보를 조회한다.
+	 * 처리가 끝난 상품의 count 정보를 삭제한다.
 	 * 
 	 * @param key
-	 * @return
+	 * @param itemCds
 	 */
-	public Map<Object, Object> getProductCntMap(String key) {
-		return redisTemplate.opsForHash().entries(key);
-    }
+	public void delProductCntFields(String key, Collection<String> itemCds) {
+		redisTemplate.opsForHash().delete(key, itemCds.toArray());
+	}
 	
 	/**
 	 * 상품의 count 정보를 삭제한다.
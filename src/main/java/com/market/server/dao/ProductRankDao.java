@@ -0,0 +1,190 @@
+package com.market.server.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import com.market.server.utils.RedisKeyFactory;
+
+/**
+ * 상품 랭킹 (Redis)
+ *
+ * - RANK:cnt:카테고리코드:구분코드 : 상품코드별 점수 (zset)
+ * - RANK:cnt:카테고리코드:구분코드:EMPTY : 상품이 없는 랭킹 표시 (짧은 시간 유지, 랭킹이 없는 것으로 보고 매번 다시 생성하지 않도록)
+ * - RANK_SCOPE : 상품코드별 랭킹 범위 (hash, 점수 증가 시 상품상세를 조회하지 않고 랭킹 키를 찾는다)
+ */
+@Repository
+public class ProductRankDao {
+
+	// 랭킹이 생성되어 있는 경우에만 점수를 증가시킨다.(랭킹에 없는 상품은 무시)
+	private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+			"for i = 1, #ARGV, 2 do redis.call('ZADD', KEYS[1], 'XX', 'INCR', ARGV[i], ARGV[i + 1]) end " +
+			"return 1", Long.class);
+
+	// 랭킹이 생성되어 있는 경우에만 상품을 추가한다. 상품이 없는 랭킹이면 다음 조회 시 다시 생성하도록 표시를 지운다.
+	private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('DEL', KEYS[2]) return 0 end " +
+			"return redis.call('ZADD', KEYS[1], 'NX', ARGV[1], ARGV[2])", Long.class);
+
+	private static final String EMPTY_SUFFIX = ":EMPTY";
+
+	private static final int ADD_CHUNK_SIZE = 1000;
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 랭킹 점수를 증가시킨다.
+	 *
+	 * @param rankKey
+	 * @param deltaMap 상품코드별 증가분
+	 */
+	public void incrementScores(String rankKey, Map<String, Long> deltaMap) {
+		List<String> args = new ArrayList<>(deltaMap.size() * 2);
+		for(Map.Entry<String, Long> entry : deltaMap.entrySet()) {
+			args.add(String.valueOf(entry.getValue()));
+			args.add(entry.getKey());
+		}
+		stringRedisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(rankKey), args.toArray());
+	}
+
+	/**
+	 * 랭킹에 상품을 추가한다.
+	 *
+	 * @param rankKey
+	 * @param itemCd
+	 * @param score
+	 */
+	public void addIfExists(String rankKey, String itemCd, double score) {
+		stringRedisTemplate.execute(ADD_SCRIPT, Arrays.asList(rankKey, rankKey + EMPTY_SUFFIX), String.valueOf(score), itemCd);
+	}
+
+	/**
+	 * 랭킹에서 상품을 제거한다.
+	 *
+	 * @param rankKey
+	 * @param itemCd
+	 */
+	public void remove(String rankKey, String itemCd) {
+		stringRedisTemplate.opsForZSet().remove(rankKey, itemCd);
+	}
+
+	/**
+	 * 점수가 높은 순으로 상품코드를 조회한다.(ZREVRANGE)
+	 *
+	 * @param rankKey
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public List<String> getRange(String rankKey, long start, long end) {
+		Set<String> itemCds = stringRedisTemplate.opsForZSet().reverseRange(rankKey, start, end);
+		return itemCds == null ? new ArrayList<>() : new ArrayList<>(itemCds);
+	}
+
+	/**
+	 * 랭킹 존재여부를 확인한다. 상품이 없는 랭킹으로 표시된 경우도 존재하는 것으로 본다.
+	 *
+	 * @param rankKey
+	 * @return
+	 */
+	public boolean hasRank(String rankKey) {
+		Long count = stringRedisTemplate.countExistingKeys(Arrays.asList(rankKey, rankKey + EMPTY_SUFFIX));
+		return count != null && count > 0;
+	}
+
+	/**
+	 * 랭킹을 새로 생성한다.
+	 * 임시 키에 생성한 뒤 RENAME 하므로 생성 중에도 기존 랭킹으로 조회가 가능하다.
+	 * 상품이 없으면 랭킹을 삭제하고 emptyExpireMillis 동안 상품이 없는 랭킹으로 표시한다.
+	 *
+	 * @param rankKey
+	 * @param scoreMap 상품코드별 점수
+	 * @param emptyExpireMillis
+	 */
+	public void replace(String rankKey, Map<String, Double> scoreMap, long emptyExpireMillis) {
+		if(scoreMap.isEmpty()) {
+			stringRedisTemplate.delete(rankKey);
+			stringRedisTemplate.opsForValue().set(rankKey + EMPTY_SUFFIX, "", emptyExpireMillis, TimeUnit.MILLISECONDS);
+			return;
+		}
+
+		String tempKey = rankKey + ":" + UUID.randomUUID();
+		Set<TypedTuple<String>> tuples = new HashSet<>();
+
+		for(Map.Entry<String, Double> entry : scoreMap.entrySet()) {
+			tuples.add(new DefaultTypedTuple<>(entry.getKey(), entry.getValue()));
+			if(tuples.size() >= ADD_CHUNK_SIZE) {
+				stringRedisTemplate.opsForZSet().add(tempKey, tuples);
+				tuples = new HashSet<>();
+			}
+		}
+		if(!tuples.isEmpty()) {
+			stringRedisTemplate.opsForZSet().add(tempKey, tuples);
+		}
+
+		stringRedisTemplate.rename(tempKey, rankKey);
+		stringRedisTemplate.delete(rankKey + EMPTY_SUFFIX);
+	}
+
+	/**
+	 * 상품코드별 랭킹 범위를 저장한다.
+	 *
+	 * @param scopeMap 상품코드별 랭킹 범위
+	 */
+	public void putScopes(Map<String, String> scopeMap) {
+		Map<String, String> chunk = new HashMap<>();
+		for(Map.Entry<String, String> entry : scopeMap.entrySet()) {
+			chunk.put(entry.getKey(), entry.getValue());
+			if(chunk.size() >= ADD_CHUNK_SIZE) {
+				stringRedisTemplate.opsForHash().putAll(RedisKeyFactory.RANK_SCOPE_KEY, chunk);
+				chunk = new HashMap<>();
+			}
+		}
+		if(!chunk.isEmpty()) {
+			stringRedisTemplate.opsForHash().putAll(RedisKeyFactory.RANK_SCOPE_KEY, chunk);
+		}
+	}
+
+	/**
+	 * 상품코드별 랭킹 범위를 조회한다.
+	 *
+	 * @param itemCds
+	 * @return 상품코드 순서대로 랭킹 범위, 없는 경우 null
+	 */
+	public List<String> getScopes(Collection<String> itemCds) {
+		List<Object> scopes = stringRedisTemplate.opsForHash().multiGet(RedisKeyFactory.RANK_SCOPE_KEY, new ArrayList<Object>(itemCds));
+		List<String> scopeList = new ArrayList<>(itemCds.size());
+		for(Object scope : scopes) {
+			scopeList.add((String) scope);
+		}
+		return scopeList;
+	}
+
+	/**
+	 * 상품의 랭킹 범위를 삭제한다.
+	 *
+	 * @param itemCd
+	 */
+	public void removeScope(String itemCd) {
+		stringRedisTemplate.opsForHash().delete(RedisKeyFactory.RANK_SCOPE_KEY, itemCd);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.market.server.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.market.server.utils.RedisKeyFactory;
+
+/**
+ * 서버별 주문상태 이벤트 반영시각 (SELLER_SALES:CONSUMED)
+ *
+ * hash : 서버 이름 -> 갱신시각(ms):반영시각(ms)
+ * 반영시각 이전에 변경된 주문상태 이벤트는 해당 서버에서 판매집계와 주문이력에 모두 반영되었다.
+ */
+@Repository
+public class SellerSalesDao {
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 서버의 이벤트 반영시각을 저장한다.
+	 *
+	 * @param node 서버 이름
+	 * @param updatedAt 갱신시각(ms)
+	 * @param consumedUntil 반영시각(ms)
+	 */
+	public void setConsumedUntil(String node, long updatedAt, long consumedUntil) {
+		stringRedisTemplate.opsForHash().put(RedisKeyFactory.SELLER_SALES_CONSUMED_KEY, node, updatedAt + ":" + consumedUntil);
+	}
+
+	/**
+	 * 모든 서버 중 가장 늦은 이벤트 반영시각을 조회한다.
+	 * staleBefore 이전에 갱신된 서버(종료된 서버)는 제외하고 삭제한다.
+	 *
+	 * @param staleBefore ms
+	 * @return 반영시각(ms), 갱신중인 서버가 없으면 null
+	 */
+	public Long getConsumedUntil(long staleBefore) {
+		Long consumedUntil = null;
+		List<Object> staleNodes = new ArrayList<>();
+		for(Map.Entry<Object, Object> entry : stringRedisTemplate.opsForHash().entries(RedisKeyFactory.SELLER_SALES_CONSUMED_KEY).entrySet()) {
+			String[] value = ((String) entry.getValue()).split(":");
+			if(Long.parseLong(value[0]) < staleBefore) {
+				staleNodes.add(entry.getKey());
+				continue;
+			}
+			long nodeConsumedUntil = Long.parseLong(value[1]);
+			consumedUntil = consumedUntil == null ? nodeConsumedUntil : Math.min(consumedUntil, nodeConsumedUntil);
+		}
+
+		if(!staleNodes.isEmpty()) {
+			stringRedisTemplate.opsForHash().delete(RedisKeyFactory.SELLER_SALES_CONSUMED_KEY, staleNodes.toArray());
+		}
+		return consumedUntil;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.market.server.dao;
+
+import java.util.Collections;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SequenceDao {
+
+	// 시퀀스가 생성되어 있는 경우에만 증가시킨다.(키가 유실된 경우 0부터 다시 채번되는 것을 방지)
+	private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+			"return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 시퀀스를 size만큼 증가시킨다.
+	 *
+	 * @param key
+	 * @param size
+	 * @return 증가된 값, 시퀀스가 없는 경우 -1
+	 */
+	public long incrementSequence(String key, long size) {
+		Long value = stringRedisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(key), String.valueOf(size));
+		return value == null ? -1 : value;
+	}
+
+	/**
+	 * 시퀀스가 없는 경우 초기값으로 생성한다.
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public void initSequence(String key, long value) {
+		stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(value));
+	}
+
+}
@@ -0,0 +1,286 @@
+package com.market.server.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import com.market.server.utils.RedisKeyFactory;
+
+/**
+ * 재고 예약 (Redis)
+ *
+ * - STOCK:SKU:상품코드:옵션코드 : 판매가능 재고, 재고 관리를 하지 않는 상품은 UNLIMITED
+ * - STOCK:RESERVED : 상품옵션별 예약수량 (hash)
+ * - STOCK:SOLD : 상품옵션별 DB 미반영 판매수량 (hash)
+ * - STOCK:SOLD:SNAPSHOT : DB 반영중인 판매수량 (hash, __id : snapshot 번호)
+ * - STOCK:RESERVATION:주문코드 : 주문별 예약 정보 (hash : sku, qty, 확정 시 state=CONFIRMED)
+ * - STOCK:RESERVATION_EXPIRY : 예약 만료시각 (zset : 주문코드, 만료시각 ms)
+ * 재고 변경은 모두 Lua 스크립트로 원자적으로 처리한다.(단일 Redis 기준)
+ */
+@Repository
+public class StockDao {
+
+	public static final String UNLIMITED = "UNLIMITED";
+
+	public static final long NOT_LOADED   = -1; // 재고 키 없음(DB 적재 필요)
+	public static final long OUT_OF_STOCK = 0;  // 재고 부족
+	public static final long RESERVED     = 1;  // 예약/처리 완료
+	public static final long NO_LIMIT     = 2;  // 재고 관리를 하지 않는 상품
+	public static final long NOT_CONFIRMED = 3; // 확정된 예약 없음
+
+	private static final String CONFIRMED = "CONFIRMED";
+
+	private static final String SNAPSHOT_SUFFIX = ":SNAPSHOT";
+
+	// 판매가능 재고를 적재한다. DB 재고에서 예약수량과 DB 미반영 판매수량을 뺀다.
+	private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+			"if ARGV[2] == '" + UNLIMITED + "' then redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end " +
+			"local stock = tonumber(ARGV[2]) " +
+			"- tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') " +
+			"- tonumber(redis.call('HGET', KEYS[3], ARGV[1]) or '0') " +
+			"- tonumber(redis.call('HGET', KEYS[4], ARGV[1]) or '0') " +
+			"redis.call('SET', KEYS[1], stock) " +
+			"return 1", Long.class);
+
+	// 재고를 차감하고 주문별 예약을 생성한다.
+	private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+			"local stock = redis.call('GET', KEYS[1]) " +
+			"if not stock then return " + NOT_LOADED + " end " +
+			"if stock == '" + UNLIMITED + "' then return " + NO_LIMIT + " end " +
+			"local qty = tonumber(ARGV[2]) " +
+			"if tonumber(stock) < qty then return " + OUT_OF_STOCK + " end " +
+			"redis.call('DECRBY', KEYS[1], qty) " +
+			"redis.call('HINCRBY', KEYS[4], ARGV[1], qty) " +
+			"redis.call('HSET', KEYS[2], 'sku', ARGV[1], 'qty', qty) " +
+			"redis.call('PEXPIRE', KEYS[2], ARGV[5]) " +
+			"redis.call('ZADD', KEYS[3], ARGV[4], ARGV[3]) " +
+			"return " + RESERVED, Long.class);
+
+	// 예약을 판매로 확정한다.(예약수량 -> DB 미반영 판매수량) 확정된 예약은 환불 시 재고 복구용으로 유지한다.
+	private static final RedisScript<Long> CONFIRM_SCRIPT = new DefaultRedisScript<>(
+			"redis.call('ZREM', KEYS[2], ARGV[1]) " +
+			"local sku = redis.call('HGET', KEYS[1], 'sku') " +
+			"if not sku then return 0 end " +
+			"if redis.call('HGET', KEYS[1], 'state') == '" + CONFIRMED + "' then return 1 end " +
+			"local qty = tonumber(redis.call('HGET', KEYS[1], 'qty')) " +
+			"redis.call('HINCRBY', KEYS[3], sku, -qty) " +
+			"redis.call('HINCRBY', KEYS[4], sku, qty) " +
+			"redis.call('HSET', KEYS[1], 'state', '" + CONFIRMED + "') " +
+			"redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+			"return 1", Long.class);
+
+	// 확정 전 예약을 취소하고 재고를 되돌린다.
+	private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+			"local sku = redis.call('HGET', KEYS[1], 'sku') " +
+			"if redis.call('HGET', KEYS[1], 'state') == '" + CONFIRMED + "' then return 0 end " +
+			"redis.call('ZREM', KEYS[2], ARGV[1]) " +
+			"if not sku then return 0 end " +
+			"local qty = tonumber(redis.call('HGET', KEYS[1], 'qty')) " +
+			"local stockKey = ARGV[2] .. sku " +
+			"local stock = redis.call('GET', stockKey) " +
+			"if stock and stock ~= '" + UNLIMITED + "' then redis.call('INCRBY', stockKey, qty) end " +
+			"redis.call('HINCRBY', KEYS[3], sku, -qty) " +
+			"redis.call('DEL', KEYS[1]) " +
+			"return 1", Long.class);
+
+	// 확정된 예약의 판매수량을 되돌린다.(환불) 확정된 예약이 없으면 변경하지 않는다.
+	private static final RedisScript<Long> RESTOCK_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('HGET', KEYS[1], 'state') ~= '" + CONFIRMED + "' then return " + NOT_CONFIRMED + " end " +
+			"local sku = redis.call('HGET', KEYS[1], 'sku') " +
+			"local qty = tonumber(redis.call('HGET', KEYS[1], 'qty')) " +
+			"local stockKey = ARGV[1] .. sku " +
+			"local stock = redis.call('GET', stockKey) " +
+			"if not stock then return " + NOT_LOADED + " end " +
+			"if stock ~= '" + UNLIMITED + "' then redis.call('INCRBY', stockKey, qty) end " +
+			"redis.call('HINCRBY', KEYS[2], sku, -qty) " +
+			"redis.call('DEL', KEYS[1]) " +
+			"return " + RESERVED, Long.class);
+
+	// 판매가능 재고를 변경한다.(판매자 재고 수정, 적재되지 않은 경우 다음 조회 시 DB에서 적재)
+	private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+			"local stock = redis.call('GET', KEYS[1]) " +
+			"if not stock then return 0 end " +
+			"if stock == '" + UNLIMITED + "' then redis.call('DEL', KEYS[1]) return 0 end " +
+			"return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+	// snapshot 번호를 조회하고, 없으면 Redis 서버 시각(us)으로 저장한다.(Redis 시각 기준으로 증가)
+	private static final RedisScript<Long> SNAPSHOT_ID_SCRIPT = new DefaultRedisScript<>(
+			"local id = redis.call('HGET', KEYS[1], '" + ProductDao.SNAPSHOT_ID_FIELD + "') " +
+			"if id then return tonumber(id) end " +
+			"redis.replicate_commands() " +
+			"local time = redis.call('TIME') " +
+			"id = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+			"redis.call('HSET', KEYS[1], '" + ProductDao.SNAPSHOT_ID_FIELD + "', id) " +
+			"return id", Long.class);
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 판매가능 재고를 적재한다. 이미 적재되어 있으면 변경하지 않는다.
+	 *
+	 * @param sku
+	 * @param availableQty DB 재고 - DB 판매수량, 재고 관리를 하지 않는 상품은 null
+	 * @param unlimitedExpireMillis 재고 관리를 하지 않는 상품의 캐시 시간
+	 */
+	public void loadStock(String sku, Long availableQty, long unlimitedExpireMillis) {
+		stringRedisTemplate.execute(LOAD_SCRIPT,
+				Arrays.asList(RedisKeyFactory.generateStockKey(sku), RedisKeyFactory.STOCK_RESERVED_KEY,
+						      RedisKeyFactory.STOCK_SOLD_KEY, RedisKeyFactory.STOCK_SOLD_KEY + SNAPSHOT_SUFFIX),
+				sku, availableQty == null ? UNLIMITED : String.valueOf(availableQty), String.valueOf(unlimitedExpireMillis));
+	}
+
+	/**
+	 * 재고를 예약한다.
+	 *
+	 * @param sku
+	 * @param qty
+	 * @param orderCd
+	 * @param expireAt 예약 만료시각(ms)
+	 * @param keyExpireMillis 예약 키 만료시간(만료 처리 이후 정리용)
+	 * @return NOT_LOADED, OUT_OF_STOCK, RESERVED, NO_LIMIT
+	 */
+	public long reserve(String sku, int qty, String orderCd, long expireAt, long keyExpireMillis) {
+		return execute(RESERVE_SCRIPT,
+				Arrays.asList(RedisKeyFactory.generateStockKey(sku), RedisKeyFactory.generateStockReservationKey(orderCd),
+						      RedisKeyFactory.STOCK_RESERVATION_EXPIRY_KEY, RedisKeyFactory.STOCK_RESERVED_KEY),
+				sku, String.valueOf(qty), orderCd, String.valueOf(expireAt), String.valueOf(keyExpireMillis));
+	}
+
+	/**
+	 * 예약을 판매로 확정한다. 이미 확정된 예약은 변경하지 않는다.
+	 *
+	 * @param orderCd
+	 * @param confirmedExpireMillis 확정된 예약 유지시간(환불 시 재고 복구 가능 기간)
+	 * @return 확정여부(예약이 없거나 만료된 경우 false)
+	 */
+	public boolean confirm(String orderCd, long confirmedExpireMillis) {
+		return execute(CONFIRM_SCRIPT,
+				Arrays.asList(RedisKeyFactory.generateStockReservationKey(orderCd), RedisKeyFactory.STOCK_RESERVATION_EXPIRY_KEY,
+						      RedisKeyFactory.STOCK_RESERVED_KEY, RedisKeyFactory.STOCK_SOLD_KEY),
+				orderCd, String.valueOf(confirmedExpireMillis)) == 1;
+	}
+
+	/**
+	 * 확정 전 예약을 취소하고 재고를 되돌린다.
+	 *
+	 * @param orderCd
+	 * @return 취소여부(예약이 없거나 확정된 경우 false)
+	 */
+	public boolean release(String orderCd) {
+		return execute(RELEASE_SCRIPT,
+				Arrays.asList(RedisKeyFactory.generateStockReservationKey(orderCd), RedisKeyFactory.STOCK_RESERVATION_EXPIRY_KEY,
+						      RedisKeyFactory.STOCK_RESERVED_KEY),
+				orderCd, RedisKeyFactory.STOCK_KEY + ":") == 1;
+	}
+
+	/**
+	 * 확정된 예약의 판매수량을 되돌린다.
+	 *
+	 * @param orderCd
+	 * @return NOT_LOADED, RESERVED, NOT_CONFIRMED
+	 */
+	public long restock(String orderCd) {
+		return execute(RESTOCK_SCRIPT,
+				Arrays.asList(RedisKeyFactory.generateStockReservationKey(orderCd), RedisKeyFactory.STOCK_SOLD_KEY),
+				RedisKeyFactory.STOCK_KEY + ":");
+	}
+
+	/**
+	 * 판매가능 재고를 증감한다.
+	 *
+	 * @param sku
+	 * @param delta
+	 */
+	public void adjust(String sku, long delta) {
+		execute(ADJUST_SCRIPT, Collections.singletonList(RedisKeyFactory.generateStockKey(sku)), String.valueOf(delta));
+	}
+
+	/**
+	 * 만료시각이 지난 예약의 주문코드를 조회한다.
+	 *
+	 * @param now
+	 * @param limit
+	 * @return
+	 */
+	public Set<String> getExpiredReservations(long now, int limit) {
+		return stringRedisTemplate.opsForZSet().rangeByScore(RedisKeyFactory.STOCK_RESERVATION_EXPIRY_KEY, 0, now, 0, limit);
+	}
+
+	/**
+	 * DB 미반영 판매수량을 snapshot key로 변경 후 조회한다.
+	 * 이전 실행에서 처리하지 못한 snapshot이 남아있으면 해당 snapshot을 조회한다.
+	 *
+	 * @return sku별 판매수량(snapshot 번호 제외), 반영할 수량이 없으면 빈 Map
+	 */
+	public Map<String, Long> takeSoldSnapshot() {
+		String snapshotKey = RedisKeyFactory.STOCK_SOLD_KEY + SNAPSHOT_SUFFIX;
+		if(!Boolean.TRUE.equals(stringRedisTemplate.hasKey(snapshotKey))) {
+			try {
+				if(!Boolean.TRUE.equals(stringRedisTemplate.renameIfAbsent(RedisKeyFactory.STOCK_SOLD_KEY, snapshotKey))) {
+					return Collections.emptyMap();
+				}
+			}catch (RedisSystemException e) { // 판매수량 key가 없는 경우
+				return Collections.emptyMap();
+			}
+		}
+
+		Map<String, Long> soldMap = new HashMap<>();
+		for(Map.Entry<Object, Object> entry : stringRedisTemplate.opsForHash().entries(snapshotKey).entrySet()) {
+			if(ProductDao.SNAPSHOT_ID_FIELD.equals(entry.getKey())) {
+				continue;
+			}
+			long qty = Long.parseLong((String) entry.getValue());
+			if(qty != 0) {
+				soldMap.put((String) entry.getKey(), qty);
+			}
+		}
+		return soldMap;
+	}
+
+	/**
+	 * 판매수량 snapshot 번호를 조회한다. 처음 조회하는 경우 번호를 만들어 snapshot에 저장한다.
+	 * 이전 실행에서 처리하지 못한 snapshot은 같은 번호를 유지한다.
+	 *
+	 * @return snapshot 번호
+	 */
+	public long getSoldSnapshotId() {
+		Long snapshotId = stringRedisTemplate.execute(SNAPSHOT_ID_SCRIPT,
+				Collections.singletonList(RedisKeyFactory.STOCK_SOLD_KEY + SNAPSHOT_SUFFIX));
+		return snapshotId == null ? 0 : snapshotId;
+	}
+
+	/**
+	 * DB에 반영한 판매수량을 snapshot에서 제거한다.
+	 *
+	 * @param skus
+	 */
+	public void delSoldSnapshotFields(Collection<String> skus) {
+		stringRedisTemplate.opsForHash().delete(RedisKeyFactory.STOCK_SOLD_KEY + SNAPSHOT_SUFFIX, skus.toArray());
+	}
+
+	/**
+	 * 판매수량 snapshot을 삭제한다.
+	 */
+	public void delSoldSnapshot() {
+		stringRedisTemplate.delete(RedisKeyFactory.STOCK_SOLD_KEY + SNAPSHOT_SUFFIX);
+	}
+
+	private long execute(RedisScript<Long> script, List<String> keys, String... args) {
+		Long result = stringRedisTemplate.execute(script, keys, (Object[]) args);
+		return result == null ? 0 : result;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.market.server.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * keyset 페이징 결과
+ * 다음 페이지가 없으면 nextCursor는 null
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CursorPage<T> {
+	
+	private List<T> list;      // 조회 목록
+	private String nextCursor; // 다음 페이지 cursor
+	
+}
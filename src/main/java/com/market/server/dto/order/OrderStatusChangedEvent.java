@@ -0,0 +1,62 @@
+package com.market.server.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 주문상태 변경 이벤트 (주문상태 변경 커밋 이후 발행)
+ * 주문이력 저장 시 주문정보를 다시 조회하지 않도록 변경된 주문정보를 함께 담는다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+	private final int orderSeq;         // 주문시퀀스
+	private final String orderCd;       // 주문코드
+	private final String orderStatusCd; // 변경된 주문상태코드
+	private final Integer loginNo;      // 주문자 로그인번호
+	private final String itemCd;        // 상품코드
+	private final String optionCd;      // 옵션코드
+	private final Integer orderCnt;     // 주문수량
+	private final Long orderPrice;      // 주문금액
+	private final Long deliveryPrice;   // 배송금액
+	private final Long discountPrice;   // 할인금액
+	private final Long totalPrice;      // 총결제금액
+	private final String orderDttm;     // 주문일시
+	private final String changedDttm;   // 변경일시
+
+	/**
+	 * 변경된 주문정보로 이벤트를 생성한다.
+	 *
+	 * @param orderDTO 주문상태 변경 후 주문정보
+	 * @param changedDttm 변경일시
+	 * @return
+	 */
+	public static OrderStatusChangedEvent of(OrderDTO orderDTO, String changedDttm) {
+		return new OrderStatusChangedEvent(orderDTO.getOrderSeq(), orderDTO.getOrderCd(), orderDTO.getOrderStatusCd(),
+				orderDTO.getLoginNo(), orderDTO.getItemCd(), orderDTO.getOptionCd(), orderDTO.getOrderCnt(),
+				orderDTO.getOrderPrice(), orderDTO.getDeliveryPrice(), orderDTO.getDiscountPrice(), orderDTO.getTotalPrice(),
+				orderDTO.getOrderDttm(), changedDttm);
+	}
+
+	/**
+	 * 주문이력(TBL_ORDER_INFO_LOG) 저장 정보로 변환한다. 등록일시는 변경일시이다.
+	 *
+	 * @return
+	 */
+	public OrderDTO toOrderLog() {
+		OrderDTO orderDTO = new OrderDTO(orderCd, orderStatusCd, changedDttm);
+		orderDTO.setOrderSeq(orderSeq);
+		orderDTO.setLoginNo(loginNo);
+		orderDTO.setItemCd(itemCd);
+		orderDTO.setOptionCd(optionCd);
+		orderDTO.setOrderCnt(orderCnt);
+		orderDTO.setOrderPrice(orderPrice);
+		orderDTO.setDeliveryPrice(deliveryPrice);
+		orderDTO.setDiscountPrice(discountPrice);
+		orderDTO.setTotalPrice(totalPrice);
+		orderDTO.setOrderDttm(orderDttm);
+		return orderDTO;
+	}
+}
@@ -0,0 +1,48 @@
+package com.market.server.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 상품 목록 조회용 DTO
+ * 목록에 표시하는 컬럼만 조회한다.(상품설명, 이미지2~4 등은 상세 조회 시 사용)
+ */
+@Getter
+@Setter
+@ToString
+public class ProductCardDTO {
+
+	private String itemCd;            // 상품코드
+	private String itemNm;            // 상품명
+	private Long itemPrice;           // 상품가격
+	private String image1;            // 이미지1
+	private Integer viewCnt;          // 조회수
+	private Integer likeCnt;          // 좋아요수
+	private Integer orderCnt;         // 주문수
+	private ProductDTO.Status status; // 상태
+	private String regDttm;           // 등록일시
+
+	public ProductCardDTO(){}
+
+	/**
+	 * 상품 정보로 목록 조회용 DTO를 생성한다.
+	 *
+	 * @param productDTO
+	 * @return
+	 */
+	public static ProductCardDTO of(ProductDTO productDTO) {
+		ProductCardDTO productCardDTO = new ProductCardDTO();
+		productCardDTO.setItemCd(productDTO.getItemCd());
+		productCardDTO.setItemNm(productDTO.getItemNm());
+		productCardDTO.setItemPrice(productDTO.getItemPrice());
+		productCardDTO.setImage1(productDTO.getImage1());
+		productCardDTO.setViewCnt(productDTO.getViewCnt());
+		productCardDTO.setLikeCnt(productDTO.getLikeCnt());
+		productCardDTO.setOrderCnt(productDTO.getOrderCnt());
+		productCardDTO.setStatus(productDTO.getStatus());
+		productCardDTO.setRegDttm(productDTO.getRegDttm());
+		return productCardDTO;
+	}
+
+}
@@ -42,6 +42,16 @@ public class ProductDTO {
 	
 	public ProductDTO(){}
 	
+	/**
+	 * 상품시퀀스로 상품코드를 생성한다.
+	 * 
+	 * @param itemSeq
+	 * @return IE + 7자리 상품시퀀스
+	 */
+	public static String generateItemCd(int itemSeq) {
+		return String.format("IE%07d", itemSeq);
+	}
+	
 	/**
 	 * 상품등록 시 필수 값 NULL 체크
 	 * 
@@ -0,0 +1,61 @@
+package com.market.server.dto.product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 상품 일괄등록 결과
+ * 오류 목록은 최대 maxErrors건까지만 담는다.(errorCnt는 전체 오류 건수)
+ */
+@Getter
+@ToString
+public class ProductImportResultDTO {
+
+	private long totalCnt;      // 전체 row 수
+	private long successCnt;    // 등록 성공 수
+	private long errorCnt;      // 등록 실패 수
+	private long elapsedMillis; // 소요시간(ms)
+	private double rowsPerSec;  // 초당 처리 row 수
+	private final List<RowError> errorList = new ArrayList<>(); // 오류 목록
+
+	@Getter(AccessLevel.NONE)
+	private final int maxErrors;
+
+	public ProductImportResultDTO(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	public void addTotal() {
+		totalCnt++;
+	}
+
+	public void addSuccess(int cnt) {
+		successCnt += cnt;
+	}
+
+	public void addError(long rowNo, String message) {
+		errorCnt++;
+		if(errorList.size() < maxErrors) {
+			errorList.add(new RowError(rowNo, message));
+		}
+	}
+
+	public void finish(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+		this.rowsPerSec    = elapsedMillis == 0 ? totalCnt : totalCnt * 1000.0 / elapsedMillis;
+	}
+
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class RowError {
+		private long rowNo;     // row 번호(CSV는 헤더 제외 1부터, JSONL은 1부터)
+		private String message; // 오류 내용
+	}
+
+}
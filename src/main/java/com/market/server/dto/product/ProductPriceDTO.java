@@ -0,0 +1,24 @@
+package com.market.server.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 상품 가격 snapshot (주문 금액 검증용)
+ * updDttm으로 어느 시점의 가격인지 확인한다.
+ */
+@Getter
+@Setter
+@ToString
+public class ProductPriceDTO {
+
+	private String itemCd;      // 상품코드
+	private Long itemPrice;     // 상품가격
+	private Long deliveryPrice; // 배송가격
+	private String delYn;       // 삭제여부
+	private String updDttm;     // 수정일시
+
+	public ProductPriceDTO(){}
+
+}
@@ -0,0 +1,25 @@
+package com.market.server.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 상품옵션별 재고
+ * 판매가능 재고 = stockQty - soldQty - (Redis) 예약수량 - (Redis) DB 미반영 판매수량
+ */
+@Getter
+@Setter
+@ToString
+public class ProductStockDTO {
+
+	private String itemCd;   // 상품코드
+	private String optionCd; // 옵션코드
+	private Long stockQty;   // 재고수량(판매자 등록)
+	private Long soldQty;    // 판매수량(DB 반영분)
+	private String regDttm;  // 등록일시
+	private String updDttm;  // 수정일시
+
+	public ProductStockDTO(){}
+
+}
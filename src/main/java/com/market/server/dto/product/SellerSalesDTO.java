@@ -0,0 +1,47 @@
+package com.market.server.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 판매자 상품별 일별 판매집계
+ * 판매 : 배송완료(OSC007), 환불 : 환불완료(OSC009) 기준
+ */
+@Getter
+@Setter
+@ToString
+public class SellerSalesDTO {
+
+	private String salesDate; // 집계일자(yyyy-MM-dd), 상품별 합계인 경우 null
+	private String itemCd;    // 상품코드
+	private Integer loginNo;  // 판매자 로그인번호
+	private long salesCnt;    // 판매 주문 수
+	private long salesQty;    // 판매수량
+	private long salesAmt;    // 판매금액(총결제금액)
+	private long refundCnt;   // 환불 주문 수
+	private long refundQty;   // 환불수량
+	private long refundAmt;   // 환불금액(총결제금액)
+
+	public SellerSalesDTO(){}
+
+	public SellerSalesDTO(String salesDate, String itemCd) {
+		this.salesDate = salesDate;
+		this.itemCd    = itemCd;
+	}
+
+	/**
+	 * 다른 집계를 더한다.
+	 *
+	 * @param other
+	 */
+	public void add(SellerSalesDTO other) {
+		salesCnt  += other.salesCnt;
+		salesQty  += other.salesQty;
+		salesAmt  += other.salesAmt;
+		refundCnt += other.refundCnt;
+		refundQty += other.refundQty;
+		refundAmt += other.refundAmt;
+	}
+
+}
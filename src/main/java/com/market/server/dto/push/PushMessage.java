@@ -22,6 +22,31 @@ public class PushMessage {
   
     private LocalDateTime generatedTime;
   
+    /**
+     * 주문상태코드에 해당하는 푸시 메세지를 반환한다.
+     * 
+     * @param orderStatusCd 주문상태코드
+     * @return 푸시를 보내지 않는 주문상태인 경우 null
+     */
+    public static PushMessage ofOrderStatus(String orderStatusCd) {
+      switch (orderStatusCd) {
+      case "OSC001": // 상품접수
+        return ORDER_STATUS_ACCEPT;
+      case "OSC003": // 잡화처리
+        return ORDER_STATUS_CORRECT;
+      case "OSC005": // 배송출발
+        return ORDER_STATUS_START;
+      case "OSC007": // 배송완료
+        return ORDER_STATUS_COMPLETE;
+      case "OSC008": // 환불
+        return ORDER_STATUS_REFUND;
+      case "OSC009": // 환불완료
+        return ORDER_STATUS_REFUND_COMPLETE;
+      default:
+        return null;
+      }
+    }
+  
     public PushMessage() {}
   
     public PushMessage(String title, String message) {
@@ -0,0 +1,95 @@
+package com.market.server.dto.reference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.market.server.dto.option.OptionCategoryDTO;
+import com.market.server.dto.product.ProductCategoryDTO;
+import com.market.server.dto.product.ProductDivisionDTO;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 기준정보(상품카테고리, 상품구분, 옵션카테고리) snapshot
+ * 생성 후 변경하지 않으며, 기준정보가 변경되면 새 snapshot으로 교체한다.
+ * 목록은 등록일시 내림차순이며 삭제된 데이터도 포함한다.
+ */
+@Getter
+@ToString(of = {"version", "loadedAt"})
+public class ReferenceDataSnapshot {
+
+	private final long version;  // 기준정보 버전
+	private final long loadedAt; // 적재시각(ms)
+
+	private final List<ProductCategoryDTO> categoryList;
+	private final List<ProductDivisionDTO> divisionList;
+	private final List<OptionCategoryDTO> opCategoryList;
+
+	private final Map<String, ProductCategoryDTO> categoryMap;  // 상품카테고리코드 -> 상품카테고리
+	private final Map<String, ProductDivisionDTO> divisionMap;  // 상품구분코드 -> 상품구분
+	private final Map<String, OptionCategoryDTO> opCategoryMap; // 옵션카테고리코드 -> 옵션카테고리
+
+	// 삭제되지 않은 이름(중복 확인용)
+	private final Set<String> categoryNms;
+	private final Set<String> divisionNms;
+	private final Set<String> opCategoryNms;
+
+	public ReferenceDataSnapshot(long version, List<ProductCategoryDTO> categoryList, List<ProductDivisionDTO> divisionList,
+			                     List<OptionCategoryDTO> opCategoryList) {
+		this.version        = version;
+		this.loadedAt       = System.currentTimeMillis();
+		this.categoryList   = Collections.unmodifiableList(new ArrayList<>(categoryList));
+		this.divisionList   = Collections.unmodifiableList(new ArrayList<>(divisionList));
+		this.opCategoryList = Collections.unmodifiableList(new ArrayList<>(opCategoryList));
+
+		Map<String, ProductCategoryDTO> categoryMap = new HashMap<>();
+		Set<String> categoryNms = new HashSet<>();
+		for(ProductCategoryDTO category : categoryList) {
+			categoryMap.put(category.getCategoryCd(), category);
+			if("N".equals(category.getDelYn())) {
+				categoryNms.add(category.getCategoryNm());
+			}
+		}
+
+		Map<String, ProductDivisionDTO> divisionMap = new HashMap<>();
+		Set<String> divisionNms = new HashSet<>();
+		for(ProductDivisionDTO division : divisionList) {
+			divisionMap.put(division.getDivisionCd(), division);
+			if("N".equals(division.getDelYn())) {
+				divisionNms.add(division.getDivisionNm());
+			}
+		}
+
+		Map<String, OptionCategoryDTO> opCategoryMap = new HashMap<>();
+		Set<String> opCategoryNms = new HashSet<>();
+		for(OptionCategoryDTO opCategory : opCategoryList) {
+			opCategoryMap.put(opCategory.getOpCategoryCd(), opCategory);
+			if("N".equals(opCategory.getDelYn())) {
+				opCategoryNms.add(opCategory.getOpCategoryNm());
+			}
+		}
+
+		this.categoryMap   = Collections.unmodifiableMap(categoryMap);
+		this.divisionMap   = Collections.unmodifiableMap(divisionMap);
+		this.opCategoryMap = Collections.unmodifiableMap(opCategoryMap);
+		this.categoryNms   = Collections.unmodifiableSet(categoryNms);
+		this.divisionNms   = Collections.unmodifiableSet(divisionNms);
+		this.opCategoryNms = Collections.unmodifiableSet(opCategoryNms);
+	}
+
+	/**
+	 * 적재 전 사용하는 빈 snapshot
+	 *
+	 * @return
+	 */
+	public static ReferenceDataSnapshot empty() {
+		return new ReferenceDataSnapshot(-1, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+	}
+
+}
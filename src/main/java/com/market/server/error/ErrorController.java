@@ -5,7 +5,13 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.market.server.error.exception.BatchSizeExceededException;
 import com.market.server.error.exception.DuplicateIdException;
+import com.market.server.error.exception.IdempotencyConflictException;
+import com.market.server.error.exception.InvalidCursorException;
+import com.market.server.error.exception.InvalidOrderStatusException;
+import com.market.server.error.exception.OrderWriteTimeoutException;
+import com.market.server.error.exception.OutOfStockException;
 
 @RestControllerAdvice
 public class ErrorController {
@@ -26,4 +32,40 @@ public class ErrorController {
       // Exception 객체의 현지화 메시지와 클래스 이름을 반환한다.
       return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidCursorException.class)
+    public ErrorMsg handleInvalidCursorException(InvalidCursorException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ErrorMsg handleBatchSizeExceededException(BatchSizeExceededException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OutOfStockException.class)
+    public ErrorMsg handleOutOfStockException(OutOfStockException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ErrorMsg handleIdempotencyConflictException(IdempotencyConflictException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(InvalidOrderStatusException.class)
+    public ErrorMsg handleInvalidOrderStatusException(InvalidOrderStatusException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(OrderWriteTimeoutException.class)
+    public ErrorMsg handleOrderWriteTimeoutException(OrderWriteTimeoutException e) {
+      return new ErrorMsg(e.getLocalizedMessage(), getSimpleName(e));
+    }
 }
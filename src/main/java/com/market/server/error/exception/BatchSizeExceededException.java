@@ -0,0 +1,7 @@
+package com.market.server.error.exception;
+
+public class BatchSizeExceededException extends IllegalArgumentException {
+  public BatchSizeExceededException(String msg) {
+    super(msg);
+  }
+}
@@ -0,0 +1,7 @@
+package com.market.server.error.exception;
+
+public class IdempotencyConflictException extends IllegalArgumentException {
+  public IdempotencyConflictException(String msg) {
+    super(msg);
+  }
+}
@@ -0,0 +1,7 @@
+package com.market.server.error.exception;
+
+public class InvalidCursorException extends IllegalArgumentException {
+  public InvalidCursorException(String msg) {
+    super(msg);
+  }
+}
@@ -0,0 +1,7 @@
+package com.market.server.error.exception;
+
+public class InvalidOrderStatusException extends IllegalArgumentException {
+  public InvalidOrderStatusException(String msg) {
+    super(msg);
+  }
+}
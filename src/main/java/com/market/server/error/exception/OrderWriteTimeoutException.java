@@ -0,0 +1,26 @@
+package com.market.server.error.exception;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 주문 저장(group commit) 대기시간 초과, 이후에 저장될 수 있다.
+ * 저장 결과(result)는 대기열의 주문이 커밋되거나 실패하면 완료된다.
+ */
+public class OrderWriteTimeoutException extends RuntimeException {
+  private final String orderCd;
+  private final transient CompletionStage<Void> result;
+
+  public OrderWriteTimeoutException(String msg, String orderCd, CompletionStage<Void> result) {
+    super(msg);
+    this.orderCd = orderCd;
+    this.result  = result;
+  }
+
+  public String getOrderCd() {
+    return orderCd;
+  }
+
+  public CompletionStage<Void> getResult() {
+    return result;
+  }
+}
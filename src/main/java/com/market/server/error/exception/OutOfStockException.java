@@ -0,0 +1,7 @@
+package com.market.server.error.exception;
+
+public class OutOfStockException extends IllegalArgumentException {
+  public OutOfStockException(String msg) {
+    super(msg);
+  }
+}
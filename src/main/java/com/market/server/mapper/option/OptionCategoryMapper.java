@@ -13,11 +13,9 @@ public interface OptionCategoryMapper {
 	
 	public List<OptionCategoryDTO> getOpCategory(Search search);
 	
-	public int InsertOpCategory(@Param("optionCategoryList") List<OptionCategoryDTO> optionCategoryList);
+	public int InsertOpCategory(@Param("optionCategoryList") List<OptionCategoryDTO> optionCategoryList, @Param("opCategorySeq") int opCategorySeq);
 	
 	public int UpdateOpCategory(@Param("optionCategoryList") List<OptionCategoryDTO> optionCategoryList);
 	
 	public int DeleteOpCategory(@Param("optionCategoryList") List<OptionCategoryDTO> optionCategoryList);
-	
-	public int isDuplicatedNm(@Param("opCategoryNm") String opCategoryNm);
 }
@@ -13,7 +13,7 @@ public interface OptionMapper {
 	
 	public List<OptionDTO> getOption(Search search);
 	
-	public int InsertOption(@Param("optionList") List<OptionDTO> optionList);
+	public int InsertOption(@Param("optionList") List<OptionDTO> optionList, @Param("optionSeq") int optionSeq);
 	
 	public int UpdateOption(@Param("optionList") List<OptionDTO> optionList);
 	
@@ -3,8 +3,10 @@ package com.market.server.mapper.order;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.annotations.Param;
 
+import com.market.server.dto.Search;
 import com.market.server.dto.order.OrderDTO;
 import com.market.server.dto.order.OrderDetailDTO;
 
@@ -13,9 +15,20 @@ public interface OrderMapper {
 	
 	public int doOrder(OrderDTO orderDTO);
 	
-	public List<OrderDetailDTO> getOrderList(@Param("loginNo") int loginNo);
+	public int insertOrderList(@Param("orderList") List<OrderDTO> orderList);
 	
-	public int updateOrderStatus(@Param("orderCd") String orderCd, @Param("orderStatusCd") String orderStatusCd);
+	public List<OrderDetailDTO> getOrderList(Search search);
 	
-	public int insertOrderLog(@Param("orderList") List<OrderDTO> orderList);
+	public int updateOrderStatus(@Param("orderCd") String orderCd, @Param("orderStatusCd") String orderStatusCd,
+			                     @Param("expectedStatusCd") String expectedStatusCd);
+	
+	public OrderDTO getOrderInfo(@Param("orderCd") String orderCd);
+	
+	public String getOrderStatusForUpdate(@Param("orderCd") String orderCd);
+	
+	public int insertOrderLog(OrderDTO orderDTO);
+	
+	public Cursor<OrderDTO> exportOrderList(Search search);
+	
+	public Cursor<OrderDTO> exportOrderLogList(Search search);
 }
@@ -12,7 +12,7 @@ public interface OrderStatusMapper {
 	
 	public List<OrderStatusDTO> getOrderStatus();
 	
-	public void InsertOrderStatus(@Param("orderStatusList") List<OrderStatusDTO> orderStatusList);
+	public void InsertOrderStatus(@Param("orderStatusList") List<OrderStatusDTO> orderStatusList, @Param("orderStatusSeq") int orderStatusSeq);
 	
 	public void UpdateOrderStatus(@Param("orderStatusList") List<OrderStatusDTO> orderStatusList);
 	
@@ -0,0 +1,25 @@
+package com.market.server.mapper.order;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.market.server.dto.Search;
+import com.market.server.dto.order.OrderDetailDTO;
+
+@Mapper
+public interface OrderSummaryMapper {
+	
+	public List<OrderDetailDTO> getOrderDetailList(Search search);
+	
+	public int upsertOrderSummaryList(@Param("orderList") List<OrderDetailDTO> orderList);
+	
+	public int updateOrderSummaryStatus(@Param("orderCd") String orderCd, @Param("orderStatusCd") String orderStatusCd);
+	
+	public List<OrderDetailDTO> getOrderSummaryList(Search search);
+	
+	public List<Integer> getOrderSeqList(Search search);
+	
+	public List<Integer> getMismatchOrderSeqList(Search search);
+}
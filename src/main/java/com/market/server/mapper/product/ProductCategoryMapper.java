@@ -13,11 +13,9 @@ public interface ProductCategoryMapper {
 	
 	public List<ProductCategoryDTO> getCategory(Search search);
 	
-	public int InsertCategory(@Param("categoryList") List<ProductCategoryDTO> categoryList);
+	public int InsertCategory(@Param("categoryList") List<ProductCategoryDTO> categoryList, @Param("categorySeq") int categorySeq);
 	
 	public int UpdateCategory(@Param("categoryList") List<ProductCategoryDTO> categoryList);
 	
 	public int DeleteCategory(@Param("categoryList") List<ProductCategoryDTO> categoryList);
-	
-	public int isDuplicatedNm(@Param("categoryNm") String categoryNm);
 }
@@ -13,11 +13,9 @@ public interface ProductDivisionMapper {
 	
 	public List<ProductDivisionDTO> getDivision(Search search);
 	
-	public int InsertDivision(@Param("divisionList") List<ProductDivisionDTO> divisionList);
+	public int InsertDivision(@Param("divisionList") List<ProductDivisionDTO> divisionList, @Param("divisionSeq") int divisionSeq);
 	
 	public int UpdateDivision(@Param("divisionList") List<ProductDivisionDTO> divisionList);
 	
 	public int DeleteDivision(@Param("divisionList") List<ProductDivisionDTO> divisionList);
-	
-	public int isDuplicatedNm(@Param("divisionNm") String divisionNm);
 }
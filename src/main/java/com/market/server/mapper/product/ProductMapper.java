@@ -1,33 +1,42 @@
 package com.market.server.mapper.product;
 
 import java.util.List;
-import java.util.Map;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import com.market.server.dto.Search;
+import com.market.server.dto.product.ProductCardDTO;
 import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductPriceDTO;
 
 @Mapper
 public interface ProductMapper {
 	
-	public List<ProductDTO> productInfo(Search search);
+	public List<ProductCardDTO> productCardInfo(Search search);
 	
 	public ProductDTO productDetail(Search search);
 	
+	public ProductPriceDTO productPrice(@Param("itemCd") String itemCd);
+	
+	public List<ProductDTO> productDetailList(Search search);
+	
 	public int InsertProduct(ProductDTO productDTO);
 	
 	public int UpdateProduct(ProductDTO productDTO);
 	
 	public int DeleteProduct(Search search);
 	
-	public String findByItemCd(@Param("itemSeq") int itemSeq);
+	public List<ProductDTO> productRankInfo(Search search);
+	
+	public List<ProductDTO> productRankScope();
+	
+	public List<ProductDTO> productSearchIndexInfo(Search search);
 	
-	public int updateLikeCnt(@Param("likeMap") Map<Object, Object> likeMap);
+	public int addLikeCnt(@Param("itemCd") String itemCd, @Param("cnt") long cnt, @Param("snapshotId") long snapshotId);
 	
-	public int updateViewCnt(@Param("viewMap") Map<Object, Object> viewMap);
+	public int addViewCnt(@Param("itemCd") String itemCd, @Param("cnt") long cnt, @Param("snapshotId") long snapshotId);
 	
-	public int updateOrderCnt(@Param("orderMap") Map<Object, Object> orderMap);
+	public int addOrderCnt(@Param("itemCd") String itemCd, @Param("cnt") long cnt, @Param("snapshotId") long snapshotId);
 	
 }
@@ -0,0 +1,19 @@
+package com.market.server.mapper.product;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.market.server.dto.product.ProductStockDTO;
+
+@Mapper
+public interface ProductStockMapper {
+	
+	public ProductStockDTO getStock(@Param("itemCd") String itemCd, @Param("optionCd") String optionCd);
+	
+	public ProductStockDTO getStockForUpdate(@Param("itemCd") String itemCd, @Param("optionCd") String optionCd);
+	
+	public int mergeStock(ProductStockDTO productStockDTO);
+	
+	public int addSoldQty(@Param("itemCd") String itemCd, @Param("optionCd") String optionCd, @Param("qty") long qty, @Param("snapshotId") long snapshotId);
+	
+}
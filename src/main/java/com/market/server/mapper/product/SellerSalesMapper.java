@@ -0,0 +1,21 @@
+package com.market.server.mapper.product;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.market.server.dto.Search;
+import com.market.server.dto.product.SellerSalesDTO;
+
+@Mapper
+public interface SellerSalesMapper {
+	
+	public int addSalesList(@Param("salesList") List<SellerSalesDTO> salesList);
+	
+	public int deleteSales(@Param("salesDate") String salesDate);
+	
+	public int rebuildSales(@Param("salesDate") String salesDate);
+	
+	public List<SellerSalesDTO> getSalesList(Search search);
+}
@@ -1,5 +1,7 @@
 package com.market.server.mapper.product;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 
 import com.market.server.dto.Search;
@@ -10,6 +12,8 @@ public interface TradingAreaMapper {
 	
 	public TradingAreaDTO getTradingArea(Search search);
 	
+	public List<TradingAreaDTO> getTradingAreaList(Search search);
+	
 	public int InsertTradingArea(TradingAreaDTO tradingAreaDTO);
 	
 	public int UpdateTradingArea(TradingAreaDTO tradingAreaDTO);
@@ -0,0 +1,17 @@
+package com.market.server.mapper.sequence;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface SequenceMapper {
+	
+	public long getMaxSeq(@Param("tableNm") String tableNm, @Param("columnNm") String columnNm);
+	
+	public int initSequence(@Param("seqNm") String seqNm, @Param("tableNm") String tableNm, @Param("columnNm") String columnNm);
+	
+	public int allocateSequence(@Param("seqNm") String seqNm, @Param("size") long size);
+	
+	public long getLastInsertId();
+	
+}
@@ -1,5 +1,8 @@
 package com.market.server.mapper.user;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.apache.ibatis.annotations.*;
 
 import com.market.server.dto.user.UserDTO;
@@ -22,4 +25,6 @@ public interface UserMapper {
 	public int delete(@Param("loginNo") int loginNo);
 	
 	public String findById(@Param("loginNo") int loginNo);
+	
+	public List<UserDTO> findIdList(@Param("loginNoList") Collection<Integer> loginNoList);
 }
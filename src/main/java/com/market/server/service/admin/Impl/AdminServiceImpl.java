@@ -7,6 +7,8 @@ import com.market.server.dto.admin.AdminDTO;
 import com.market.server.error.exception.DuplicateIdException;
 import com.market.server.mapper.admin.AdminMapper;
 import com.market.server.service.admin.AdminService;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 import com.market.server.utils.SHA256Util;
 
 import lombok.extern.log4j.Log4j2;
@@ -18,6 +20,9 @@ public class AdminServiceImpl implements AdminService{
 	@Autowired
 	private final AdminMapper adminMapper;
 	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	public AdminServiceImpl(AdminMapper adminMapper) {
         this.adminMapper = adminMapper;
     }
@@ -49,6 +54,7 @@ public class AdminServiceImpl implements AdminService{
 		
 		adminDTO.setLoginPw(SHA256Util.encryptSHA256(adminDTO.getLoginPw())); // 비밀번호 암호화
 		
+		adminDTO.setAdminNo(sequenceService.next(Sequence.ADMIN)); // 관리자번호 채번
 		return adminMapper.insert(adminDTO);
 	}
 
@@ -10,6 +10,8 @@ import com.market.server.dto.cart.CartDTO;
 import com.market.server.dto.cart.CartDetailDTO;
 import com.market.server.mapper.cart.CartMapper;
 import com.market.server.service.cart.CartService;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -19,6 +21,9 @@ public class CartServiceImpl implements CartService{
 	
 	@Autowired
 	private CartMapper cartMapper;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
 
 	
 	/**
@@ -41,6 +46,7 @@ public class CartServiceImpl implements CartService{
 			throw new RuntimeException("Insert ERROR! 찜 등록 정보를 확인해주세요.\n" + "cartDTO : " + cartDTO);
 		}
 		
+		cartDTO.setLikeSeq(sequenceService.next(Sequence.CART)); // 예약시퀀스 채번
 		int result = cartMapper.insertCart(cartDTO);
 		
 		if(result != 1) { // 등록 실패인 경우
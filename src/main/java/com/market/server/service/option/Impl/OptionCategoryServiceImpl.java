@@ -9,6 +9,9 @@ import com.market.server.dto.Search;
 import com.market.server.dto.option.OptionCategoryDTO;
 import com.market.server.mapper.option.OptionCategoryMapper;
 import com.market.server.service.option.OptionCategoryService;
+import com.market.server.service.reference.Impl.ReferenceDataServiceImpl;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -19,13 +22,22 @@ public class OptionCategoryServiceImpl implements OptionCategoryService{
 	@Autowired
 	private final OptionCategoryMapper optionCategoryMapper;
 	
+	@Autowired
+	private ReferenceDataServiceImpl referenceDataService;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	public OptionCategoryServiceImpl(OptionCategoryMapper optionCategoryMapper) {
         this.optionCategoryMapper = optionCategoryMapper;
     }
 	
+	/**
+	 * 옵션 카테고리를 조회한다.(기준정보 snapshot 조회)
+	 */
 	@Override
 	public List<OptionCategoryDTO> getOpCategory(Search search) {
-		return optionCategoryMapper.getOpCategory(search);
+		return referenceDataService.getOpCategory(search);
 	}
 
 	@Override
@@ -41,7 +53,11 @@ public class OptionCategoryServiceImpl implements OptionCategoryService{
 			}
 		}
 		
-		return optionCategoryMapper.InsertOpCategory(optionCategoryList);
+		// 옵션카테고리 수만큼 연속된 시퀀스 채번
+		int result = optionCategoryMapper.InsertOpCategory(optionCategoryList, sequenceService.nextRange(Sequence.OPTION_CATEGORY, optionCategoryList.size()));
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
+		
+		return result;
 	}
 
 	@Override
@@ -64,6 +80,7 @@ public class OptionCategoryServiceImpl implements OptionCategoryService{
 			log.error("update OptionCategory error! {}", optionCategoryList);
 		    throw new RuntimeException("update OptionCategory error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 
 	@Override
@@ -74,15 +91,15 @@ public class OptionCategoryServiceImpl implements OptionCategoryService{
 			log.error("delete OptionCategory error! {}", optionCategoryList);
 		    throw new RuntimeException("delete OptionCategory error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 	
 	/**
-	 * 상품 카테고리 명 중복 여부 확인
+	 * 옵션 카테고리 명 중복 여부 확인(기준정보 snapshot 조회)
 	 */
 	@Override
 	public boolean isDuplicatedNm(String categoryNm) {
-		int result = optionCategoryMapper.isDuplicatedNm(categoryNm);
-		return result == 1 ? true : false;
+		return referenceDataService.isDuplicatedOpCategoryNm(categoryNm);
 	}
 
 }
@@ -9,6 +9,8 @@ import com.market.server.dto.Search;
 import com.market.server.dto.option.OptionDTO;
 import com.market.server.mapper.option.OptionMapper;
 import com.market.server.service.option.OptionService;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -19,6 +21,9 @@ public class OptionServiceImpl implements OptionService{
 	@Autowired
 	private OptionMapper optionMapper;
 	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	/**
 	 * 상품 옵션을 조회한다.
 	 */
@@ -32,7 +37,8 @@ public class OptionServiceImpl implements OptionService{
 	 */
 	@Override
 	public int InsertOption(List<OptionDTO> optionList) {
-		return optionMapper.InsertOption(optionList);
+		// 옵션 수만큼 연속된 시퀀스 채번
+		return optionMapper.InsertOption(optionList, sequenceService.nextRange(Sequence.OPTION, optionList.size()));
 	}
 
 	/**
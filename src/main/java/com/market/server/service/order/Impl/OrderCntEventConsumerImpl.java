@@ -0,0 +1,46 @@
+package com.market.server.service.order.Impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.service.order.OrderStatusEventConsumer;
+import com.market.server.service.product.Impl.ProductCntCounterServiceImpl;
+import com.market.server.utils.RedisKeyFactory;
+
+/**
+ * 주문상태 변경 시 상품별 주문수량 count를 변경한다.
+ */
+@Service
+public class OrderCntEventConsumerImpl implements OrderStatusEventConsumer {
+
+	@Autowired
+	private ProductCntCounterServiceImpl productCntCounterService;
+
+	@Override
+	public String getName() {
+		return "orderCnt";
+	}
+
+	@Override
+	public void consume(List<OrderStatusChangedEvent> eventList) {
+		for(OrderStatusChangedEvent event : eventList) {
+			if(event.getItemCd() == null || event.getOrderCnt() == null) {
+				continue;
+			}
+
+			// 배송완료 시 주문수량 count 저장, OSC007 - 배송완료
+			if("OSC007".equals(event.getOrderStatusCd())) {
+				productCntCounterService.increment(RedisKeyFactory.ORDER_CNT_KEY, event.getItemCd(), event.getOrderCnt());
+			}
+
+			// 환불완료 시 주문수량 count 변경, OSC009 - 환불완료
+			if("OSC009".equals(event.getOrderStatusCd())) {
+				productCntCounterService.increment(RedisKeyFactory.ORDER_CNT_KEY, event.getItemCd(), -event.getOrderCnt());
+			}
+		}
+	}
+
+}
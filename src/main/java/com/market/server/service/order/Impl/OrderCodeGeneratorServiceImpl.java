@@ -0,0 +1,188 @@
+package com.market.server.service.order.Impl;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dao.OrderCodeNodeDao;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문코드 생성
+ *
+ * 주문코드 : "OD" + 19자리 숫자(시간 41bit + 노드번호 10bit + 순번 12bit)
+ * 시간순으로 증가하므로 주문코드 index에 순차적으로 추가되고, 노드번호로 서버간 중복을 방지한다.
+ *
+ * 시간과 순번은 하나의 long에 담아 CAS로 갱신한다.(lock 없음)
+ * 같은 ms에 순번(4096개)을 모두 사용하거나 서버 시간이 뒤로 이동한 경우 이전 시간에서 이어서 증가시킨다.
+ *
+ * 노드번호는 order.code.nodeId로 지정하며, 지정하지 않은 경우(-1) Redis에서 비어있는 노드번호를 점유(lease)한다.
+ * lease 연장은 전용 스레드에서 처리하고(다른 스케줄 작업에 밀리지 않도록),
+ * 마지막 연장 이후 lease - margin이 지나면 다른 서버가 같은 노드번호를 점유할 수 있으므로 주문코드를 생성하지 않는다.
+ */
+@Service
+@Log4j2
+public class OrderCodeGeneratorServiceImpl {
+
+	private static final String PREFIX = "OD";
+
+	private static final long EPOCH = 1609426800000L; // 2021-01-01 00:00:00 (KST)
+
+	private static final int NODE_BITS     = 10;
+	private static final int SEQUENCE_BITS = 12;
+
+	private static final int  MAX_NODE_ID   = (1 << NODE_BITS) - 1;
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	private static final int CODE_DIGITS = 19; // Long.MAX_VALUE 자리수
+
+	@Autowired
+	private OrderCodeNodeDao orderCodeNodeDao;
+
+	@Value("${order.code.nodeId}")
+	private int configNodeId;
+
+	@Value("${order.code.node.lease}")
+	private long leaseMillis;
+
+	@Value("${order.code.node.renew}")
+	private long renewMillis;
+
+	@Value("${order.code.node.margin}")
+	private long marginMillis;
+
+	private final String owner = UUID.randomUUID().toString();
+
+	private final AtomicLong state = new AtomicLong(); // 시간 << SEQUENCE_BITS | 순번
+
+	private volatile int nodeId = -1;
+
+	private volatile long leaseRenewedAt; // 마지막으로 점유/연장을 요청한 시각(ms)
+
+	private ScheduledExecutorService renewScheduler;
+
+	@PostConstruct
+	public void init() {
+		if(configNodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("order.code.nodeId must be less than or equal to " + MAX_NODE_ID);
+		}
+		if(configNodeId >= 0) {
+			nodeId = configNodeId;
+		}else {
+			if(marginMillis >= leaseMillis - renewMillis) {
+				throw new IllegalArgumentException("order.code.node.margin must be less than lease - renew");
+			}
+			nodeId = acquireNodeId();
+
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("orderCodeNode-");
+			threadFactory.setDaemon(true);
+			renewScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			renewScheduler.scheduleWithFixedDelay(this::renewNodeId, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+		}
+		log.info("Order Code Node! nodeId : {}", nodeId);
+	}
+
+	/**
+	 * 주문코드를 생성한다.
+	 *
+	 * @return OD + 19자리 숫자
+	 */
+	public String nextOrderCd() {
+		long id = nextId();
+
+		char[] code = new char[PREFIX.length() + CODE_DIGITS];
+		PREFIX.getChars(0, PREFIX.length(), code, 0);
+		for(int i = code.length - 1; i >= PREFIX.length(); i--) {
+			code[i] = (char) ('0' + id % 10);
+			id /= 10;
+		}
+		return new String(code);
+	}
+
+	/**
+	 * 시간순으로 증가하는 id를 생성한다.
+	 *
+	 * @return
+	 * @throws IllegalStateException 노드번호 lease가 만료되었거나 곧 만료되는 경우
+	 */
+	public long nextId() {
+		if(configNodeId < 0 && System.currentTimeMillis() - leaseRenewedAt > leaseMillis - marginMillis) {
+			log.error("Order Code Node Lease Expired! nodeId : {}, renewedAt : {}", nodeId, leaseRenewedAt);
+			throw new IllegalStateException("Order Code Node ERROR! 노드번호 lease가 만료되었습니다. nodeId : " + nodeId);
+		}
+
+		long prev;
+		long next;
+		do {
+			prev = state.get();
+			long now = System.currentTimeMillis() - EPOCH;
+
+			if(now > (prev >>> SEQUENCE_BITS)) {
+				next = now << SEQUENCE_BITS;
+			}else {
+				next = prev + 1; // 순번 초과 시 다음 ms로 넘어간다.
+			}
+		}while(!state.compareAndSet(prev, next));
+
+		return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+				| ((long) nodeId << SEQUENCE_BITS)
+				| (next & SEQUENCE_MASK);
+	}
+
+	/**
+	 * 점유한 노드번호의 lease를 연장한다. 연장에 실패한 경우 다른 노드번호를 점유한다.
+	 */
+	void renewNodeId() {
+		try {
+			long requestedAt = System.currentTimeMillis();
+			if(orderCodeNodeDao.renew(nodeId, owner, leaseMillis)) {
+				leaseRenewedAt = requestedAt;
+			}else {
+				log.error("Order Code Node Lease Lost! nodeId : {}", nodeId);
+				nodeId = acquireNodeId();
+				log.info("Order Code Node! nodeId : {}", nodeId);
+			}
+		}catch (Exception e) {
+			log.error("Order Code Node Renew ERROR! nodeId : {}", nodeId, e);
+		}
+	}
+
+	/**
+	 * 서버 종료 시 점유한 노드번호를 반납한다.
+	 */
+	@PreDestroy
+	public void destroy() {
+		if(renewScheduler != null) {
+			renewScheduler.shutdownNow();
+		}
+		if(configNodeId < 0 && nodeId >= 0) {
+			orderCodeNodeDao.release(nodeId, owner);
+		}
+	}
+
+	private int acquireNodeId() {
+		int start = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+		for(int i = 0; i <= MAX_NODE_ID; i++) {
+			int candidate = (start + i) & MAX_NODE_ID;
+			long requestedAt = System.currentTimeMillis();
+			if(orderCodeNodeDao.acquire(candidate, owner, leaseMillis)) {
+				leaseRenewedAt = requestedAt;
+				return candidate;
+			}
+		}
+		throw new RuntimeException("Order Code Node ERROR! 사용 가능한 노드번호가 없습니다.");
+	}
+
+}
@@ -0,0 +1,249 @@
+package com.market.server.service.order.Impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.service.order.OrderStatusEventConsumer;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문상태 변경 이벤트 발행
+ *
+ * 주문상태 변경이 커밋된 이후 소비자(주문이력, 주문수량 count, 판매집계, 푸시)별 대기열에 이벤트를 넣고 요청은 바로 반환한다.
+ * synchronous 소비자(주문이력)는 커밋 직후 발행한 스레드에서 바로 처리하고, 실패한 경우에만 대기열에 넣어 재시도한다.
+ * 소비자별 스레드가 대기열의 이벤트를 batchSize건까지 묶어서 처리하므로 느린 소비자(푸시)가 다른 소비자를 지연시키지 않는다.
+ * 대기열이 가득 차 offerTimeout(ms) 동안 넣지 못하면 발행한 스레드에서 직접 처리한다.
+ * 처리에 실패한 batch는 durable 소비자(주문이력, 주문수량 count, 판매집계)인 경우 retryBackoff(ms)부터 2배씩 늘려가며 retryMaxAttempts번까지 처리한다.
+ * 그래도 실패하거나 durable 소비자가 아닌 경우 이벤트를 dead letter 로그(order.event.dead)로 남기고 버린다.
+ * 이벤트는 메모리 대기열에만 있으므로 서버가 종료되면 처리하지 않은 이벤트는 유실된다.
+ */
+@Service
+@Log4j2
+public class OrderEventServiceImpl {
+
+	@Autowired
+	private List<OrderStatusEventConsumer> consumers;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.event.queueCapacity}")
+	private int queueCapacity;
+
+	@Value("${order.event.batchSize}")
+	private int batchSize;
+
+	@Value("${order.event.offerTimeout}")
+	private long offerTimeout;
+
+	@Value("${order.event.retryMaxAttempts}")
+	private int retryMaxAttempts;
+
+	@Value("${order.event.retryBackoff}")
+	private long retryBackoff;
+
+	private final List<Worker> workers = new ArrayList<>();
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void init() {
+		running = true;
+		for(OrderStatusEventConsumer consumer : consumers) {
+			Worker worker = new Worker(consumer);
+			workers.add(worker);
+			worker.thread.start();
+		}
+	}
+
+	/**
+	 * 트랜잭션 커밋 이후 이벤트를 발행한다.(트랜잭션이 없는 경우 바로 발행)
+	 *
+	 * @param event
+	 */
+	public void publishAfterCommit(OrderStatusChangedEvent event) {
+		TransactionUtil.afterCommit(() -> publish(event));
+	}
+
+	/**
+	 * 소비자별 대기열에 이벤트를 넣는다.
+	 *
+	 * @param event
+	 */
+	public void publish(OrderStatusChangedEvent event) {
+		for(Worker worker : workers) {
+			if(worker.consumer.isSynchronous() && worker.tryConsume(Collections.singletonList(event), 1)) {
+				continue;
+			}
+
+			boolean queued = false;
+			try {
+				queued = running && worker.queue.offer(event, offerTimeout, TimeUnit.MILLISECONDS);
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			if(!queued) {
+				worker.overflowCounter.increment();
+				worker.consume(Collections.singletonList(event));
+			}
+		}
+	}
+
+	/**
+	 * 소비자가 아직 처리하지 않은 가장 오래된 이벤트의 변경일시를 조회한다.(처리중인 batch, 대기열)
+	 * 대기열이 가득 차 발행한 스레드에서 직접 처리하는 이벤트는 포함하지 않는다.
+	 *
+	 * @param consumerName 소비자 이름
+	 * @return yyyy-MM-dd HH:mm:ss, 처리할 이벤트가 없으면 null
+	 */
+	public String getPendingSince(String consumerName) {
+		for(Worker worker : workers) {
+			if(worker.consumer.getName().equals(consumerName)) {
+				OrderStatusChangedEvent head = worker.queue.peek();
+				return oldest(worker.consumingDttm, head == null ? null : head.getChangedDttm());
+			}
+		}
+		return null;
+	}
+
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		running = false;
+		for(Worker worker : workers) {
+			worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	private static String oldest(String a, String b) {
+		if(a == null) {
+			return b;
+		}
+		return b == null || a.compareTo(b) <= 0 ? a : b;
+	}
+
+	private class Worker {
+		private final OrderStatusEventConsumer consumer;
+		private final BlockingQueue<OrderStatusChangedEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+		private final Thread thread;
+		private final DistributionSummary batchSizeSummary;
+		private final Timer consumeTimer;
+		private final Counter overflowCounter;
+		private final Counter errorCounter;
+		private final Counter deadCounter;
+		private volatile String consumingDttm; // 처리중인 batch의 가장 오래된 변경일시
+
+		private Worker(OrderStatusEventConsumer consumer) {
+			this.consumer = consumer;
+			Tags tags = Tags.of("consumer", consumer.getName());
+			this.batchSizeSummary = meterRegistry.summary("order.event.batch.size", tags);
+			this.consumeTimer     = meterRegistry.timer("order.event.consume", tags);
+			this.overflowCounter  = meterRegistry.counter("order.event.overflow", tags);
+			this.errorCounter     = meterRegistry.counter("order.event.error", tags);
+			this.deadCounter      = meterRegistry.counter("order.event.dead", tags);
+			meterRegistry.gauge("order.event.queue", tags, queue, BlockingQueue::size);
+
+			this.thread = new Thread(this::run, "orderEvent-" + consumer.getName());
+			this.thread.setDaemon(true);
+		}
+
+		private void run() {
+			List<OrderStatusChangedEvent> batch = new ArrayList<>(batchSize);
+			while(running || !queue.isEmpty()) {
+				try {
+					OrderStatusChangedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+					if(first == null) {
+						continue;
+					}
+					consumingDttm = first.getChangedDttm();
+					batch.add(first);
+					queue.drainTo(batch, batchSize - 1);
+					consumingDttm = oldest(batch);
+					consume(batch);
+				}catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}finally {
+					consumingDttm = null;
+					batch.clear();
+				}
+			}
+		}
+
+		private String oldest(List<OrderStatusChangedEvent> batch) {
+			String oldest = null;
+			for(OrderStatusChangedEvent event : batch) {
+				oldest = OrderEventServiceImpl.oldest(oldest, event.getChangedDttm());
+			}
+			return oldest;
+		}
+
+		/**
+		 * batch를 처리한다. durable 소비자는 실패 시 재시도하고, 끝내 실패한 이벤트는 dead letter로 남긴다.
+		 */
+		private void consume(List<OrderStatusChangedEvent> batch) {
+			batchSizeSummary.record(batch.size());
+			int maxAttempts = consumer.isDurable() ? Math.max(1, retryMaxAttempts) : 1;
+			long backoff = retryBackoff;
+
+			for(int attempt = 1; ; attempt++) {
+				if(tryConsume(batch, attempt)) {
+					return;
+				}
+				if(attempt >= maxAttempts || !sleep(backoff)) {
+					break;
+				}
+				backoff *= 2;
+			}
+
+			deadCounter.increment(batch.size());
+			for(OrderStatusChangedEvent event : batch) {
+				log.error("Order Event Dead Letter! consumer : {}, event : {}", consumer.getName(), event);
+			}
+		}
+
+		private boolean tryConsume(List<OrderStatusChangedEvent> batch, int attempt) {
+			long startTime = System.nanoTime();
+			try {
+				consumer.consume(batch);
+				return true;
+			}catch (Exception e) {
+				errorCounter.increment();
+				log.error("Order Event Consume ERROR! consumer : {}, size : {}, attempt : {}", consumer.getName(), batch.size(), attempt, e);
+				return false;
+			}finally {
+				consumeTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private boolean sleep(long millis) {
+			try {
+				Thread.sleep(millis);
+				return true;
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.market.server.service.order.Impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.market.server.dto.Search;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.utils.CsvWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문 내보내기 (정산용)
+ *
+ * 기간 내 주문(TBL_ORDER_INFO) 또는 주문이력(TBL_ORDER_INFO_LOG)을 MyBatis Cursor로 한 건씩 읽어 바로 응답에 쓴다.
+ * 결과를 목록으로 만들지 않으므로 기간과 관계없이 사용하는 메모리가 일정하다.
+ * - format : csv, jsonl(한 줄에 주문 하나)
+ * - gzip : true 인 경우 gzip으로 압축하여 쓴다.
+ */
+@Service
+@Log4j2
+public class OrderExportServiceImpl {
+
+	public static final String TYPE_ORDER = "order";
+	public static final String TYPE_LOG   = "log";
+
+	public static final String FORMAT_CSV   = "csv";
+	public static final String FORMAT_JSONL = "jsonl";
+
+	private static final String[] HEADER = {"orderSeq", "orderCd", "loginNo", "itemCd", "optionCd", "orderStatusCd", "orderCnt",
+			"orderPrice", "deliveryPrice", "discountPrice", "totalPrice", "orderDttm", "regDttm", "updDttm"};
+
+	@Autowired
+	private OrderMapper orderMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.export.maxDays}")
+	private int maxDays;
+
+	@Value("${order.export.flushRows}")
+	private int flushRows;
+
+	/**
+	 * 내보내기 조건을 확인한다. 응답을 쓰기 전에 호출하여 조건 오류를 일반 오류 응답으로 반환한다.
+	 *
+	 * @param type order, log
+	 * @param format csv, jsonl
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @return 조회조건
+	 */
+	public Search prepare(String type, String format, String fromDate, String toDate) {
+		if(!TYPE_ORDER.equals(type) && !TYPE_LOG.equals(type)) {
+			throw new RuntimeException("Export ERROR! type은 order, log 중 하나입니다.\n" + "type : " + type);
+		}
+		if(!FORMAT_CSV.equals(format) && !FORMAT_JSONL.equals(format)) {
+			throw new RuntimeException("Export ERROR! format은 csv, jsonl 중 하나입니다.\n" + "format : " + format);
+		}
+
+		LocalDate from = toDate(fromDate);
+		LocalDate to   = toDate(toDate);
+		if(from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= maxDays) {
+			throw new RuntimeException("Export ERROR! 조회기간은 " + maxDays + "일 이내입니다.\n" + "fromDate : " + fromDate + ", toDate : " + toDate);
+		}
+
+		Search search = new Search();
+		search.add("type",     type);
+		search.add("format",   format);
+		search.add("fromDttm", from + " 00:00:00");
+		search.add("toDttm",   to + " 23:59:59");
+		return search;
+	}
+
+	/**
+	 * 주문을 내보낸다.
+	 *
+	 * @param search prepare 조회조건
+	 * @param gzip
+	 * @param out 응답 stream
+	 * @return 내보낸 건수
+	 */
+	public long export(Search search, boolean gzip, OutputStream out) throws IOException {
+		String type = search.getString("type");
+		boolean csv = FORMAT_CSV.equals(search.getString("format"));
+		long startTime = System.nanoTime();
+
+		OutputStream stream = gzip ? new GZIPOutputStream(out, 8192) : out;
+		Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 8192);
+		CsvWriter csvWriter = new CsvWriter(writer);
+
+		long rows;
+		try {
+			if(csv) {
+				csvWriter.writeRecord((Object[]) HEADER);
+			}
+			rows = transactionTemplate.execute(status -> {
+				long count = 0;
+				try (Cursor<OrderDTO> cursor = TYPE_LOG.equals(type) ? orderMapper.exportOrderLogList(search)
+						                                            : orderMapper.exportOrderList(search)) {
+					for(OrderDTO orderDTO : cursor) {
+						if(csv) {
+							writeCsv(csvWriter, orderDTO);
+						}else {
+							writer.write(objectMapper.writeValueAsString(orderDTO));
+							writer.write('\n');
+						}
+						if(++count % flushRows == 0) {
+							writer.flush(); // 응답을 나누어 전송
+						}
+					}
+				}catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return count;
+			});
+			csvWriter.close(); // gzip trailer 포함
+		}catch (UncheckedIOException e) {
+			log.error("Order Export ERROR! {}", search, e);
+			throw e.getCause();
+		}
+
+		meterRegistry.counter("order.export.rows", "type", type).increment(rows);
+		meterRegistry.timer("order.export", "type", type).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+		log.info("Order Export! {}, rows : {}, elapsed : {}ms", search, rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+		return rows;
+	}
+
+	private void writeCsv(CsvWriter csvWriter, OrderDTO orderDTO) throws IOException {
+		csvWriter.writeRecord(orderDTO.getOrderSeq(), orderDTO.getOrderCd(), orderDTO.getLoginNo(), orderDTO.getItemCd(),
+				orderDTO.getOptionCd(), orderDTO.getOrderStatusCd(), orderDTO.getOrderCnt(), orderDTO.getOrderPrice(),
+				orderDTO.getDeliveryPrice(), orderDTO.getDiscountPrice(), orderDTO.getTotalPrice(), orderDTO.getOrderDttm(),
+				orderDTO.getRegDttm(), orderDTO.getUpdDttm());
+	}
+
+	private LocalDate toDate(String date) {
+		try {
+			return LocalDate.parse(date);
+		}catch (DateTimeParseException | NullPointerException e) {
+			throw new RuntimeException("Export ERROR! yyyy-MM-dd 형식으로 입력해주세요.\n" + "date : " + date);
+		}
+	}
+
+}
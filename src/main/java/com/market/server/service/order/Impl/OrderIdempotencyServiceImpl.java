@@ -0,0 +1,238 @@
+package com.market.server.service.order.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.market.server.dao.OrderIdempotencyDao;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.error.exception.IdempotencyConflictException;
+import com.market.server.error.exception.OrderWriteTimeoutException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문 요청 멱등 처리
+ *
+ * 같은 사용자가 같은 멱등키(Idempotency-Key)로 재요청하면 주문을 다시 처리하지 않고 저장된 주문코드를 반환한다.
+ * - 같은 서버에 동시에 들어온 요청은 먼저 들어온 요청의 결과를 함께 기다린다.
+ * - 다른 서버에 들어온 요청은 Redis의 처리 상태를 확인하여 처리완료 시 결과를 반환하고, 처리중이면 잠시 기다린다.
+ * 처리에 실패한 경우 멱등키를 삭제하여 재요청 시 다시 처리한다.
+ * 주문 저장 대기시간이 초과된 경우 처리중 상태를 멱등키 보관 시간(ttl)만큼 연장하고, 이후 저장 결과에 따라 완료/삭제한다.
+ * 같은 멱등키로 다른 주문 내용을 요청하면 IdempotencyConflictException을 발생시킨다.
+ */
+@Service
+@Log4j2
+public class OrderIdempotencyServiceImpl {
+
+	private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+	private static final long POLL_INTERVAL = 50;
+
+	@Autowired
+	private OrderIdempotencyDao orderIdempotencyDao;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.idempotency.ttl}")
+	private long ttlMillis;
+
+	@Value("${order.idempotency.pendingTtl}")
+	private long pendingMillis;
+
+	@Value("${order.idempotency.waitTimeout}")
+	private long waitTimeout;
+
+	private final ConcurrentMap<String, InFlight> inFlightMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 멱등키 기준으로 주문을 한번만 처리한다.
+	 *
+	 * @param loginNo
+	 * @param idempotencyKey 클라이언트 멱등키
+	 * @param orderDTO 주문정보(요청지문 생성용)
+	 * @param order 주문 처리, 주문코드 반환
+	 * @return 주문코드
+	 */
+	public String execute(int loginNo, String idempotencyKey, OrderDTO orderDTO, Supplier<String> order) {
+		if(!KEY_PATTERN.matcher(idempotencyKey).matches()) {
+			throw new RuntimeException("Idempotency-Key ERROR! 영문, 숫자, '-', '_' 64자 이내로 입력해주세요.\n" + "Idempotency-Key : " + idempotencyKey);
+		}
+
+		String fingerprint = fingerprint(orderDTO);
+		InFlight mine = new InFlight(fingerprint);
+		String localKey = loginNo + ":" + idempotencyKey;
+
+		InFlight prev = inFlightMap.putIfAbsent(localKey, mine);
+		if(prev != null) {
+			return await(prev, fingerprint);
+		}
+
+		try {
+			String orderCd = executeOnce(loginNo, idempotencyKey, fingerprint, order);
+			mine.future.complete(orderCd);
+			return orderCd;
+		}catch (RuntimeException e) {
+			mine.future.completeExceptionally(e);
+			throw e;
+		}finally {
+			inFlightMap.remove(localKey, mine);
+		}
+	}
+
+	private String executeOnce(int loginNo, String idempotencyKey, String fingerprint, Supplier<String> order) {
+		long deadline = System.currentTimeMillis() + waitTimeout;
+
+		while(true) {
+			boolean acquired;
+			try {
+				acquired = orderIdempotencyDao.begin(loginNo, idempotencyKey, fingerprint, pendingMillis);
+			}catch (DataAccessException e) {
+				// Redis 장애 시 서버 내 중복 요청만 방지한다.
+				log.error("Idempotency Key ERROR! loginNo : {}, key : {}", loginNo, idempotencyKey, e);
+				return order.get();
+			}
+
+			if(acquired) {
+				return run(loginNo, idempotencyKey, fingerprint, order);
+			}
+
+			String[] stored = orderIdempotencyDao.get(loginNo, idempotencyKey);
+			if(stored == null) {
+				continue; // 처리 실패로 삭제된 경우 다시 선점
+			}
+			if(!fingerprint.equals(stored[1])) {
+				count("mismatch");
+				throw new IdempotencyConflictException("같은 멱등키로 다른 주문을 요청할 수 없습니다. Idempotency-Key : " + idempotencyKey);
+			}
+			if(OrderIdempotencyDao.DONE.equals(stored[0])) {
+				count("replayed");
+				return stored[2];
+			}
+
+			if(System.currentTimeMillis() >= deadline) {
+				count("pending");
+				throw new IdempotencyConflictException("처리중인 주문 요청입니다. Idempotency-Key : " + idempotencyKey);
+			}
+			sleep();
+		}
+	}
+
+	private String run(int loginNo, String idempotencyKey, String fingerprint, Supplier<String> order) {
+		String orderCd;
+		try {
+			orderCd = order.get();
+		}catch (OrderWriteTimeoutException e) {
+			// 저장 여부 미확정, 처리중 상태를 유지하여 재요청 시 중복 주문을 방지하고 저장 결과가 나오면 완료/삭제한다.
+			pendUntilWritten(loginNo, idempotencyKey, fingerprint, e);
+			throw e;
+		}catch (RuntimeException e) {
+			orderIdempotencyDao.remove(loginNo, idempotencyKey);
+			throw e;
+		}
+
+		complete(loginNo, idempotencyKey, fingerprint, orderCd);
+		count("executed");
+		return orderCd;
+	}
+
+	private void pendUntilWritten(int loginNo, String idempotencyKey, String fingerprint, OrderWriteTimeoutException e) {
+		try {
+			orderIdempotencyDao.expire(loginNo, idempotencyKey, ttlMillis); // 저장 결과를 받지 못한 경우(서버 종료 등) 대비
+		}catch (DataAccessException expireError) {
+			log.error("Idempotency Key Expire ERROR! loginNo : {}, key : {}", loginNo, idempotencyKey, expireError);
+		}
+
+		e.getResult().whenComplete((result, error) -> {
+			if(error == null) {
+				complete(loginNo, idempotencyKey, fingerprint, e.getOrderCd());
+				count("late_executed");
+				return;
+			}
+			try {
+				orderIdempotencyDao.remove(loginNo, idempotencyKey);
+			}catch (DataAccessException removeError) {
+				log.error("Idempotency Key Remove ERROR! loginNo : {}, key : {}", loginNo, idempotencyKey, removeError);
+			}
+			count("late_failed");
+		});
+	}
+
+	private void complete(int loginNo, String idempotencyKey, String fingerprint, String orderCd) {
+		try {
+			orderIdempotencyDao.complete(loginNo, idempotencyKey, fingerprint, orderCd, ttlMillis);
+		}catch (DataAccessException e) {
+			log.error("Idempotency Key Save ERROR! loginNo : {}, key : {}, orderCd : {}", loginNo, idempotencyKey, orderCd, e);
+		}
+	}
+
+	private String await(InFlight inFlight, String fingerprint) {
+		if(!inFlight.fingerprint.equals(fingerprint)) {
+			count("mismatch");
+			throw new IdempotencyConflictException("같은 멱등키로 다른 주문을 요청할 수 없습니다.");
+		}
+
+		try {
+			String orderCd = inFlight.future.get(waitTimeout, TimeUnit.MILLISECONDS);
+			count("coalesced");
+			return orderCd;
+		}catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}catch (TimeoutException e) {
+			count("pending");
+			throw new IdempotencyConflictException("처리중인 주문 요청입니다.");
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 주문 내용으로 요청지문을 생성한다.
+	 */
+	private String fingerprint(OrderDTO orderDTO) {
+		String source = orderDTO.getItemCd() + "|" + orderDTO.getOptionCd() + "|" + orderDTO.getOrderCnt() + "|"
+				+ orderDTO.getDiscountPrice() + "|" + orderDTO.getTotalPrice();
+		return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void count(String result) {
+		meterRegistry.counter("order.idempotency", "result", result).increment();
+	}
+
+	private void sleep() {
+		try {
+			Thread.sleep(POLL_INTERVAL);
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static class InFlight {
+		private final String fingerprint;
+		private final CompletableFuture<String> future = new CompletableFuture<>();
+
+		private InFlight(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+	}
+
+}
@@ -1,38 +1,301 @@
 package com.market.server.service.order.Impl;
 
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import javax.annotation.PostConstruct;
+
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.market.server.dao.OrderLogDao;
 import com.market.server.dto.order.OrderDTO;
+import com.market.server.dto.order.OrderStatusChangedEvent;
 import com.market.server.mapper.order.OrderMapper;
-import com.market.server.utils.RedisKeyFactory;
+import com.market.server.service.order.OrderStatusEventConsumer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.log4j.Log4j2;
 
+/**
+ * 주문이력
+ *
+ * 주문상태 변경이 커밋되면 요청 스레드에서 바로 이벤트(변경된 주문정보 포함)를 주문이력 stream(주문코드 기준 shard)에 추가한다.
+ * stream 추가에 실패한 이벤트는 주문상태 변경 이벤트 대기열에서 재시도하고, 끝내 실패하면 dead letter 로그로 남긴다.
+ * 메모리 대기열을 거치지 않으므로 커밋 이후 stream 추가 전까지의 짧은 구간에만 서버가 종료되면 유실될 수 있다.
+ * stream에 추가한 이력은 drainInterval(ms)마다 consumer group으로 batchSize건씩 읽어 TBL_ORDER_INFO_LOG에 JDBC batch로 저장한 뒤 ack한다.
+ * 저장 시간이 slowMillis를 넘으면 한번에 처리하는 batch 수를 절반으로 줄이고, 빠르면 하나씩 늘린다.(MySQL 부하 시 backpressure)
+ * 처리하지 못한 이력은 stream에 남아 다음 주기에 처리한다.
+ * - 서버가 ack 전에 종료된 경우 : 재시작 시 본인의 pending 이력을 먼저 다시 읽는다.
+ * - 다른 서버가 종료된 경우 : claimIdle(ms) 이상 ack되지 않은 이력을 가져와 처리한다.
+ * ack는 저장했거나 잘못된 이력으로 버린 이력만 하고, DB 오류로 저장하지 못한 이력은 pending으로 남겨 다시 처리한다.
+ * DB 저장 이후 ack 전에 종료되면 같은 이력이 다시 저장될 수 있다.(at-least-once)
+ */
 @Service
 @Log4j2
-public class OrderLogServiceImpl{
-	
+public class OrderLogServiceImpl implements OrderStatusEventConsumer{
+
 	@Autowired
 	private OrderMapper orderMapper;
-	
+
 	@Autowired
 	private OrderLogDao orderLogDao;
-	
+
+	@Autowired
+	@Qualifier("batchSqlSessionTemplate")
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.log.stream.consumer:}")
+	private String consumer;
+
+	@Value("${order.log.stream.batchSize}")
+	private int batchSize;
+
+	@Value("${order.log.stream.maxBatches}")
+	private int maxBatches;
+
+	@Value("${order.log.stream.claimIdle}")
+	private long claimIdle;
+
+	@Value("${order.log.stream.slowMillis}")
+	private long slowMillis;
+
+	private volatile boolean groupCreated;
+
+	private volatile int batchBudget; // shard별 한번에 처리하는 최대 batch 수
+
+	private AtomicLongArray shardLag;  // shard별 마지막으로 저장한 이력의 지연시간(ms)
+
+	private final AtomicLong rowsPerSec = new AtomicLong();
+
+	private Counter rowCounter;
+	private Timer writeTimer;
+
+	@PostConstruct
+	public void init() {
+		if(consumer == null || consumer.isEmpty()) {
+			consumer = defaultConsumerName();
+		}
+		log.info("Order Log Stream Consumer! consumer : {}", consumer);
+
+		batchBudget = maxBatches;
+		shardLag = new AtomicLongArray(orderLogDao.getShards());
+
+		rowCounter = meterRegistry.counter("order.log.rows");
+		writeTimer = meterRegistry.timer("order.log.write");
+		meterRegistry.gauge("order.log.rowsPerSec", rowsPerSec);
+		meterRegistry.gauge("order.log.lag", shardLag, OrderLogServiceImpl::maxLag);
+		meterRegistry.gauge("order.log.batchBudget", this, service -> service.batchBudget);
+	}
+
+	@Override
+	public String getName() {
+		return "orderLog";
+	}
+
+	@Override
+	public boolean isSynchronous() {
+		return true;
+	}
+
 	/**
-	 * 일정시간마다 주문상태를 log 테이블에 insert 및 주문정보이력 삭제
+	 * 변경된 주문상태를 주문이력 stream에 한번에 추가한다.
 	 */
-	@Scheduled(cron = "0 0 0/1 * * *") //1시간마다 실행
-	public void InsertLogBySchedule() {
-		List<OrderDTO> orderList = orderLogDao.findAll(RedisKeyFactory.ORDER_KEY);
-		if(orderList.size() > 0) {
-			orderLogDao.deleteByOrder(RedisKeyFactory.ORDER_KEY);
-			orderMapper.insertOrderLog(orderList);
+	@Override
+	public void consume(List<OrderStatusChangedEvent> eventList) {
+		List<OrderDTO> orderList = new ArrayList<>(eventList.size());
+		for(OrderStatusChangedEvent event : eventList) {
+			orderList.add(event.toOrderLog());
 		}
+		orderLogDao.addOrderList(orderList);
 	}
-	
+
+	/**
+	 * 주문이력 stream을 읽어 log 테이블에 insert 후 ack한다.
+	 */
+	@Scheduled(fixedDelayString = "${order.log.stream.drainInterval}")
+	public void drain() {
+		long startTime = System.nanoTime();
+		long rows = 0;
+
+		try {
+			if(!groupCreated) {
+				orderLogDao.createGroups();
+				groupCreated = true;
+			}
+
+			for(int shard = 0; shard < orderLogDao.getShards(); shard++) {
+				orderLogDao.claimIdle(shard, consumer, Duration.ofMillis(claimIdle), batchSize);
+				rows += drainShard(shard, true);  // 본인이 읽고 ack하지 않은 이력
+				rows += drainShard(shard, false); // 새 이력
+			}
+		}catch (Exception e) {
+			log.error("Order Log Drain ERROR! consumer : {}", consumer, e);
+		}finally {
+			long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+			rowsPerSec.set(rows * 1000 / elapsedMillis);
+		}
+	}
+
+	/**
+	 * 주문이력 stream consumer 이름(서버 이름)을 조회한다.
+	 */
+	public String getConsumerName() {
+		return consumer;
+	}
+
+	/**
+	 * 주문이력 stream의 저장 지연시간을 조회한다.(shard별 최대값, 모두 저장한 경우 0)
+	 *
+	 * @return ms
+	 */
+	public long getLag() {
+		return (long) maxLag(shardLag);
+	}
+
+	private long drainShard(int shard, boolean pending) {
+		long rows = 0;
+		int budget = batchBudget;
+
+		for(int i = 0; i < budget; i++) {
+			List<MapRecord<String, Object, Object>> records = orderLogDao.read(shard, consumer, pending, batchSize);
+			if(records.isEmpty()) {
+				if(!pending) {
+					shardLag.set(shard, 0);
+				}
+				return rows;
+			}
+
+			// 저장 도중 DB 오류가 발생하면 처리한 이력만 ack하고 오류를 던진다.
+			List<MapRecord<String, Object, Object>> handled = new ArrayList<>(records.size());
+			long writeMillis;
+			try {
+				writeMillis = insertLog(records, handled);
+			}finally {
+				ack(shard, handled);
+			}
+			rows += handled.size();
+
+			// 저장이 느리면 batch 수를 줄이고 다음 주기에 처리한다.
+			if(writeMillis > slowMillis) {
+				batchBudget = Math.max(1, batchBudget / 2);
+				meterRegistry.counter("order.log.throttled").increment();
+				return rows;
+			}
+			batchBudget = Math.min(maxBatches, batchBudget + 1);
+
+			if(records.size() < batchSize) {
+				return rows;
+			}
+		}
+		return rows;
+	}
+
+	private void ack(int shard, List<MapRecord<String, Object, Object>> handled) {
+		if(handled.isEmpty()) {
+			return;
+		}
+
+		List<String> ids = new ArrayList<>(handled.size());
+		for(MapRecord<String, Object, Object> record : handled) {
+			ids.add(record.getId().getValue());
+		}
+		orderLogDao.ackAndDelete(shard, ids);
+		rowCounter.increment(handled.size());
+
+		Long lastTimestamp = handled.get(handled.size() - 1).getId().getTimestamp();
+		if(lastTimestamp != null) {
+			shardLag.set(shard, Math.max(0, System.currentTimeMillis() - lastTimestamp));
+		}
+	}
+
+	/**
+	 * 주문이력을 JDBC batch로 저장한다. 묶음 저장에 실패하면 건별로 저장한다.
+	 * 건별 저장 시 데이터 오류(DataIntegrityViolationException)인 이력과 변환할 수 없는 이력은 로그를 남기고 건너뛰고,
+	 * 그 외 오류(DB 장애 등)는 다시 던져 ack하지 않고 다음 주기에 다시 처리한다.
+	 *
+	 * @param records
+	 * @param handled 저장했거나 건너뛴 이력(ack 대상)
+	 * @return 저장 시간(ms)
+	 */
+	private long insertLog(List<MapRecord<String, Object, Object>> records, List<MapRecord<String, Object, Object>> handled) {
+		List<MapRecord<String, Object, Object>> validList = new ArrayList<>(records.size());
+		List<OrderDTO> orderList = new ArrayList<>(records.size());
+		for(MapRecord<String, Object, Object> record : records) {
+			try {
+				orderList.add(OrderLogDao.toOrder(record));
+				validList.add(record);
+			}catch (RuntimeException e) {
+				meterRegistry.counter("order.log.skipped").increment();
+				log.error("Order Log Parse ERROR! skipped : {}", record, e);
+				handled.add(record);
+			}
+		}
+
+		long startTime = System.nanoTime();
+		try {
+			transactionTemplate.execute(status -> {
+				OrderMapper batchMapper = batchSqlSessionTemplate.getMapper(OrderMapper.class);
+				for(OrderDTO orderDTO : orderList) {
+					batchMapper.insertOrderLog(orderDTO);
+				}
+				return batchSqlSessionTemplate.flushStatements();
+			});
+			handled.addAll(validList);
+		}catch (Exception e) {
+			log.error("Order Log Insert ERROR! size : {}", orderList.size(), e);
+			for(int i = 0; i < orderList.size(); i++) {
+				OrderDTO orderDTO = orderList.get(i);
+				try {
+					orderMapper.insertOrderLog(orderDTO);
+				}catch (DataIntegrityViolationException rowError) {
+					meterRegistry.counter("order.log.skipped").increment();
+					log.error("Order Log Insert ERROR! skipped : {}", orderDTO, rowError);
+				}
+				handled.add(validList.get(i));
+			}
+		}
+
+		long elapsed = System.nanoTime() - startTime;
+		writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		return TimeUnit.NANOSECONDS.toMillis(elapsed);
+	}
+
+	private static double maxLag(AtomicLongArray lags) {
+		long max = 0;
+		for(int i = 0; i < lags.length(); i++) {
+			max = Math.max(max, lags.get(i));
+		}
+		return max;
+	}
+
+	private String defaultConsumerName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		}catch (Exception e) {
+			return UUID.randomUUID().toString();
+		}
+	}
+
 }
@@ -0,0 +1,81 @@
+package com.market.server.service.order.Impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.dto.push.PushMessage;
+import com.market.server.dto.user.UserDTO;
+import com.market.server.mapper.user.UserMapper;
+import com.market.server.service.order.OrderStatusEventConsumer;
+import com.market.server.service.push.PushServiceImpl;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문상태 변경 시 주문자에게 푸시 메세지를 전송한다.
+ * 묶음 단위로 주문자 아이디를 한번에 조회한다.
+ */
+@Service
+@Log4j2
+public class OrderPushEventConsumerImpl implements OrderStatusEventConsumer {
+
+	@Autowired
+	private UserMapper userMapper;
+
+	@Autowired
+	private PushServiceImpl pushService;
+
+	@Override
+	public String getName() {
+		return "orderPush";
+	}
+
+	/**
+	 * 푸시는 늦게 보내면 의미가 없으므로 재시도하지 않는다.
+	 */
+	@Override
+	public boolean isDurable() {
+		return false;
+	}
+
+	@Override
+	public void consume(List<OrderStatusChangedEvent> eventList) {
+		Set<Integer> loginNoSet = new HashSet<>();
+		for(OrderStatusChangedEvent event : eventList) {
+			if(event.getLoginNo() != null && PushMessage.ofOrderStatus(event.getOrderStatusCd()) != null) {
+				loginNoSet.add(event.getLoginNo());
+			}
+		}
+		if(loginNoSet.isEmpty()) {
+			return;
+		}
+
+		// 사용자 아이디 일괄 조회
+		Map<Integer, String> userIdMap = new HashMap<>();
+		for(UserDTO userDTO : userMapper.findIdList(loginNoSet)) {
+			userIdMap.put(userDTO.getLoginNo(), userDTO.getLoginId());
+		}
+
+		for(OrderStatusChangedEvent event : eventList) {
+			PushMessage messageInfo = PushMessage.ofOrderStatus(event.getOrderStatusCd());
+			String userId = userIdMap.get(event.getLoginNo());
+			if(messageInfo == null || userId == null) {
+				continue;
+			}
+
+			try {
+				pushService.sendMessageToUser(messageInfo, userId);
+			}catch (Exception e) {
+				log.error("Order Push ERROR! orderCd : {}, userId : {}", event.getOrderCd(), userId, e);
+			}
+		}
+	}
+
+}
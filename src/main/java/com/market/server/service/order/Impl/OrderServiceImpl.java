@@ -1,97 +1,191 @@
 package com.market.server.service.order.Impl;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.market.server.dao.OrderLogDao;
-import com.market.server.dao.ProductDao;
+import com.market.server.dto.CursorPage;
 import com.market.server.dto.Search;
 import com.market.server.dto.order.OrderDTO;
 import com.market.server.dto.order.OrderDetailDTO;
-import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.dto.product.ProductPriceDTO;
 import com.market.server.dto.push.PushMessage;
+import com.market.server.error.exception.InvalidCursorException;
+import com.market.server.error.exception.InvalidOrderStatusException;
+import com.market.server.error.exception.OrderWriteTimeoutException;
 import com.market.server.error.exception.TotalPriceMismatchException;
 import com.market.server.mapper.order.OrderMapper;
 import com.market.server.service.order.OrderService;
-import com.market.server.service.product.Impl.ProductServiceImpl;
+import com.market.server.service.order.OrderStatusTransition;
+import com.market.server.service.product.Impl.ProductPriceServiceImpl;
+import com.market.server.service.product.Impl.ProductStockServiceImpl;
 import com.market.server.service.push.PushServiceImpl;
-import com.market.server.service.user.Impl.UserServiceImpl;
-import com.market.server.utils.RedisKeyFactory;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
+import com.market.server.utils.CursorUtil;
+import com.market.server.utils.TransactionUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 
 @Service
 @Log4j2
 public class OrderServiceImpl implements OrderService{
 	
+	private static final DateTimeFormatter DTTM_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+	
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE     = 100;
+	
 	@Autowired
 	private OrderMapper orderMapper;
+	
+	@Autowired
+	private OrderSummaryServiceImpl orderSummaryService;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
+	@Autowired
+	private OrderCodeGeneratorServiceImpl orderCodeGeneratorService;
 
 	@Autowired
-	private ProductServiceImpl productService;
+	private OrderWriterServiceImpl orderWriterService;
 	
 	@Autowired
-	private OrderLogDao orderLogDao;
+	private ProductPriceServiceImpl productPriceService;
 	
 	@Autowired
-	private ProductDao productDao; 
+	private ProductStockServiceImpl productStockService;
 	
 	@Autowired
-	private PushServiceImpl pushService;
+	private OrderEventServiceImpl orderEventService;
 	
 	@Autowired
-	private UserServiceImpl userService;
+	private PushServiceImpl pushService;
 	
 	/**
 	 * 상품을 주문한다.
+	 * 주문 저장은 OrderWriterServiceImpl에서 처리한다.(group commit 사용 시 다른 주문과 함께 커밋)
+	 * 요청 스레드는 트랜잭션(DB 커넥션)을 잡지 않으므로 저장에 실패한 경우 직접 재고 예약을 취소한다.
 	 */
 	@Override
-	@Transactional(rollbackFor = RuntimeException.class)
 	public void doOrder(OrderDTO orderDTO) {
 		
-		SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss");
-		Date time = new Date();
-		// 주문코드 조합 : 주문코드 + 로그인번호 + 현재시간
-		String orderCd = "OD" + orderDTO.getLoginNo() + format.format(time);
-		orderDTO.setOrderCd(orderCd);
+		// 주문코드 생성 (시간순 증가, 서버간 중복 없음)
+		orderDTO.setOrderCd(orderCodeGeneratorService.nextOrderCd());
 		
-		Search search = new Search();
-		search.add("itemCd", orderDTO.getItemCd());
-		ProductDetailDTO productDTO = productService.productDetail(search);
+		// 상품 가격 조회 (가격 캐시)
+		ProductPriceDTO productPriceDTO = productPriceService.getPrice(orderDTO.getItemCd());
+		if(productPriceDTO == null || "Y".equals(productPriceDTO.getDelYn())) {
+			log.error("Order ERROR! product not found. itemCd : {}", orderDTO.getItemCd());
+			throw new RuntimeException("Order ERROR! 상품코드를 확인해주세요.\n" + "itemCd : " + orderDTO.getItemCd());
+		}
 		
 		// 총결제금액 확인
-		int orderCnt       = orderDTO.getOrderCnt();                        // 주문수량
-		long orderPrice    = productDTO.getProductDTO().getItemPrice();     // 주문금액
-		long deliveryPrice = productDTO.getProductDTO().getDeliveryPrice(); // 배송금액
-		long discountPrice = orderDTO.getDiscountPrice();                   // 할인금액
+		int orderCnt       = orderDTO.getOrderCnt();             // 주문수량
+		long orderPrice    = productPriceDTO.getItemPrice();     // 주문금액
+		long deliveryPrice = productPriceDTO.getDeliveryPrice(); // 배송금액
+		long discountPrice = orderDTO.getDiscountPrice();        // 할인금액
 		long totalPrice    = (orderCnt * orderPrice) + deliveryPrice - discountPrice; // server total price
 		
 		if(totalPrice != orderDTO.getTotalPrice()) {
-			log.error("Total Price Mismatch! client price : {}, server price : {},",
-			          orderDTO.getTotalPrice(), totalPrice);
+			log.error("Total Price Mismatch! client price : {}, server price : {}, price updDttm : {}",
+			          orderDTO.getTotalPrice(), totalPrice, productPriceDTO.getUpdDttm());
 			throw new TotalPriceMismatchException("Total Price Mismatch!");
 		}
 		
-		int result = orderMapper.doOrder(orderDTO);
+		orderDTO.setOrderSeq(sequenceService.next(Sequence.ORDER)); // 주문시퀀스 채번
 		
-		if(result != 1) {
-			log.error("Insert ERROR! {}", orderDTO);
-			throw new RuntimeException("Insert ERROR! 주문정보를 확인해주세요.\n" + "orderDTO : " + orderDTO);
+		// 재고 예약 (주문 저장 커밋 시 확정, 저장 실패 시 예약 취소)
+		productStockService.reserve(orderDTO);
+		try {
+			orderWriterService.write(orderDTO);
+		}catch (OrderWriteTimeoutException e) {
+			// 이후 저장될 수 있으므로 예약을 유지하고, 저장에 실패하면 그때 취소한다.(커밋 시 확정은 저장 스레드에서 처리)
+			e.getResult().whenComplete((result, error) -> {
+				if(error != null) {
+					productStockService.release(orderDTO.getOrderCd(), "rollback");
+				}
+			});
+			throw e;
+		}catch (RuntimeException e) {
+			productStockService.release(orderDTO.getOrderCd(), "rollback");
+			throw e;
 		}
 	}
 
+	/**
+	 * 본인이 주문한 상품을 주문일시 역순으로 조회한다.(keyset 페이징)
+	 * 이전 페이지 마지막 주문의 주문일시 + 주문시퀀스를 cursor로 사용하므로 페이지 깊이와 관계없이 조회 비용이 같다.
+	 * 조회기간(fromOrderDate, toOrderDate)은 yyyy-MM-dd 형식이다.
+	 */
 	@Override
-	public List<OrderDetailDTO> getOrderList(int loginNo) {
-		return orderMapper.getOrderList(loginNo);
+	public CursorPage<OrderDetailDTO> getOrderList(Search search, String cursor, int pgSz) {
+		int pageSize = (pgSz > 0 && pgSz <= MAX_PAGE_SIZE) ? pgSz : DEFAULT_PAGE_SIZE;
+		
+		String fromOrderDate = search.getString("fromOrderDate");
+		String toOrderDate   = search.getString("toOrderDate");
+		if(fromOrderDate != null && !fromOrderDate.isEmpty()) {
+			search.add("fromOrderDttm", toDate(fromOrderDate) + " 00:00:00");
+		}
+		if(toOrderDate != null && !toOrderDate.isEmpty()) {
+			search.add("toOrderDttm", toDate(toOrderDate) + " 23:59:59");
+		}
+		
+		if(cursor != null && !cursor.isEmpty()) {
+			String[] cursorValues = CursorUtil.decode(cursor, 2);
+			search.add("cursorOrderDttm", cursorValues[0]);                   // 주문일시
+			search.add("cursorOrderSeq",  toCursorOrderSeq(cursorValues[1])); // 주문시퀀스
+		}
+		search.add("cursorSize", pageSize + 1); // 다음 페이지 존재여부 확인을 위해 1건 더 조회
+		
+		List<OrderDetailDTO> orderList = orderSummaryService.isReadEnabled() ? orderSummaryService.getOrderSummaryList(search)
+				                                                              : orderMapper.getOrderList(search);
+		String nextCursor = null;
+		
+		if(orderList.size() > pageSize) {
+			orderList = new ArrayList<>(orderList.subList(0, pageSize));
+			OrderDTO lastOrder = orderList.get(pageSize - 1).getOrderInfo();
+			nextCursor = CursorUtil.encode(lastOrder.getOrderDttm(), String.valueOf(lastOrder.getOrderSeq()));
+		}
+		
+		return new CursorPage<>(orderList, nextCursor);
+	}
+	
+	private LocalDate toDate(String date) {
+		try {
+			return LocalDate.parse(date);
+		}catch (DateTimeParseException e) {
+			throw new RuntimeException("Order Date ERROR! yyyy-MM-dd 형식으로 입력해주세요.\n" + "date : " + date);
+		}
+	}
+	
+	private int toCursorOrderSeq(String orderSeq) {
+		try {
+			return Integer.parseInt(orderSeq);
+		}catch (NumberFormatException e) {
+			throw new InvalidCursorException("Invalid cursor order seq : " + orderSeq);
+		}
 	}
 
 	/**
 	 * 주문상품의 주문상태코드를 변경한다.
+	 * 변경 가능한 주문상태(OrderStatusTransition)인 경우에만 조회 시점의 주문상태를 조건으로 변경한다.(lock 없이 동시 변경 방지)
+	 * - 이미 같은 주문상태인 경우 : 변경하지 않는다.(재고, 주문이력, 주문수량 count, 푸시 처리 안함)
+	 * - 변경할 수 없는 주문상태 또는 다른 요청에서 먼저 변경한 경우 : InvalidOrderStatusException
+	 * 주문이력, 주문수량 count, 푸시 전송은 커밋 이후 주문상태 변경 이벤트로 비동기 처리한다.
 	 */
 	@Override
 	@Transactional(rollbackFor = RuntimeException.class)
@@ -100,61 +194,73 @@ public class OrderServiceImpl implements OrderService{
 		String orderCd = orderDTO.getOrderCd();
 		String orderStatusCd = orderDTO.getOrderStatusCd();
 		
-		int result = orderMapper.updateOrderStatus( orderCd, orderStatusCd);
-		
-		if(result != 1) {
+		// 현재 주문정보 (재고, 주문이력, 주문수량 count는 저장된 주문정보 기준으로 처리)
+		OrderDTO orderInfo = orderMapper.getOrderInfo(orderCd);
+		if(orderInfo == null) {
 			log.error("Update ERROR! {}", orderCd);
 			throw new RuntimeException("Update ERROR! 주문번호를 확인해주세요.\n" + "orderCd : " + orderCd);
-		}else {
-			//현재시간 계산
-			SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-			Date time = new Date();
-			
-			orderLogDao.addOrder(new OrderDTO(orderCd, orderStatusCd, format.format(time)));
 		}
 		
-		// 배송완료 시 주문수량 count 저장, OSC007 - 배송완료
-		if("OSC007".equals(orderStatusCd)) {
-			int orderCnt = productDao.getProductCntInfo(RedisKeyFactory.ORDER_CNT_KEY, orderDTO.getItemCd());
-			productDao.addProductCntInfo(RedisKeyFactory.ORDER_CNT_KEY, orderDTO.getItemCd(), orderCnt + orderDTO.getOrderCnt());
+		String expectedStatusCd = orderInfo.getOrderStatusCd();
+		if(!checkTransition(orderCd, expectedStatusCd, orderStatusCd)) {
+			return;
 		}
 		
-		// 환불완료 시 주문수량 count 변경, OSC009 - 환불완료
-		if("OSC009".equals(orderStatusCd)) {
-			int orderCnt = productDao.getProductCntInfo(RedisKeyFactory.ORDER_CNT_KEY, orderDTO.getItemCd());
-			productDao.addProductCntInfo(RedisKeyFactory.ORDER_CNT_KEY, orderDTO.getItemCd(), orderCnt - orderDTO.getOrderCnt());
+		int result = orderMapper.updateOrderStatus(orderCd, orderStatusCd, expectedStatusCd);
+		if(result != 1) {
+			// 조회 이후 다른 요청에서 주문상태를 변경한 경우 (잠금 조회로 커밋된 최신 주문상태 확인)
+			String currentStatusCd = orderMapper.getOrderStatusForUpdate(orderCd);
+			if(orderStatusCd.equals(currentStatusCd)) {
+				countTransition("noop");
+				return;
+			}
+			countTransition("conflict");
+			throw new InvalidOrderStatusException("다른 요청에서 주문상태가 변경되었습니다. orderCd : " + orderCd
+					+ ", 주문상태 : " + currentStatusCd);
 		}
+		countTransition("applied");
+		orderInfo.setOrderStatusCd(orderStatusCd);
 		
-		//사용자 아이디 get
-		String userId = userService.findById(orderDTO.getLoginNo());
+		// 주문내역 요약 반영
+		orderSummaryService.updateStatus(orderCd, orderStatusCd);
 		
-		//푸시메시지 전송
-		sendPushMessage(userId, orderStatusCd);
+		// 환불완료 시 재고 복구, OSC009 - 환불완료
+		if("OSC009".equals(orderStatusCd)) {
+			TransactionUtil.afterCommit(() -> productStockService.restock(orderInfo));
+		}
+		
+		// 주문상태 변경 이벤트 발행 (주문이력, 주문수량 count, 판매집계, 푸시)
+		orderEventService.publishAfterCommit(OrderStatusChangedEvent.of(orderInfo, LocalDateTime.now().format(DTTM_FORMAT)));
+	}
+	
+	/**
+	 * 주문상태 변경 가능 여부를 확인한다.
+	 * 
+	 * @return false : 이미 같은 주문상태(변경 불필요)
+	 * @throws InvalidOrderStatusException 변경할 수 없는 주문상태
+	 */
+	private boolean checkTransition(String orderCd, String fromStatusCd, String toStatusCd) {
+		if(toStatusCd != null && toStatusCd.equals(fromStatusCd)) {
+			countTransition("noop");
+			return false;
+		}
+		if(!OrderStatusTransition.canChange(fromStatusCd, toStatusCd)) {
+			countTransition("rejected");
+			throw new InvalidOrderStatusException("변경할 수 없는 주문상태입니다. orderCd : " + orderCd
+					+ ", " + fromStatusCd + " -> " + toStatusCd);
+		}
+		return true;
+	}
+	
+	private void countTransition(String result) {
+		meterRegistry.counter("order.status.transition", "result", result).increment();
 	}
 
 	@Override
 	public void sendPushMessage(String userId, String orderStatusCd) {
-		PushMessage messageInfo = new PushMessage();
-		
-		switch (orderStatusCd) {
-		case "OSC001": // 상품접수
-			messageInfo = PushMessage.ORDER_STATUS_ACCEPT;
-			break;
-		case "OSC003": // 잡화처리
-			messageInfo = PushMessage.ORDER_STATUS_CORRECT;
-			break;
-		case "OSC005": // 배송출발
-			messageInfo = PushMessage.ORDER_STATUS_START;
-			break;
-		case "OSC007": // 배송완료
-			messageInfo = PushMessage.ORDER_STATUS_COMPLETE;
-			break;
-		case "OSC008": //환불
-			messageInfo = PushMessage.ORDER_STATUS_REFUND;
-			break;
-		case "OSC009": //환불완료
-			messageInfo = PushMessage.ORDER_STATUS_REFUND_COMPLETE;
-			break;
+		PushMessage messageInfo = PushMessage.ofOrderStatus(orderStatusCd);
+		if(messageInfo == null) {
+			return; // 푸시를 보내지 않는 주문상태
 		}
 		
 		pushService.sendMessageToUser(messageInfo, userId);
@@ -8,6 +8,8 @@ import org.springframework.stereotype.Service;
 import com.market.server.dto.order.OrderStatusDTO;
 import com.market.server.mapper.order.OrderStatusMapper;
 import com.market.server.service.order.OrderStatusService;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -17,6 +19,9 @@ public class OrderStatusServiceImpl implements OrderStatusService{
 	
 	@Autowired
 	private OrderStatusMapper orderStatusMapper;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
 
 	/**
 	 * 주문상태코드를 조회한다.
@@ -46,7 +51,8 @@ public class OrderStatusServiceImpl implements OrderStatusService{
 			}
 		}
 		
-		orderStatusMapper.InsertOrderStatus(orderStatusList);
+		// 주문상태 수만큼 연속된 시퀀스 채번
+		orderStatusMapper.InsertOrderStatus(orderStatusList, sequenceService.nextRange(Sequence.ORDER_STATUS, orderStatusList.size()));
 	}
 
 	/**
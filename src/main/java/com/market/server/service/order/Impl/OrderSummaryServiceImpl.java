@@ -0,0 +1,224 @@
+package com.market.server.service.order.Impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dto.Search;
+import com.market.server.dto.order.OrderDetailDTO;
+import com.market.server.mapper.order.OrderSummaryMapper;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문내역 요약 (TBL_ORDER_SUMMARY)
+ *
+ * 주문내역 조회 시 5개 테이블 join을 하지 않도록 펼친 주문내역을 저장한다.
+ * - 주문 저장 : 주문 트랜잭션 커밋 이후 별도 트랜잭션으로 반영한다.(주문 저장 중 join 조회로 lock을 오래 잡지 않도록)
+ * - 주문상태 변경 : 호출한 쪽의 트랜잭션에서 주문상태만 함께 반영한다.
+ * - rebuild : 전체 주문을 주문시퀀스 순으로 chunkSize건씩 다시 적재한다.(최초 적재)
+ * - check : 매일 원본과 비교하여 없거나 다른 요약을 다시 적재한다.(사용자/상품 정보 변경, 커밋 이후 반영 실패 보정)
+ * rebuild, check는 스케줄러 스레드를 점유하지 않도록 별도 스레드에서 실행하며 동시에 하나만 실행한다.
+ * order.summary.read=true 인 경우 주문내역을 요약에서 조회한다.
+ */
+@Service
+@Log4j2
+public class OrderSummaryServiceImpl {
+
+	@Autowired
+	private OrderSummaryMapper orderSummaryMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.summary.read}")
+	private boolean readEnabled;
+
+	@Value("${order.summary.chunkSize}")
+	private int chunkSize;
+
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+	private TransactionTemplate refreshTemplate; // 커밋 이후 반영(afterCommit에서는 기존 트랜잭션에 참여하므로 새 트랜잭션)
+
+	@PostConstruct
+	public void init() {
+		refreshTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		refreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	public boolean isReadEnabled() {
+		return readEnabled;
+	}
+
+	/**
+	 * 주문내역 요약을 조회한다.(keyset 페이징 조건은 OrderMapper.getOrderList와 같다.)
+	 *
+	 * @param search
+	 * @return
+	 */
+	public List<OrderDetailDTO> getOrderSummaryList(Search search) {
+		return orderSummaryMapper.getOrderSummaryList(search);
+	}
+
+	/**
+	 * 저장된 주문의 요약을 트랜잭션 커밋 이후 반영한다.(트랜잭션이 없는 경우 바로 반영)
+	 * 반영에 실패한 요약은 check에서 보정한다.
+	 *
+	 * @param orderCdList 주문코드 목록
+	 */
+	public void refreshAfterCommit(List<String> orderCdList) {
+		TransactionUtil.afterCommit(() -> {
+			try {
+				refreshTemplate.execute(status -> refresh(orderCdList));
+			}catch (RuntimeException e) {
+				meterRegistry.counter("order.summary.refresh.error").increment();
+				log.error("Order Summary Refresh ERROR! orderCdList : {}", orderCdList, e);
+			}
+		});
+	}
+
+	private int refresh(List<String> orderCdList) {
+		Search search = new Search();
+		search.add("orderCdList", orderCdList);
+		return upsert(orderSummaryMapper.getOrderDetailList(search));
+	}
+
+	/**
+	 * 변경된 주문상태를 요약에 반영한다.
+	 *
+	 * @param orderCd
+	 * @param orderStatusCd
+	 */
+	public void updateStatus(String orderCd, String orderStatusCd) {
+		if(orderSummaryMapper.updateOrderSummaryStatus(orderCd, orderStatusCd) == 0) {
+			refreshAfterCommit(Collections.singletonList(orderCd)); // 요약이 없는 경우(적재 전 주문) 새로 반영
+		}
+	}
+
+	/**
+	 * 전체 주문내역 요약을 다시 적재한다. 이미 적재 중인 경우 false를 반환한다.
+	 *
+	 * @return 시작여부
+	 */
+	public boolean startRebuild() {
+		return start("orderSummaryRebuild", this::rebuild);
+	}
+
+	/**
+	 * 원본과 다른 요약을 찾아 다시 적재한다.
+	 */
+	@Scheduled(cron = "0 50 4 * * *") // 매일 04:50
+	public void startCheck() {
+		if(!start("orderSummaryCheck", this::check)) {
+			log.warn("Order Summary Check Skip! rebuild or check is running");
+		}
+	}
+
+	private boolean start(String name, Runnable task) {
+		if(!rebuilding.compareAndSet(false, true)) {
+			return false;
+		}
+
+		Thread thread = new Thread(() -> {
+			try {
+				task.run();
+			}finally {
+				rebuilding.set(false);
+			}
+		}, name);
+		thread.setDaemon(true);
+		thread.start();
+		return true;
+	}
+
+	private void rebuild() {
+		long startTime = System.nanoTime();
+		long rows = 0;
+		int lastOrderSeq = 0;
+
+		try {
+			while(true) {
+				List<Integer> orderSeqList = nextOrderSeqList(lastOrderSeq);
+				if(orderSeqList.isEmpty()) {
+					break;
+				}
+				rows += refreshBySeq(orderSeqList);
+				lastOrderSeq = orderSeqList.get(orderSeqList.size() - 1);
+			}
+		}catch (Exception e) {
+			log.error("Order Summary Rebuild ERROR! lastOrderSeq : {}", lastOrderSeq, e);
+			return;
+		}
+
+		log.info("Order Summary Rebuild! rows : {}, elapsed : {}ms", rows, (System.nanoTime() - startTime) / 1_000_000);
+	}
+
+	void check() {
+		long mismatch = 0;
+		int lastOrderSeq = 0;
+		try {
+			while(true) {
+				List<Integer> orderSeqList = nextOrderSeqList(lastOrderSeq);
+				if(orderSeqList.isEmpty()) {
+					break;
+				}
+
+				Search search = new Search();
+				search.add("fromOrderSeq", orderSeqList.get(0));
+				search.add("toOrderSeq",   orderSeqList.get(orderSeqList.size() - 1));
+				List<Integer> mismatchList = orderSummaryMapper.getMismatchOrderSeqList(search);
+				if(!mismatchList.isEmpty()) {
+					refreshBySeq(mismatchList);
+					mismatch += mismatchList.size();
+				}
+				lastOrderSeq = orderSeqList.get(orderSeqList.size() - 1);
+			}
+		}catch (Exception e) {
+			log.error("Order Summary Check ERROR! lastOrderSeq : {}", lastOrderSeq, e);
+		}
+
+		meterRegistry.counter("order.summary.mismatch").increment(mismatch);
+		if(mismatch > 0) {
+			log.warn("Order Summary Mismatch! repaired : {}", mismatch);
+		}
+	}
+
+	private List<Integer> nextOrderSeqList(int lastOrderSeq) {
+		Search search = new Search();
+		search.add("lastOrderSeq", lastOrderSeq);
+		search.add("chunkSize", chunkSize);
+		return orderSummaryMapper.getOrderSeqList(search);
+	}
+
+	private int refreshBySeq(List<Integer> orderSeqList) {
+		return transactionTemplate.execute(status -> {
+			Search search = new Search();
+			search.add("orderSeqList", orderSeqList);
+			return upsert(orderSummaryMapper.getOrderDetailList(search));
+		});
+	}
+
+	private int upsert(List<OrderDetailDTO> orderList) {
+		if(orderList.isEmpty()) {
+			return 0;
+		}
+		orderSummaryMapper.upsertOrderSummaryList(orderList);
+		return orderList.size();
+	}
+
+}
@@ -0,0 +1,292 @@
+package com.market.server.service.order.Impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.error.exception.OrderWriteTimeoutException;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.service.product.Impl.ProductStockServiceImpl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 주문 저장 (group commit)
+ *
+ * order.writer.enabled=true 인 경우 검증이 끝난 주문을 대기열에 넣고,
+ * 저장 스레드가 maxWait(ms) 동안 또는 batchSize건까지 모아 하나의 트랜잭션에서 multi-row insert로 저장한다.
+ * 여러 주문이 커밋(fsync) 한번을 나누어 쓰므로 커밋 횟수가 주문 수보다 적어진다.
+ * 요청 스레드는 해당 묶음이 커밋될 때까지 기다린다.
+ *
+ * - 묶음 저장에 실패하면 주문별로 다시 저장하여 실패한 주문만 오류를 반환한다.
+ * - 대기열이 가득 찬 경우 요청 스레드에서 바로 저장한다.
+ * - 대기시간(timeout)을 초과하면 OrderWriteTimeoutException으로 저장 결과(future)를 넘겨 호출한 곳에서 이후 처리를 등록한다.
+ * 비활성화(기본값)인 경우 요청 스레드에서 바로 저장한다.
+ * 주문내역 요약(TBL_ORDER_SUMMARY)은 주문이 커밋된 이후 별도 트랜잭션(REQUIRES_NEW)에서 저장한다.(OrderSummaryServiceImpl.refreshAfterCommit)
+ * 커밋된 주문은 재고 예약을 판매로 확정한다.(저장 대기시간 초과 후 커밋된 주문 포함)
+ */
+@Service
+@Log4j2
+public class OrderWriterServiceImpl {
+
+	@Autowired
+	private OrderMapper orderMapper;
+
+	@Autowired
+	private OrderSummaryServiceImpl orderSummaryService;
+
+	@Autowired
+	private ProductStockServiceImpl productStockService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${order.writer.enabled}")
+	private boolean enabled;
+
+	@Value("${order.writer.batchSize}")
+	private int batchSize;
+
+	@Value("${order.writer.maxWait}")
+	private long maxWait;
+
+	@Value("${order.writer.queueCapacity}")
+	private int queueCapacity;
+
+	@Value("${order.writer.timeout}")
+	private long timeout;
+
+	private BlockingQueue<PendingOrder> queue;
+
+	private Thread writerThread;
+
+	private volatile boolean running;
+
+	private DistributionSummary batchSizeSummary;
+	private Timer waitTimer;
+	private Timer flushTimer;
+
+	@PostConstruct
+	public void init() {
+		if(!enabled) {
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		batchSizeSummary = DistributionSummary.builder("order.writer.batch.size")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		waitTimer = Timer.builder("order.writer.wait") // 대기열 추가 ~ 커밋
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		flushTimer = Timer.builder("order.writer.flush")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		meterRegistry.gauge("order.writer.queue", queue, BlockingQueue::size);
+
+		running = true;
+		writerThread = new Thread(this::writeLoop, "orderWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * 주문을 저장한다. 저장(커밋)이 끝날 때까지 기다린다.
+	 *
+	 * @param orderDTO
+	 * @throws OrderWriteTimeoutException 대기시간 초과(저장 여부 미확정, 저장 결과는 getResult()로 이후에 받는다)
+	 */
+	public void write(OrderDTO orderDTO) {
+		if(!enabled || !running) {
+			insert(orderDTO);
+			confirmStock(orderDTO);
+			return;
+		}
+
+		PendingOrder pendingOrder = new PendingOrder(orderDTO);
+		if(!queue.offer(pendingOrder)) {
+			meterRegistry.counter("order.writer.overflow").increment();
+			insert(orderDTO);
+			confirmStock(orderDTO);
+			return;
+		}
+
+		try {
+			pendingOrder.future.get(timeout, TimeUnit.MILLISECONDS);
+		}catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}catch (TimeoutException e) {
+			log.error("Order Write Timeout! orderCd : {}", orderDTO.getOrderCd());
+			meterRegistry.counter("order.writer.timeout").increment();
+			throw new OrderWriteTimeoutException("Order Write Timeout! orderCd : " + orderDTO.getOrderCd(), orderDTO.getOrderCd(), pendingOrder.future);
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OrderWriteTimeoutException("Order Write Interrupted! orderCd : " + orderDTO.getOrderCd(), orderDTO.getOrderCd(), pendingOrder.future);
+		}
+	}
+
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if(writerThread == null) {
+			return;
+		}
+		running = false;
+		writerThread.join(timeout);
+	}
+
+	private void writeLoop() {
+		List<PendingOrder> batch = new ArrayList<>(batchSize);
+		while(running || !queue.isEmpty()) {
+			try {
+				PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if(first == null) {
+					continue;
+				}
+				batch.add(first);
+
+				// 첫 주문 이후 maxWait 동안 batchSize건까지 모은다.
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait);
+				while(batch.size() < batchSize) {
+					long remaining = deadline - System.nanoTime();
+					if(remaining <= 0) {
+						queue.drainTo(batch, batchSize - batch.size());
+						break;
+					}
+					PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if(next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+
+				flush(batch);
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}catch (Exception e) {
+				log.error("Order Writer ERROR!", e);
+				for(PendingOrder pendingOrder : batch) {
+					pendingOrder.future.completeExceptionally(e);
+				}
+			}finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<PendingOrder> batch) {
+		batchSizeSummary.record(batch.size());
+
+		List<OrderDTO> orderList = new ArrayList<>(batch.size());
+		for(PendingOrder pendingOrder : batch) {
+			orderList.add(pendingOrder.orderDTO);
+		}
+
+		long startTime = System.nanoTime();
+		try {
+			transactionTemplate.execute(status -> {
+				int result = orderMapper.insertOrderList(orderList);
+				if(result != orderList.size()) {
+					throw new RuntimeException("Insert ERROR! 저장된 주문 수가 일치하지 않습니다. " + result + "/" + orderList.size());
+				}
+				return result;
+			});
+			flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+			orderSummaryService.refreshAfterCommit(toOrderCdList(orderList)); // 주문내역 요약
+
+			for(PendingOrder pendingOrder : batch) {
+				confirmStock(pendingOrder.orderDTO);
+				complete(pendingOrder, null);
+			}
+		}catch (RuntimeException e) {
+			// 묶음 저장 실패 시 주문별로 저장
+			log.error("Order Batch Insert ERROR! size : {}", batch.size(), e);
+			meterRegistry.counter("order.writer.fallback").increment();
+
+			for(PendingOrder pendingOrder : batch) {
+				try {
+					insert(pendingOrder.orderDTO);
+					confirmStock(pendingOrder.orderDTO);
+					complete(pendingOrder, null);
+				}catch (RuntimeException rowError) {
+					complete(pendingOrder, rowError);
+				}
+			}
+		}
+	}
+
+	private void complete(PendingOrder pendingOrder, RuntimeException e) {
+		waitTimer.record(System.nanoTime() - pendingOrder.enqueuedAt, TimeUnit.NANOSECONDS);
+		if(e == null) {
+			pendingOrder.future.complete(null);
+		}else {
+			pendingOrder.future.completeExceptionally(e);
+		}
+	}
+
+	private void insert(OrderDTO orderDTO) {
+		transactionTemplate.execute(status -> {
+			int result = orderMapper.doOrder(orderDTO);
+			if(result != 1) {
+				log.error("Insert ERROR! {}", orderDTO);
+				throw new RuntimeException("Insert ERROR! 주문정보를 확인해주세요.\n" + "orderDTO : " + orderDTO);
+			}
+			return result;
+		});
+		orderSummaryService.refreshAfterCommit(Collections.singletonList(orderDTO.getOrderCd())); // 주문내역 요약
+	}
+
+	/**
+	 * 커밋된 주문의 재고 예약을 확정한다. 실패한 경우 예약 만료 시 주문 저장 여부를 확인하여 확정한다.
+	 */
+	private void confirmStock(OrderDTO orderDTO) {
+		try {
+			productStockService.confirm(orderDTO.getOrderCd());
+		}catch (RuntimeException e) {
+			log.error("Stock Confirm ERROR! orderCd : {}", orderDTO.getOrderCd(), e);
+		}
+	}
+
+	private static List<String> toOrderCdList(List<OrderDTO> orderList) {
+		List<String> orderCdList = new ArrayList<>(orderList.size());
+		for(OrderDTO orderDTO : orderList) {
+			orderCdList.add(orderDTO.getOrderCd());
+		}
+		return orderCdList;
+	}
+
+	private static class PendingOrder {
+		private final OrderDTO orderDTO;
+		private final long enqueuedAt = System.nanoTime();
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private PendingOrder(OrderDTO orderDTO) {
+			this.orderDTO = orderDTO;
+		}
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.market.server.service.order.Impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.service.order.OrderStatusEventConsumer;
+import com.market.server.service.product.Impl.SellerSalesServiceImpl;
+
+/**
+ * 주문상태 변경 시 판매자 일별 판매집계를 누적한다.
+ */
+@Service
+public class SellerSalesEventConsumerImpl implements OrderStatusEventConsumer {
+
+	@Autowired
+	private SellerSalesServiceImpl sellerSalesService;
+
+	@Override
+	public String getName() {
+		return "sellerSales";
+	}
+
+	@Override
+	public void consume(List<OrderStatusChangedEvent> eventList) {
+		sellerSalesService.add(eventList);
+	}
+
+}
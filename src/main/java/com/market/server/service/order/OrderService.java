@@ -1,7 +1,7 @@
 package com.market.server.service.order;
 
-import java.util.List;
-
+import com.market.server.dto.CursorPage;
+import com.market.server.dto.Search;
 import com.market.server.dto.order.OrderDTO;
 import com.market.server.dto.order.OrderDetailDTO;
 
@@ -9,7 +9,7 @@ public interface OrderService {
 	
 	public void doOrder(OrderDTO orderDTO);
 	
-	public List<OrderDetailDTO> getOrderList(int loginNo);
+	public CursorPage<OrderDetailDTO> getOrderList(Search search, String cursor, int pgSz);
 	
 	public void updateOrderStatus(OrderDTO orderDTO);
 	
@@ -0,0 +1,31 @@
+package com.market.server.service.order;
+
+import java.util.List;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+
+/**
+ * 주문상태 변경 이벤트 처리
+ * 소비자별 스레드에서 대기열에 쌓인 이벤트를 묶어서 전달한다.
+ */
+public interface OrderStatusEventConsumer {
+	
+	public String getName();
+	
+	public void consume(List<OrderStatusChangedEvent> eventList);
+	
+	/**
+	 * 처리에 실패한 이벤트를 재시도할지 여부 (false : 실패한 이벤트는 dead letter로 남기고 버린다.)
+	 */
+	public default boolean isDurable() {
+		return true;
+	}
+	
+	/**
+	 * 커밋 직후 발행한 스레드에서 바로 처리할지 여부 (true : 실패한 이벤트만 대기열에 넣어 재시도한다.)
+	 */
+	public default boolean isSynchronous() {
+		return false;
+	}
+	
+}
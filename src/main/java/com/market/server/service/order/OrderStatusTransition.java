@@ -0,0 +1,55 @@
+package com.market.server.service.order;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 주문상태 변경 가능 여부 (변경할 주문상태코드 -> 변경 전 주문상태코드)
+ *
+ * OSC001 접수 -> OSC002 상품준비중 -> OSC003 잡화처리 -> OSC004 간선하차 -> OSC005 배송출고 -> OSC006 배송중 -> OSC007 배송완료
+ * OSC001 ~ OSC007 -> OSC008 환불 -> OSC009 환불완료
+ * 배송 단계는 건너뛸 수 없다.
+ */
+public class OrderStatusTransition {
+
+	private static final String[] DELIVERY_FLOW = {"OSC001", "OSC002", "OSC003", "OSC004", "OSC005", "OSC006", "OSC007"};
+
+	private static final String REFUND           = "OSC008";
+	private static final String REFUND_COMPLETED = "OSC009";
+
+	private static final Map<String, String[]> ALLOWED_FROM;
+
+	static {
+		Map<String, String[]> allowedFrom = new HashMap<>();
+		for(int i = 1; i < DELIVERY_FLOW.length; i++) {
+			allowedFrom.put(DELIVERY_FLOW[i], new String[] {DELIVERY_FLOW[i - 1]});
+		}
+		allowedFrom.put(REFUND,           DELIVERY_FLOW.clone());
+		allowedFrom.put(REFUND_COMPLETED, new String[] {REFUND});
+		ALLOWED_FROM = Collections.unmodifiableMap(allowedFrom);
+	}
+
+	// 인스턴스화 방지
+	private OrderStatusTransition() {}
+
+	/**
+	 * 주문상태를 변경할 수 있는지 확인한다.
+	 *
+	 * @param fromStatusCd 현재 주문상태코드
+	 * @param toStatusCd 변경할 주문상태코드
+	 * @return
+	 */
+	public static boolean canChange(String fromStatusCd, String toStatusCd) {
+		String[] allowedFrom = ALLOWED_FROM.get(toStatusCd);
+		if(allowedFrom == null) {
+			return false;
+		}
+		for(String statusCd : allowedFrom) {
+			if(statusCd.equals(fromStatusCd)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
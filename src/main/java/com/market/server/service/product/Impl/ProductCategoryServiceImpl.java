@@ -9,6 +9,9 @@ import com.market.server.dto.Search;
 import com.market.server.dto.product.ProductCategoryDTO;
 import com.market.server.mapper.product.ProductCategoryMapper;
 import com.market.server.service.product.ProductCategoryService;
+import com.market.server.service.reference.Impl.ReferenceDataServiceImpl;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -19,13 +22,22 @@ public class ProductCategoryServiceImpl implements ProductCategoryService{
 	@Autowired
 	private final ProductCategoryMapper categoryMapper;
 	
+	@Autowired
+	private ReferenceDataServiceImpl referenceDataService;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	public ProductCategoryServiceImpl(ProductCategoryMapper categoryMapper) {
         this.categoryMapper = categoryMapper;
     }
 	
+	/**
+	 * 상품 카테고리를 조회한다.(기준정보 snapshot 조회)
+	 */
 	@Override
 	public List<ProductCategoryDTO> getCategory(Search search) {
-		return categoryMapper.getCategory(search);
+		return referenceDataService.getCategory(search);
 	}
 
 	@Override
@@ -41,7 +53,11 @@ public class ProductCategoryServiceImpl implements ProductCategoryService{
 			}
 		}
 		
-		return categoryMapper.InsertCategory(categoryList);
+		// 카테고리 수만큼 연속된 시퀀스 채번
+		int result = categoryMapper.InsertCategory(categoryList, sequenceService.nextRange(Sequence.PRODUCT_CATEGORY, categoryList.size()));
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
+		
+		return result;
 	}
 
 	@Override
@@ -64,6 +80,7 @@ public class ProductCategoryServiceImpl implements ProductCategoryService{
 			log.error("update OptionCategory error! {}", categoryList);
 		    throw new RuntimeException("update OptionCategory error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 
 	@Override
@@ -74,15 +91,15 @@ public class ProductCategoryServiceImpl implements ProductCategoryService{
 			log.error("delete Category error! {}", categoryList);
 		    throw new RuntimeException("delete Category error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 
 	/**
-	 * 상품 카테고리 명 중복 여부 확인
+	 * 상품 카테고리 명 중복 여부 확인(기준정보 snapshot 조회)
 	 */
 	@Override
 	public boolean isDuplicatedNm(String categoryNm) {
-		int result = categoryMapper.isDuplicatedNm(categoryNm);
-		return result == 1 ? true : false;
+		return referenceDataService.isDuplicatedCategoryNm(categoryNm);
 	}
 
 }
@@ -0,0 +1,231 @@
+package com.market.server.service.product.Impl;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dao.ProductDao;
+import com.market.server.utils.RedisKeyFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품 조회수/좋아요수/주문수 count 집계
+ *
+ * 요청 스레드에서는 상품별 LongAdder에 증가분만 누적하고,
+ * 일정 주기 또는 누적 상품 수가 임계치를 넘으면 Redis에 HINCRBY(pipeline)로 반영한다.
+ */
+@Service
+@Log4j2
+public class ProductCntCounterServiceImpl {
+
+	private static final String[] KEYS = {
+		RedisKeyFactory.VIEW_CNT_KEY, RedisKeyFactory.LIKE_CNT_KEY, RedisKeyFactory.ORDER_CNT_KEY
+	};
+
+	@Autowired
+	private ProductDao productDao;
+
+	@Autowired
+	private ProductRankingServiceImpl productRankingService;
+
+	@Autowired
+	@Qualifier("asyncTask")
+	private Executor asyncTask;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${product.cnt.flush.threshold}")
+	private int flushThreshold;
+
+	// key(VIEWCNT, LIKECNT, ORDERCNT) -> 상품코드 -> 누적 증가분
+	private final Map<String, ConcurrentHashMap<String, LongAdder>> counters = new HashMap<>();
+
+	// 직전 flush에서 제거된 cell, 제거 직전에 더해진 증가분을 다음 flush에서 반영한다.
+	private final Map<String, List<Map.Entry<String, LongAdder>>> retiredCells = new HashMap<>();
+
+	private final AtomicInteger newCellCnt = new AtomicInteger(); // 직전 flush 이후 새로 생성된 cell 수
+	private final AtomicBoolean flushing   = new AtomicBoolean();
+
+	private Counter flushItemCounter;
+	private Counter flushDeltaCounter;
+	private Timer flushTimer;
+
+	@PostConstruct
+	public void init() {
+		for(String key : KEYS) {
+			ConcurrentHashMap<String, LongAdder> cells = new ConcurrentHashMap<>();
+			counters.put(key, cells);
+			retiredCells.put(key, new ArrayList<>());
+
+			meterRegistry.gauge("product.cnt.pending.items", Tags.of("key", key), cells, Map::size);
+			meterRegistry.gauge("product.cnt.pending.delta", Tags.of("key", key), cells, ProductCntCounterServiceImpl::pendingDelta);
+		}
+		flushItemCounter  = meterRegistry.counter("product.cnt.flush.items");
+		flushDeltaCounter = meterRegistry.counter("product.cnt.flush.delta");
+		flushTimer        = meterRegistry.timer("product.cnt.flush");
+	}
+
+	/**
+	 * 상품 count 증가분을 누적한다.
+	 *
+	 * @param key    RedisKeyFactory.VIEW_CNT_KEY, LIKE_CNT_KEY, ORDER_CNT_KEY
+	 * @param itemCd 상품코드
+	 * @param delta  증가분(감소인 경우 음수)
+	 */
+	public void increment(String key, String itemCd, long delta) {
+		ConcurrentHashMap<String, LongAdder> cells = counters.get(key);
+
+		LongAdder cell = cells.get(itemCd);
+		if(cell == null) {
+			LongAdder newCell = new LongAdder();
+			cell = cells.putIfAbsent(itemCd, newCell);
+			if(cell == null) {
+				cell = newCell;
+				if(newCellCnt.incrementAndGet() >= flushThreshold) {
+					requestFlush();
+				}
+			}
+		}
+		cell.add(delta);
+	}
+
+	/**
+	 * 임계치 초과 시 비동기로 flush를 요청한다.
+	 * 스레드가 부족한 경우 주기 flush에서 처리한다.
+	 */
+	private void requestFlush() {
+		if(flushing.get()) {
+			return;
+		}
+		try {
+			asyncTask.execute(this::flush);
+		}catch (RejectedExecutionException e) {
+			log.warn("product cnt flush rejected, wait for scheduled flush");
+		}
+	}
+
+	/**
+	 * 누적된 증가분을 Redis에 반영한다.
+	 */
+	@Scheduled(fixedDelayString = "${product.cnt.flush.interval}")
+	public void flush() {
+		if(!flushing.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			newCellCnt.set(0);
+			flushTimer.record(() -> {
+				for(String key : KEYS) {
+					flushKey(key);
+				}
+			});
+		}finally {
+			flushing.set(false);
+		}
+	}
+
+	private void flushKey(String key) {
+		ConcurrentHashMap<String, LongAdder> cells = counters.get(key);
+		List<Map.Entry<String, LongAdder>> retired = retiredCells.get(key);
+		List<Map.Entry<String, LongAdder>> newRetired = new ArrayList<>();
+		Map<String, Long> deltaMap = new HashMap<>();
+
+		// 직전 flush에서 제거된 cell의 잔여 증가분
+		for(Map.Entry<String, LongAdder> entry : retired) {
+			drain(entry.getKey(), entry.getValue(), deltaMap);
+		}
+
+		for(Map.Entry<String, LongAdder> entry : cells.entrySet()) {
+			if(!drain(entry.getKey(), entry.getValue(), deltaMap)
+					&& cells.remove(entry.getKey(), entry.getValue())) {
+				// 한 주기동안 증가분이 없는 cell은 제거한다.
+				newRetired.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+			}
+		}
+		retiredCells.put(key, newRetired);
+
+		if(deltaMap.isEmpty()) {
+			return;
+		}
+
+		try {
+			productDao.incrementProductCntInfo(key, deltaMap);
+		}catch (Exception e) {
+			// 반영 실패 시 증가분을 되돌려 다음 flush에서 재시도한다.
+			log.error("product cnt flush error! key : {}, items : {}", key, deltaMap.size(), e);
+			for(Map.Entry<String, Long> entry : deltaMap.entrySet()) {
+				increment(key, entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+
+		try {
+			productRankingService.incrementScores(key, deltaMap); // 인기 랭킹 반영
+		}catch (Exception e) {
+			log.error("product rank update error! key : {}, items : {}", key, deltaMap.size(), e);
+		}
+
+		long totalDelta = 0;
+		for(Long delta : deltaMap.values()) {
+			totalDelta += delta;
+		}
+		flushItemCounter.increment(deltaMap.size());
+		flushDeltaCounter.increment(totalDelta);
+	}
+
+	/**
+	 * cell의 누적값을 읽고 같은 값만큼 빼서 0으로 만든다.
+	 * sumThenReset은 동시에 더해지는 값을 유실할 수 있으므로 sum 후 add(-sum)을 사용한다.
+	 *
+	 * @return 증가분 존재 여부
+	 */
+	private boolean drain(String itemCd, LongAdder cell, Map<String, Long> deltaMap) {
+		long delta = cell.sum();
+		if(delta == 0) {
+			return false;
+		}
+		cell.add(-delta);
+		deltaMap.merge(itemCd, delta, Long::sum);
+		return true;
+	}
+
+	private static double pendingDelta(ConcurrentHashMap<String, LongAdder> cells) {
+		long sum = 0;
+		for(LongAdder cell : cells.values()) {
+			sum += cell.sum();
+		}
+		return sum;
+	}
+
+	/**
+	 * 서버 종료 시 남은 증가분을 반영한다.
+	 */
+	@PreDestroy
+	public void destroy() {
+		flush();
+	}
+
+}
@@ -2,56 +2,133 @@ package com.market.server.service.product.Impl;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.ibatis.executor.BatchResult;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.market.server.dao.ProductDao;
-import com.market.server.dto.order.OrderDTO;
 import com.market.server.mapper.product.ProductMapper;
 import com.market.server.utils.RedisKeyFactory;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 
 @Service
 @Log4j2
 public class ProductCntInfoServiceImpl{
-	
+
+	private static final String SNAPSHOT_SUFFIX = ":SNAPSHOT";
+
 	@Autowired
-	private ProductMapper productMapper;
-	
+	@Qualifier("batchSqlSessionTemplate")
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
 	@Autowired
 	private ProductDao productDao;
-	
-	
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${product.cnt.batch.chunkSize}")
+	private int chunkSize;
+
+
 	/**
-	 * 일정시간마다 주문상태를 log 테이블에 insert 및 주문정보이력 삭제
+	 * 일정시간마다 상품별 count 정보를 상품 테이블에 반영한다.
 	 */
 	@Scheduled(cron = "0 */5 * * * *") //  5분마다 실행
 	public void ProductCntInfoBySchedule() {
-		
-		// 좋아요 수 count 업데이트
-		Map<Object, Object> likeMap  = productDao.getProductCntMap(RedisKeyFactory.LIKE_CNT_KEY);
-		if(likeMap.size() > 0) {
-			productDao.delProductCntInfo(RedisKeyFactory.LIKE_CNT_KEY);
-			productMapper.updateLikeCnt(likeMap);
+		syncProductCnt(RedisKeyFactory.LIKE_CNT_KEY);  // 좋아요 수 count 업데이트
+		syncProductCnt(RedisKeyFactory.VIEW_CNT_KEY);  // 조회수 count 업데이트
+		syncProductCnt(RedisKeyFactory.ORDER_CNT_KEY); // 주문수 count 업데이트
+	}
+
+	/**
+	 * count 정보를 snapshot key로 변경(RENAME)한 뒤 HSCAN으로 나누어 DB에 반영한다.
+	 * 이전 실행에서 처리하지 못한 snapshot이 남아있으면 해당 snapshot부터 처리한다.
+	 * 상품별로 반영한 snapshot 번호를 DB에 함께 저장하므로 DB 반영 후 snapshot에서 제거하기 전에 종료되어도 다시 반영하지 않는다.
+	 *
+	 * @param key
+	 */
+	private void syncProductCnt(String key) {
+		String snapshotKey = key + SNAPSHOT_SUFFIX;
+
+		if(!productDao.hasProductCntInfo(snapshotKey) && !productDao.renameProductCntInfo(key, snapshotKey)) {
+			return; // 반영할 count 정보 없음
 		}
-		
-		// 조회수 count 업데이트
-		Map<Object, Object> viewMap  = productDao.getProductCntMap(RedisKeyFactory.VIEW_CNT_KEY);
-		if(viewMap.size() > 0) {
-			productDao.delProductCntInfo(RedisKeyFactory.VIEW_CNT_KEY);
-			productMapper.updateViewCnt(viewMap);
+
+		long snapshotId = productDao.getSnapshotId(snapshotKey);
+		long startTime = System.nanoTime();
+		AtomicLong itemCnt = new AtomicLong();
+		AtomicLong rowCnt  = new AtomicLong();
+
+		try {
+			productDao.scanProductCntInfo(snapshotKey, chunkSize, chunk -> {
+				rowCnt.addAndGet(updateProductCnt(key, snapshotId, chunk));
+				itemCnt.addAndGet(chunk.size());
+				productDao.delProductCntFields(snapshotKey, chunk.keySet()); // 반영한 상품은 snapshot에서 제거
+			});
+			productDao.delProductCntInfo(snapshotKey);
+		}catch (Exception e) {
+			log.error("Product Cnt Sync ERROR! key : {}, items : {}", key, itemCnt.get(), e);
+		}finally {
+			meterRegistry.timer("product.cnt.sync", "key", key).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+			meterRegistry.counter("product.cnt.sync.items", "key", key).increment(itemCnt.get());
+			meterRegistry.counter("product.cnt.sync.rows", "key", key).increment(rowCnt.get());
 		}
-			
-		// 주문수 count 업데이트
-		Map<Object, Object> orderMap = productDao.getProductCntMap(RedisKeyFactory.ORDER_CNT_KEY);
-		if(orderMap.size() > 0) {
-			productDao.delProductCntInfo(RedisKeyFactory.ORDER_CNT_KEY);
-			productMapper.updateOrderCnt(orderMap);
+
+		log.info("Product Cnt Sync! key : {}, items : {}, rows : {}, elapsed : {}ms",
+				key, itemCnt.get(), rowCnt.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+	}
+
+	/**
+	 * 상품별 증가분을 JDBC batch로 반영한다.(chunk 단위 commit)
+	 *
+	 * @param key
+	 * @param snapshotId snapshot 번호
+	 * @param chunk 상품코드별 증가분
+	 * @return 반영된 row 수(이미 반영한 상품 제외)
+	 */
+	private int updateProductCnt(String key, long snapshotId, Map<String, Long> chunk) {
+		return transactionTemplate.execute(status -> {
+			ProductMapper batchMapper = batchSqlSessionTemplate.getMapper(ProductMapper.class);
+
+			for(Map.Entry<String, Long> entry : chunk.entrySet()) {
+				if(RedisKeyFactory.LIKE_CNT_KEY.equals(key)) {
+					batchMapper.addLikeCnt(entry.getKey(), entry.getValue(), snapshotId);
+				}else if(RedisKeyFactory.VIEW_CNT_KEY.equals(key)) {
+					batchMapper.addViewCnt(entry.getKey(), entry.getValue(), snapshotId);
+				}else {
+					batchMapper.addOrderCnt(entry.getKey(), entry.getValue(), snapshotId);
+				}
+			}
+
+			List<BatchResult> batchResults = batchSqlSessionTemplate.flushStatements();
+			return countRows(batchResults);
+		});
+	}
+
+	private int countRows(List<BatchResult> batchResults) {
+		int rows = 0;
+		for(BatchResult batchResult : batchResults) {
+			for(int updateCount : batchResult.getUpdateCounts()) {
+				if(updateCount > 0) {
+					rows += updateCount;
+				}
+			}
 		}
-		
+		return rows;
 	}
-	
+
 }
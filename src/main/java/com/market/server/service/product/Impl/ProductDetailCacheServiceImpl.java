@@ -0,0 +1,386 @@
+package com.market.server.service.product.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.market.server.dto.Search;
+import com.market.server.dto.option.OptionDTO;
+import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.dto.product.TradingAreaDTO;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.service.option.Impl.OptionServiceImpl;
+import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품상세 2단계 캐시
+ * - L1 : 서버별 로컬 캐시(Caffeine), 최대 건수 제한
+ * - L2 : Redis 캐시(RedisCacheManager)
+ * 상품 수정/삭제 시 Redis pub/sub으로 다른 서버의 L1 캐시를 무효화한다.
+ */
+@Service
+@Log4j2
+public class ProductDetailCacheServiceImpl implements MessageListener {
+
+	// RedisCache key 형식 : 캐시명::상품코드
+	private static final String REMOTE_KEY_PREFIX = CacheKeyPrefix.simple().compute(RedisKeyFactory.PRODUCT_DETAIL_CACHE);
+
+	@Autowired
+	private RedisCacheManager redisCacheManager;
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Autowired
+	@Qualifier("redisMessageListenerContainer")
+	private RedisMessageListenerContainer redisMessageListenerContainer;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${cache.product.detail.local.maxSize}")
+	private long localMaxSize;
+
+	@Value("${cache.product.detail.local.expire}")
+	private long localExpireSecond;
+
+	@Autowired
+	private ProductMapper productMapper;
+
+	@Autowired
+	private OptionServiceImpl optionService;
+
+	@Autowired
+	private TradingAreaServiceImpl tradingAreaService;
+
+	@Autowired
+	@Qualifier("productDetailExecutor")
+	private ExecutorService productDetailExecutor;
+
+	@Value("${product.detail.fanout.enabled}")
+	private boolean fanOutEnabled;
+
+	@Value("${product.detail.fanout.timeout}")
+	private long fanOutTimeout;
+
+	private Cache<String, ProductDetailDTO> localCache;         // L1
+	private org.springframework.cache.Cache remoteCache;        // L2
+
+	private Counter remoteHitCounter;
+	private Counter remoteMissCounter;
+	private Timer loadTimer;
+	private Counter fanOutRejectedCounter;
+	private Counter fanOutTimeoutCounter;
+
+	@PostConstruct
+	public void init() {
+		localCache = Caffeine.newBuilder()
+				.maximumSize(localMaxSize)
+				.expireAfterWrite(localExpireSecond, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		remoteCache = redisCacheManager.getCache(RedisKeyFactory.PRODUCT_DETAIL_CACHE);
+
+		// metrics : cache.gets(hit/miss), cache.evictions, cache.size ...
+		CaffeineCacheMetrics.monitor(meterRegistry, localCache, "productDetail");
+		remoteHitCounter  = meterRegistry.counter("product.detail.remote", "result", "hit");
+		remoteMissCounter = meterRegistry.counter("product.detail.remote", "result", "miss");
+		loadTimer         = meterRegistry.timer("product.detail.load");
+		fanOutRejectedCounter = meterRegistry.counter("product.detail.fanout", "result", "rejected");
+		fanOutTimeoutCounter  = meterRegistry.counter("product.detail.fanout", "result", "timeout");
+
+		// 상품변경 채널 구독
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyFactory.PRODUCT_CHANGE_TOPIC));
+	}
+
+	/**
+	 * 상품상세 정보를 조회한다.
+	 * L1 -> L2 -> DB 순으로 조회하며, 같은 서버에서 동일 상품에 대한 동시 조회는 한번만 로딩한다.
+	 * 존재하지 않는 상품은 L1에도 저장하지 않는다.(등록 직후 다른 서버에서 expire 동안 없는 상품으로 조회되지 않도록)
+	 *
+	 * @param itemCd 상품코드
+	 * @return 존재하지 않는 상품은 상품정보(productDTO)가 null
+	 */
+	public ProductDetailDTO get(String itemCd) {
+		ProductDetailDTO productDetailDTO = localCache.get(itemCd, this::loadFromRemote);
+		if(productDetailDTO == null) {
+			productDetailDTO = new ProductDetailDTO();
+			productDetailDTO.setOptionList(new ArrayList<>());
+		}
+		return productDetailDTO;
+	}
+
+	/**
+	 * 여러 상품의 상세 정보를 한번에 조회한다.
+	 * L1에 없는 상품은 L2에서 MGET으로 조회하고, L2에도 없는 상품만 DB에서 조회한다.
+	 * 존재하지 않는 상품은 결과에 포함되지 않는다.
+	 *
+	 * @param itemCds 상품코드 목록
+	 * @return 상품코드별 상세정보
+	 */
+	public Map<String, ProductDetailDTO> getAll(Collection<String> itemCds) {
+		return localCache.getAll(itemCds, this::loadAllFromRemote);
+	}
+
+	/**
+	 * DB에서 상품상세 정보를 조회한다.
+	 * 상품/옵션/거래지역 조회를 동시에 실행하므로 응답시간은 가장 느린 조회에 맞춰진다.
+	 * 트랜잭션 안에서 호출한 경우(상품 수정/삭제) 트랜잭션의 커넥션으로 차례대로 조회한다.
+	 *
+	 * @param search
+	 * @return
+	 */
+	public ProductDetailDTO load(Search search) {
+		Future<ProductDTO> productFuture          = submit(() -> productMapper.productDetail(search));
+		Future<List<OptionDTO>> optionFuture      = submit(() -> optionService.getOption(search));
+		Future<TradingAreaDTO> tradingAreaFuture  = submit(() -> tradingAreaService.getTradingArea(search));
+		await(search.get("itemCd"), productFuture, optionFuture, tradingAreaFuture);
+
+		ProductDetailDTO productDetailDTO = new ProductDetailDTO();
+
+		productDetailDTO.setProductDTO(result(productFuture));         // 상품 정보 set
+		productDetailDTO.setOptionList(result(optionFuture));          // 상품 옵션정보 set
+		productDetailDTO.setTradingAreaDTO(result(tradingAreaFuture)); // 상품 거래정보 set
+
+		return productDetailDTO;
+	}
+
+	/**
+	 * DB에서 여러 상품의 상세 정보를 조회한다.
+	 * 상품/옵션/거래지역을 테이블별 IN 조회 한번씩으로 가져와 상품코드별로 묶는다.
+	 *
+	 * @param itemCds 상품코드 목록
+	 * @return 상품코드별 상세정보(존재하지 않는 상품 제외)
+	 */
+	public Map<String, ProductDetailDTO> loadAll(Collection<String> itemCds) {
+		Map<String, ProductDetailDTO> result = new HashMap<>();
+		if(itemCds.isEmpty()) {
+			return result;
+		}
+		Search search = new Search("itemCdList", new ArrayList<>(itemCds));
+
+		Future<List<ProductDTO>> productFuture         = submit(() -> productMapper.productDetailList(search));
+		Future<List<OptionDTO>> optionFuture           = submit(() -> optionService.getOption(search));
+		Future<List<TradingAreaDTO>> tradingAreaFuture = submit(() -> tradingAreaService.getTradingAreaList(search));
+		await(itemCds, productFuture, optionFuture, tradingAreaFuture);
+
+		for(ProductDTO productDTO : result(productFuture)) { // 상품 정보 set
+			ProductDetailDTO productDetailDTO = new ProductDetailDTO();
+			productDetailDTO.setProductDTO(productDTO);
+			productDetailDTO.setOptionList(new ArrayList<>());
+			result.put(productDTO.getItemCd(), productDetailDTO);
+		}
+		for(OptionDTO optionDTO : result(optionFuture)) { // 상품 옵션정보 set
+			ProductDetailDTO productDetailDTO = result.get(optionDTO.getItemCd());
+			if(productDetailDTO != null) {
+				productDetailDTO.getOptionList().add(optionDTO);
+			}
+		}
+		for(TradingAreaDTO tradingAreaDTO : result(tradingAreaFuture)) { // 상품 거래정보 set
+			ProductDetailDTO productDetailDTO = result.get(tradingAreaDTO.getItemCd());
+			if(productDetailDTO != null) {
+				productDetailDTO.setTradingAreaDTO(tradingAreaDTO);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 조회를 상품상세 전용 스레드풀에서 실행한다.
+	 * 동시 조회를 사용하지 않거나, 트랜잭션 안이거나(다른 커넥션에서는 변경 전 데이터를 읽고 커넥션을 추가로 사용),
+	 * 스레드풀이 가득 찬 경우 요청 스레드에서 바로 실행한다.
+	 */
+	private <T> Future<T> submit(Supplier<T> query) {
+		if(fanOutEnabled && !TransactionSynchronizationManager.isActualTransactionActive()) {
+			try {
+				return productDetailExecutor.submit(query::get);
+			}catch (RejectedExecutionException e) {
+				fanOutRejectedCounter.increment();
+			}
+		}
+		return CompletableFuture.completedFuture(query.get());
+	}
+
+	/**
+	 * 모든 조회가 끝날 때까지 대기한다.
+	 * 제한시간을 넘기거나 하나라도 실패하면 남은 조회를 취소하고(대기 중인 조회는 실행하지 않음) 오류를 반환한다.
+	 */
+	private void await(Object itemCd, Future<?>... futures) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fanOutTimeout);
+		try {
+			for(Future<?> future : futures) {
+				future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			}
+		}catch (TimeoutException e) {
+			cancel(futures);
+			fanOutTimeoutCounter.increment();
+			log.error("Product Detail Load Timeout! itemCd : {}, timeout : {}ms", itemCd, fanOutTimeout);
+			throw new RuntimeException("Product Detail Load Timeout");
+		}catch (ExecutionException e) {
+			cancel(futures);
+			log.error("Product Detail Load Error! itemCd : {}", itemCd, e.getCause());
+			throw new RuntimeException("Product Detail Load Error", e.getCause());
+		}catch (InterruptedException e) {
+			cancel(futures);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Product Detail Load Interrupted", e);
+		}
+	}
+
+	private void cancel(Future<?>... futures) {
+		for(Future<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * 완료된 조회의 결과를 반환한다.(await 이후 호출)
+	 */
+	private <T> T result(Future<T> future) {
+		try {
+			return future.get();
+		}catch (ExecutionException e) {
+			throw new RuntimeException("Product Detail Load Error", e.getCause());
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Product Detail Load Interrupted", e);
+		}
+	}
+
+	/**
+	 * L2 캐시를 조회하고, 없으면 DB에서 조회하여 L2에 저장한다.
+	 * 존재하지 않는 상품은 null을 반환하여 L1, L2에 저장하지 않는다.
+	 */
+	private ProductDetailDTO loadFromRemote(String itemCd) {
+		ValueWrapper valueWrapper = remoteCache.get(itemCd);
+		if(valueWrapper != null && valueWrapper.get() != null) {
+			remoteHitCounter.increment();
+			return objectMapper.convertValue(valueWrapper.get(), ProductDetailDTO.class);
+		}
+		remoteMissCounter.increment();
+
+		ProductDetailDTO productDetailDTO = loadTimer.record(() -> load(new Search("itemCd", itemCd)));
+		if(productDetailDTO.getProductDTO() == null) {
+			return null;
+		}
+		remoteCache.put(itemCd, productDetailDTO);
+		return productDetailDTO;
+	}
+
+	private Map<String, ProductDetailDTO> loadAllFromRemote(Iterable<? extends String> itemCds) {
+		List<String> itemCdList = new ArrayList<>();
+		List<String> cacheKeys  = new ArrayList<>();
+		for(String itemCd : itemCds) {
+			itemCdList.add(itemCd);
+			cacheKeys.add(REMOTE_KEY_PREFIX + itemCd);
+		}
+
+		Map<String, ProductDetailDTO> result = new HashMap<>();
+		List<String> dbItemCds = new ArrayList<>();
+		List<String> values = stringRedisTemplate.opsForValue().multiGet(cacheKeys);
+
+		for(int i = 0; i < itemCdList.size(); i++) {
+			String value = values == null ? null : values.get(i);
+			ProductDetailDTO productDetailDTO = value == null ? null : readValue(value);
+			if(productDetailDTO != null) {
+				remoteHitCounter.increment();
+				result.put(itemCdList.get(i), productDetailDTO);
+			}else {
+				remoteMissCounter.increment();
+				dbItemCds.add(itemCdList.get(i));
+			}
+		}
+
+		if(!dbItemCds.isEmpty()) {
+			Map<String, ProductDetailDTO> dbResult = loadTimer.record(() -> loadAll(dbItemCds));
+			for(Map.Entry<String, ProductDetailDTO> entry : dbResult.entrySet()) {
+				remoteCache.put(entry.getKey(), entry.getValue());
+			}
+			result.putAll(dbResult);
+		}
+		return result;
+	}
+
+	private ProductDetailDTO readValue(String value) {
+		try {
+			return objectMapper.readValue(value, ProductDetailDTO.class);
+		}catch (JsonProcessingException e) {
+			log.error("product detail cache read error! {}", value, e);
+			return null;
+		}
+	}
+
+	/**
+	 * 상품상세 캐시를 삭제하고 다른 서버에 변경을 알린다.
+	 *
+	 * @param itemCd 상품코드
+	 */
+	public void evict(String itemCd) {
+		localCache.invalidate(itemCd);
+		remoteCache.evict(itemCd);
+		stringRedisTemplate.convertAndSend(RedisKeyFactory.PRODUCT_CHANGE_TOPIC, itemCd);
+	}
+
+	/**
+	 * 트랜잭션 커밋 이후 상품상세 캐시를 삭제한다.
+	 * 커밋 전에 삭제하면 다른 요청이 변경 전 데이터를 다시 캐시에 올릴 수 있다.
+	 *
+	 * @param itemCd 상품코드
+	 */
+	public void evictAfterCommit(String itemCd) {
+		TransactionUtil.afterCommit(() -> evict(itemCd));
+	}
+
+	/**
+	 * 다른 서버에서 상품이 변경된 경우 L1 캐시를 삭제한다.
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String itemCd = new String(message.getBody(), StandardCharsets.UTF_8);
+		localCache.invalidate(itemCd);
+		log.debug("product detail local cache evicted : {}", itemCd);
+	}
+
+}
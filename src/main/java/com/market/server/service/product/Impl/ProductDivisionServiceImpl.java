@@ -9,6 +9,9 @@ import com.market.server.dto.Search;
 import com.market.server.dto.product.ProductDivisionDTO;
 import com.market.server.mapper.product.ProductDivisionMapper;
 import com.market.server.service.product.ProductDivisionService;
+import com.market.server.service.reference.Impl.ReferenceDataServiceImpl;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -19,13 +22,22 @@ public class ProductDivisionServiceImpl implements ProductDivisionService{
 	@Autowired
 	private final ProductDivisionMapper productDivisionMapper;
 	
+	@Autowired
+	private ReferenceDataServiceImpl referenceDataService;
+	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	public ProductDivisionServiceImpl(ProductDivisionMapper productDivisionMapper) {
         this.productDivisionMapper = productDivisionMapper;
     }
 	
+	/**
+	 * 상품 구분정보를 조회한다.(기준정보 snapshot 조회)
+	 */
 	@Override
 	public List<ProductDivisionDTO> getDivision(Search search) {
-		return productDivisionMapper.getDivision(search);
+		return referenceDataService.getDivision(search);
 	}
 
 	@Override
@@ -41,7 +53,11 @@ public class ProductDivisionServiceImpl implements ProductDivisionService{
 			}
 		}
 		
-		return productDivisionMapper.InsertDivision(divisionList);
+		// 상품구분 수만큼 연속된 시퀀스 채번
+		int result = productDivisionMapper.InsertDivision(divisionList, sequenceService.nextRange(Sequence.PRODUCT_DIVISION, divisionList.size()));
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
+		
+		return result;
 	}
 
 	@Override
@@ -64,6 +80,7 @@ public class ProductDivisionServiceImpl implements ProductDivisionService{
 			log.error("update Division error! {}", divisionList);
 		    throw new RuntimeException("update Division error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 
 	@Override
@@ -74,15 +91,15 @@ public class ProductDivisionServiceImpl implements ProductDivisionService{
 			log.error("delete Division error! {}", categoryList);
 		    throw new RuntimeException("delete Division error!");
 		}
+		referenceDataService.reloadAfterCommit(); // 기준정보 snapshot 교체
 	}
 
 	/**
-	 * 상품 카테고리 명 중복 여부 확인
+	 * 상품 구분정보 명 중복 여부 확인(기준정보 snapshot 조회)
 	 */
 	@Override
 	public boolean isDuplicatedNm(String categoryNm) {
-		int result = productDivisionMapper.isDuplicatedNm(categoryNm);
-		return result == 1 ? true : false;
+		return referenceDataService.isDuplicatedDivisionNm(categoryNm);
 	}
 	
 }
@@ -0,0 +1,427 @@
+package com.market.server.service.product.Impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.market.server.dto.option.OptionCategoryDTO;
+import com.market.server.dto.option.OptionDTO;
+import com.market.server.dto.product.ProductCategoryDTO;
+import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.dto.product.ProductDivisionDTO;
+import com.market.server.dto.product.ProductImportResultDTO;
+import com.market.server.dto.product.TradingAreaDTO;
+import com.market.server.dto.reference.ReferenceDataSnapshot;
+import com.market.server.mapper.option.OptionMapper;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.mapper.product.TradingAreaMapper;
+import com.market.server.service.reference.Impl.ReferenceDataServiceImpl;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
+import com.market.server.utils.CsvReader;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품 일괄등록
+ *
+ * 업로드 파일(CSV, JSON Lines)을 한 row씩 읽어 기준정보 snapshot으로 검증한 뒤,
+ * chunkSize 단위로 상품/옵션/거래지역을 JDBC batch로 등록하고 chunk마다 커밋한다.
+ * chunk 등록에 실패하면 해당 chunk만 row 단위로 다시 등록하여 실패한 row를 찾는다.
+ *
+ * CSV : 첫 줄은 헤더(itemNm,itemPrice,categoryCd,divisionCd,title,description,deliveryPrice,image1~4,options,area1~3)
+ *       options는 "옵션카테고리코드:옵션명"을 '|'로 구분한다.
+ * JSONL : 한 줄에 상품 등록 요청(ProductDetailDTO) 하나
+ */
+@Service
+@Log4j2
+public class ProductImportServiceImpl {
+
+	public enum Format {
+		CSV, JSONL
+	}
+
+	private static final String OPTION_DELIMITER      = "\\|";
+	private static final String OPTION_CODE_DELIMITER = ":";
+
+	@Autowired
+	@Qualifier("batchSqlSessionTemplate")
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ReferenceDataServiceImpl referenceDataService;
+
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+
+	@Autowired
+	private ProductDetailCacheServiceImpl productDetailCacheService;
+
+	@Autowired
+	private ProductSearchIndexServiceImpl productSearchIndexService;
+
+	@Autowired
+	private ProductRankingServiceImpl productRankingService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${product.import.chunkSize}")
+	private int chunkSize;
+
+	@Value("${product.import.maxErrors}")
+	private int maxErrors;
+
+	/**
+	 * 상품을 일괄등록한다.
+	 *
+	 * @param loginNo     등록자 로그인번호
+	 * @param inputStream 업로드 파일
+	 * @param format      CSV, JSONL
+	 * @return 등록 결과(row별 오류, 초당 처리 row 수)
+	 */
+	public ProductImportResultDTO importProducts(int loginNo, InputStream inputStream, Format format) {
+		long startTime = System.nanoTime();
+		ImportContext context = new ImportContext(loginNo, referenceDataService.getSnapshot());
+
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			if(format == Format.CSV) {
+				readCsv(reader, context);
+			}else {
+				readJsonLines(reader, context);
+			}
+			context.flush();
+		}catch (IOException e) {
+			// 이미 커밋된 chunk는 유지하고 읽은 row까지의 결과를 반환한다.
+			log.error("Product Import Read ERROR! loginNo : {}, rows : {}", loginNo, context.rowNo, e);
+			context.flush();
+			context.result.addError(context.rowNo + 1, "파일을 읽는 중 오류가 발생했습니다.");
+		}
+
+		long elapsed = System.nanoTime() - startTime;
+		ProductImportResultDTO result = context.result;
+		result.finish(TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+		meterRegistry.timer("product.import", "format", format.name()).record(elapsed, TimeUnit.NANOSECONDS);
+		meterRegistry.counter("product.import.rows", "result", "success").increment(result.getSuccessCnt());
+		meterRegistry.counter("product.import.rows", "result", "error").increment(result.getErrorCnt());
+
+		log.info("Product Import! loginNo : {}, total : {}, success : {}, error : {}, elapsed : {}ms, rows/sec : {}", loginNo,
+				result.getTotalCnt(), result.getSuccessCnt(), result.getErrorCnt(), result.getElapsedMillis(), result.getRowsPerSec());
+		return result;
+	}
+
+	private void readCsv(BufferedReader reader, ImportContext context) throws IOException {
+		CsvReader csvReader = new CsvReader(reader);
+
+		List<String> header = csvReader.readRecord();
+		if(header == null) {
+			return;
+		}
+		Map<String, Integer> columnMap = new HashMap<>();
+		for(int i = 0; i < header.size(); i++) {
+			columnMap.put(header.get(i).replace("\uFEFF", "").trim(), i); // UTF-8 BOM 제거
+		}
+
+		List<String> record;
+		while((record = csvReader.readRecord()) != null) {
+			if(record.size() == 1 && record.get(0).trim().isEmpty()) {
+				continue; // 빈 줄
+			}
+
+			ProductDetailDTO productDetailDTO;
+			try {
+				productDetailDTO = toProductDetail(record, columnMap);
+			}catch (NumberFormatException e) {
+				context.addError("숫자 형식을 확인해주세요. " + e.getMessage());
+				continue;
+			}
+			context.add(productDetailDTO);
+		}
+	}
+
+	private void readJsonLines(BufferedReader reader, ImportContext context) throws IOException {
+		String line;
+		while((line = reader.readLine()) != null) {
+			if(line.trim().isEmpty()) {
+				continue;
+			}
+
+			ProductDetailDTO productDetailDTO;
+			try {
+				productDetailDTO = objectMapper.readValue(line, ProductDetailDTO.class);
+			}catch (JsonProcessingException e) {
+				context.addError("JSON 형식을 확인해주세요. " + e.getOriginalMessage());
+				continue;
+			}
+			context.add(productDetailDTO);
+		}
+	}
+
+	private ProductDetailDTO toProductDetail(List<String> record, Map<String, Integer> columnMap) {
+		ProductDTO productDTO = new ProductDTO();
+		productDTO.setItemNm(column(record, columnMap, "itemNm"));
+		productDTO.setItemPrice(toLong(column(record, columnMap, "itemPrice")));
+		productDTO.setCategoryCd(column(record, columnMap, "categoryCd"));
+		productDTO.setDivisionCd(column(record, columnMap, "divisionCd"));
+		productDTO.setTitle(column(record, columnMap, "title"));
+		productDTO.setDescription(column(record, columnMap, "description"));
+		productDTO.setDeliveryPrice(toLong(column(record, columnMap, "deliveryPrice")));
+		productDTO.setImage1(column(record, columnMap, "image1"));
+		productDTO.setImage2(column(record, columnMap, "image2"));
+		productDTO.setImage3(column(record, columnMap, "image3"));
+		productDTO.setImage4(column(record, columnMap, "image4"));
+
+		List<OptionDTO> optionList = new ArrayList<>();
+		String options = column(record, columnMap, "options");
+		if(options != null) {
+			for(String option : options.split(OPTION_DELIMITER)) {
+				int index = option.indexOf(OPTION_CODE_DELIMITER);
+				OptionDTO optionDTO = new OptionDTO(index < 0 ? option.trim() : option.substring(index + 1).trim());
+				if(index > 0) {
+					optionDTO.setOpCategoryCd(option.substring(0, index).trim());
+				}
+				optionList.add(optionDTO);
+			}
+		}
+
+		TradingAreaDTO tradingAreaDTO = null;
+		String area1 = column(record, columnMap, "area1");
+		if(area1 != null) {
+			tradingAreaDTO = new TradingAreaDTO();
+			tradingAreaDTO.setArea1(area1);
+			tradingAreaDTO.setArea2(column(record, columnMap, "area2"));
+			tradingAreaDTO.setArea3(column(record, columnMap, "area3"));
+		}
+
+		ProductDetailDTO productDetailDTO = new ProductDetailDTO();
+		productDetailDTO.setProductDTO(productDTO);
+		productDetailDTO.setOptionList(optionList);
+		productDetailDTO.setTradingAreaDTO(tradingAreaDTO);
+		return productDetailDTO;
+	}
+
+	/**
+	 * 컬럼 값을 조회한다. 컬럼이 없거나 빈 값이면 null
+	 */
+	private static String column(List<String> record, Map<String, Integer> columnMap, String columnNm) {
+		Integer index = columnMap.get(columnNm);
+		if(index == null || index >= record.size() || record.get(index).trim().isEmpty()) {
+			return null;
+		}
+		return record.get(index).trim();
+	}
+
+	private static Long toLong(String value) {
+		return value == null ? null : Long.valueOf(value);
+	}
+
+	/**
+	 * 기준정보 snapshot으로 등록 정보를 검증한다.
+	 *
+	 * @return 오류 내용, 정상인 경우 null
+	 */
+	private String validate(ProductDetailDTO productDetailDTO, ReferenceDataSnapshot snapshot) {
+		ProductDTO productDTO = productDetailDTO.getProductDTO();
+		if(productDTO == null || ProductDTO.hasNullDataBeforeRegister(productDTO)) {
+			return "상품 필수 정보를 확인해주세요.";
+		}
+
+		ProductCategoryDTO category = snapshot.getCategoryMap().get(productDTO.getCategoryCd());
+		if(category == null || "Y".equals(category.getDelYn())) {
+			return "상품카테고리코드를 확인해주세요. categoryCd : " + productDTO.getCategoryCd();
+		}
+
+		ProductDivisionDTO division = snapshot.getDivisionMap().get(productDTO.getDivisionCd());
+		if(division == null || "Y".equals(division.getDelYn())) {
+			return "상품구분코드를 확인해주세요. divisionCd : " + productDTO.getDivisionCd();
+		}
+
+		if(productDetailDTO.getOptionList() != null) {
+			for(OptionDTO optionDTO : productDetailDTO.getOptionList()) {
+				if(OptionDTO.hasNullDataBeforeRegister(optionDTO)) {
+					return "옵션명을 확인해주세요.";
+				}
+				if(optionDTO.getOpCategoryCd() != null) {
+					OptionCategoryDTO opCategory = snapshot.getOpCategoryMap().get(optionDTO.getOpCategoryCd());
+					if(opCategory == null || "Y".equals(opCategory.getDelYn())) {
+						return "옵션카테고리코드를 확인해주세요. opCategoryCd : " + optionDTO.getOpCategoryCd();
+					}
+				}
+			}
+		}
+
+		TradingAreaDTO tradingAreaDTO = productDetailDTO.getTradingAreaDTO();
+		if(tradingAreaDTO != null) {
+			if(!"Y".equals(division.getDirectYn())) {
+				return "직거래가 불가능한 상품구분입니다. divisionCd : " + productDTO.getDivisionCd();
+			}
+			if(TradingAreaDTO.hasNullDataBeforeRegister(tradingAreaDTO)) {
+				return "거래가능지역을 확인해주세요.";
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * chunk를 하나의 트랜잭션으로 등록한다.
+	 * 같은 SQL을 연속으로 실행해야 JDBC batch로 묶이므로 상품, 옵션, 거래지역 순으로 등록한다.
+	 */
+	private void insertChunk(List<ImportRow> rows) {
+		transactionTemplate.execute(status -> {
+			ProductMapper productMapper         = batchSqlSessionTemplate.getMapper(ProductMapper.class);
+			OptionMapper optionMapper           = batchSqlSessionTemplate.getMapper(OptionMapper.class);
+			TradingAreaMapper tradingAreaMapper = batchSqlSessionTemplate.getMapper(TradingAreaMapper.class);
+
+			// 상품
+			int itemSeq = sequenceService.nextRange(Sequence.PRODUCT, rows.size());
+			List<OptionDTO> optionList = new ArrayList<>();
+			for(int i = 0; i < rows.size(); i++) {
+				ProductDetailDTO productDetailDTO = rows.get(i).productDetailDTO;
+				ProductDTO productDTO = productDetailDTO.getProductDTO();
+				productDTO.setItemSeq(itemSeq + i);
+				productDTO.setItemCd(ProductDTO.generateItemCd(itemSeq + i));
+				productMapper.InsertProduct(productDTO);
+
+				if(productDetailDTO.getOptionList() != null) {
+					for(OptionDTO optionDTO : productDetailDTO.getOptionList()) {
+						optionDTO.setItemCd(productDTO.getItemCd());
+						optionList.add(optionDTO);
+					}
+				}
+			}
+
+			// 옵션 (chunk의 옵션을 한번에 등록)
+			if(!optionList.isEmpty()) {
+				optionMapper.InsertOption(optionList, sequenceService.nextRange(Sequence.OPTION, optionList.size()));
+			}
+
+			// 거래가능지역
+			for(ImportRow row : rows) {
+				TradingAreaDTO tradingAreaDTO = row.productDetailDTO.getTradingAreaDTO();
+				if(tradingAreaDTO != null) {
+					tradingAreaDTO.setItemCd(row.productDetailDTO.getProductDTO().getItemCd());
+					tradingAreaMapper.InsertTradingArea(tradingAreaDTO);
+				}
+			}
+
+			batchSqlSessionTemplate.flushStatements();
+
+			for(ImportRow row : rows) {
+				ProductDTO productDTO = row.productDetailDTO.getProductDTO();
+				productDetailCacheService.evictAfterCommit(productDTO.getItemCd()); // 다른 서버에 상품 변경 알림
+				productSearchIndexService.reindexAfterCommit(productDTO.getItemCd()); // 검색 인덱스 반영
+				TransactionUtil.afterCommit(() -> productRankingService.addProduct(productDTO)); // 인기 랭킹 추가
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * 업로드 row
+	 */
+	private static class ImportRow {
+
+		private final long rowNo;
+		private final ProductDetailDTO productDetailDTO;
+
+		private ImportRow(long rowNo, ProductDetailDTO productDetailDTO) {
+			this.rowNo            = rowNo;
+			this.productDetailDTO = productDetailDTO;
+		}
+	}
+
+	/**
+	 * 일괄등록 진행 상태(현재 chunk, 결과)
+	 */
+	private class ImportContext {
+
+		private final int loginNo;
+		private final ReferenceDataSnapshot snapshot;
+		private final ProductImportResultDTO result = new ProductImportResultDTO(maxErrors);
+		private final List<ImportRow> chunk = new ArrayList<>(chunkSize);
+		private long rowNo;
+
+		private ImportContext(int loginNo, ReferenceDataSnapshot snapshot) {
+			this.loginNo  = loginNo;
+			this.snapshot = snapshot;
+		}
+
+		private void addError(String message) {
+			rowNo++;
+			result.addTotal();
+			result.addError(rowNo, message);
+		}
+
+		private void add(ProductDetailDTO productDetailDTO) {
+			String error = validate(productDetailDTO, snapshot);
+			if(error != null) {
+				addError(error);
+				return;
+			}
+
+			rowNo++;
+			result.addTotal();
+			productDetailDTO.getProductDTO().setLoginNo(loginNo);
+			chunk.add(new ImportRow(rowNo, productDetailDTO));
+
+			if(chunk.size() >= chunkSize) {
+				flush();
+			}
+		}
+
+		/**
+		 * 현재 chunk를 등록한다. 실패한 경우 row 단위로 다시 등록한다.
+		 */
+		private void flush() {
+			if(chunk.isEmpty()) {
+				return;
+			}
+
+			try {
+				insertChunk(chunk);
+				result.addSuccess(chunk.size());
+			}catch (Exception e) {
+				log.error("Product Import Chunk ERROR! retry by row. loginNo : {}, rows : {}", loginNo, chunk.size(), e);
+
+				for(ImportRow row : chunk) {
+					try {
+						insertChunk(Collections.singletonList(row));
+						result.addSuccess(1);
+					}catch (Exception rowException) {
+						log.error("Product Import Row ERROR! rowNo : {}", row.rowNo, rowException);
+						result.addError(row.rowNo, "상품 등록에 실패했습니다.");
+					}
+				}
+			}
+			chunk.clear();
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.market.server.service.product.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.market.server.dto.product.ProductPriceDTO;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품 가격 조회 (주문 금액 검증용)
+ *
+ * 상품가격, 배송가격, 수정일시만 서버별 로컬 캐시(Caffeine)에 보관한다.
+ * 상품 수정/삭제 커밋 이후 캐시를 삭제하고, 다른 서버는 상품변경 채널(PRODUCT:CHANGE)로 삭제한다.
+ * 조회 중인 상품을 삭제하면 조회가 끝난 뒤 삭제되므로 변경 전 가격이 캐시에 남지 않는다.
+ */
+@Service
+@Log4j2
+public class ProductPriceServiceImpl implements MessageListener {
+
+	@Autowired
+	private ProductMapper productMapper;
+
+	@Autowired
+	@Qualifier("redisMessageListenerContainer")
+	private RedisMessageListenerContainer redisMessageListenerContainer;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${cache.product.price.maxSize}")
+	private long maxSize;
+
+	@Value("${cache.product.price.expire}")
+	private long expireSecond;
+
+	private Cache<String, ProductPriceDTO> priceCache;
+
+	@PostConstruct
+	public void init() {
+		priceCache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(expireSecond, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, priceCache, "productPrice");
+
+		// 상품변경 채널 구독
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyFactory.PRODUCT_CHANGE_TOPIC));
+	}
+
+	/**
+	 * 상품 가격을 조회한다.
+	 *
+	 * @param itemCd 상품코드
+	 * @return 없는 상품인 경우 null
+	 */
+	public ProductPriceDTO getPrice(String itemCd) {
+		return priceCache.get(itemCd, productMapper::productPrice);
+	}
+
+	/**
+	 * 트랜잭션 커밋 이후 가격 캐시를 삭제한다.
+	 *
+	 * @param itemCd 상품코드
+	 */
+	public void evictAfterCommit(String itemCd) {
+		TransactionUtil.afterCommit(() -> priceCache.invalidate(itemCd));
+	}
+
+	/**
+	 * 다른 서버에서 상품이 변경된 경우 가격 캐시를 삭제한다.
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String itemCd = new String(message.getBody(), StandardCharsets.UTF_8);
+		priceCache.invalidate(itemCd);
+		log.debug("product price cache evicted : {}", itemCd);
+	}
+
+}
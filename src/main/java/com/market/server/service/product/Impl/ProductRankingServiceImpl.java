@@ -0,0 +1,299 @@
+package com.market.server.service.product.Impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dao.ProductRankDao;
+import com.market.server.dto.CursorPage;
+import com.market.server.dto.Search;
+import com.market.server.dto.product.ProductCardDTO;
+import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.error.exception.InvalidCursorException;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.utils.CursorUtil;
+import com.market.server.utils.RedisKeyFactory;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 카테고리/구분코드별 상품 인기 랭킹(Redis sorted set)
+ *
+ * 조회수/좋아요수/주문수 증가분이 Redis에 반영될 때 점수를 같이 증가시키고,
+ * 인기순 목록은 ZREVRANGE로 상품코드를 조회한 뒤 상품상세 캐시에서 한번에 조회한다.
+ * 점수 증가 시 랭킹 키는 상품별 랭킹 범위(RANK_SCOPE)로 찾고, 범위가 없는 상품만 상품상세 캐시에서 조회한다.
+ * 랭킹이 없으면 조회 시 DB 기준으로 생성하며, 서버 내 같은 범위의 동시 요청은 한번만 생성하고 결과를 함께 기다린다.
+ */
+@Service
+@Log4j2
+public class ProductRankingServiceImpl {
+
+	private static final String[] CNT_KEYS = {
+		RedisKeyFactory.VIEW_CNT_KEY, RedisKeyFactory.LIKE_CNT_KEY, RedisKeyFactory.ORDER_CNT_KEY
+	};
+
+	private static final String RANK_CURSOR = "RANK";
+
+	@Autowired
+	private ProductRankDao productRankDao;
+
+	@Autowired
+	private ProductDetailCacheServiceImpl productDetailCacheService;
+
+	@Autowired
+	private ProductMapper productMapper;
+
+	@Value("${product.rank.empty.expire}")
+	private long emptyExpire;
+
+	@Value("${product.rank.rebuild.waitTimeout}")
+	private long rebuildWaitTimeout;
+
+	private final ConcurrentMap<String, CompletableFuture<Void>> rebuildMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 정렬조건에 해당하는 랭킹의 count key를 반환한다.
+	 *
+	 * @param sortStatus
+	 * @return 랭킹 정렬이 아닌 경우 null
+	 */
+	public static String getRankCntKey(String sortStatus) {
+		if("HIGHVIEWCNT".equals(sortStatus)) {
+			return RedisKeyFactory.VIEW_CNT_KEY;
+		}else if("HIGHLIKECNT".equals(sortStatus)) {
+			return RedisKeyFactory.LIKE_CNT_KEY;
+		}else if("HIGHORDERCNT".equals(sortStatus)) {
+			return RedisKeyFactory.ORDER_CNT_KEY;
+		}
+		return null;
+	}
+
+	/**
+	 * count 증가분을 랭킹 점수에 반영한다.
+	 * 상품의 랭킹 범위(카테고리/구분코드)는 RANK_SCOPE에서 조회하고, 없는 상품만 상품상세 캐시에서 조회하여 저장한다.
+	 *
+	 * @param cntKey
+	 * @param deltaMap 상품코드별 증가분
+	 */
+	public void incrementScores(String cntKey, Map<String, Long> deltaMap) {
+		List<String> itemCds = new ArrayList<>(deltaMap.keySet());
+		List<String> scopes  = productRankDao.getScopes(itemCds);
+
+		Map<String, String> scopeMap = new HashMap<>();
+		List<String> unknownItemCds = new ArrayList<>();
+		for(int i = 0; i < itemCds.size(); i++) {
+			if(scopes.get(i) == null) {
+				unknownItemCds.add(itemCds.get(i));
+			}else {
+				scopeMap.put(itemCds.get(i), scopes.get(i));
+			}
+		}
+
+		if(!unknownItemCds.isEmpty()) {
+			Map<String, String> newScopeMap = new HashMap<>();
+			Map<String, ProductDetailDTO> detailMap = productDetailCacheService.getAll(unknownItemCds);
+			for(String itemCd : unknownItemCds) {
+				ProductDetailDTO productDetailDTO = detailMap.get(itemCd);
+				if(productDetailDTO == null || productDetailDTO.getProductDTO() == null) {
+					continue;
+				}
+				ProductDTO productDTO = productDetailDTO.getProductDTO();
+				newScopeMap.put(itemCd, RedisKeyFactory.generateRankScope(productDTO.getCategoryCd(), productDTO.getDivisionCd()));
+			}
+			productRankDao.putScopes(newScopeMap);
+			scopeMap.putAll(newScopeMap);
+		}
+
+		Map<String, Map<String, Long>> rankDeltaMap = new HashMap<>();
+		for(Map.Entry<String, String> entry : scopeMap.entrySet()) {
+			String rankKey = RedisKeyFactory.generateRankKey(cntKey, entry.getValue());
+			rankDeltaMap.computeIfAbsent(rankKey, key -> new HashMap<>()).put(entry.getKey(), deltaMap.get(entry.getKey()));
+		}
+
+		for(Map.Entry<String, Map<String, Long>> entry : rankDeltaMap.entrySet()) {
+			productRankDao.incrementScores(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * 인기순으로 상품을 조회한다.
+	 * cursor에는 다음 페이지의 랭킹 순번이 들어있다.
+	 *
+	 * @param cntKey
+	 * @param categoryCd
+	 * @param divisionCd
+	 * @param cursor
+	 * @param pageSize
+	 * @return
+	 */
+	public CursorPage<ProductCardDTO> getRankedProducts(String cntKey, String categoryCd, String divisionCd, String cursor, int pageSize) {
+		String rankKey = RedisKeyFactory.generateRankKey(cntKey, categoryCd, divisionCd);
+		if(!productRankDao.hasRank(rankKey)) {
+			rebuildRankOnce(rankKey, categoryCd, divisionCd);
+		}
+
+		long offset = getOffset(cursor);
+		List<String> itemCds = productRankDao.getRange(rankKey, offset, offset + pageSize); // 다음 페이지 확인을 위해 1건 더 조회
+		boolean hasNext = itemCds.size() > pageSize;
+		if(hasNext) {
+			itemCds = itemCds.subList(0, pageSize);
+		}
+
+		Map<String, ProductDetailDTO> detailMap = productDetailCacheService.getAll(itemCds);
+		List<ProductCardDTO> productList = new ArrayList<>();
+		for(String itemCd : itemCds) {
+			ProductDetailDTO productDetailDTO = detailMap.get(itemCd);
+			if(productDetailDTO == null || productDetailDTO.getProductDTO() == null) {
+				continue;
+			}
+			ProductDTO productDTO = productDetailDTO.getProductDTO();
+			if("Y".equals(productDTO.getDispYn()) && "N".equals(productDTO.getDelYn())) {
+				productList.add(ProductCardDTO.of(productDTO));
+			}
+		}
+
+		String nextCursor = hasNext ? CursorUtil.encode(RANK_CURSOR, String.valueOf(offset + pageSize)) : null;
+		return new CursorPage<>(productList, nextCursor);
+	}
+
+	private long getOffset(String cursor) {
+		if(cursor == null || cursor.isEmpty()) {
+			return 0;
+		}
+		String[] cursorValues = CursorUtil.decode(cursor, 2);
+		try {
+			if(RANK_CURSOR.equals(cursorValues[0])) {
+				return Long.parseLong(cursorValues[1]);
+			}
+		}catch (NumberFormatException e) {
+			// 아래에서 처리
+		}
+		throw new InvalidCursorException("Invalid rank cursor : " + cursor);
+	}
+
+	/**
+	 * 랭킹이 없는 경우 생성한다. 서버 내 같은 범위의 랭킹은 한번만 생성하고, 동시 요청은 생성이 끝날 때까지 기다린다.
+	 */
+	private void rebuildRankOnce(String rankKey, String categoryCd, String divisionCd) {
+		String scope = RedisKeyFactory.generateRankScope(categoryCd, divisionCd);
+		CompletableFuture<Void> mine = new CompletableFuture<>();
+		CompletableFuture<Void> prev = rebuildMap.putIfAbsent(scope, mine);
+		if(prev != null) {
+			try {
+				prev.get(rebuildWaitTimeout, TimeUnit.MILLISECONDS);
+			}catch (ExecutionException | TimeoutException e) {
+				log.error("Rebuild Rank Wait ERROR! categoryCd : {}, divisionCd : {}", categoryCd, divisionCd, e);
+			}catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return;
+		}
+
+		try {
+			if(!productRankDao.hasRank(rankKey)) { // 다른 요청에서 먼저 생성한 경우
+				rebuildRank(categoryCd, divisionCd);
+			}
+			mine.complete(null);
+		}catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		}finally {
+			rebuildMap.remove(scope, mine);
+		}
+	}
+
+	/**
+	 * 등록된 상품을 랭킹에 추가한다.
+	 *
+	 * @param productDTO
+	 */
+	public void addProduct(ProductDTO productDTO) {
+		productRankDao.putScopes(Collections.singletonMap(productDTO.getItemCd(),
+				RedisKeyFactory.generateRankScope(productDTO.getCategoryCd(), productDTO.getDivisionCd())));
+		addScore(RedisKeyFactory.VIEW_CNT_KEY,  productDTO, productDTO.getViewCnt());
+		addScore(RedisKeyFactory.LIKE_CNT_KEY,  productDTO, productDTO.getLikeCnt());
+		addScore(RedisKeyFactory.ORDER_CNT_KEY, productDTO, productDTO.getOrderCnt());
+	}
+
+	private void addScore(String cntKey, ProductDTO productDTO, Integer score) {
+		String rankKey = RedisKeyFactory.generateRankKey(cntKey, productDTO.getCategoryCd(), productDTO.getDivisionCd());
+		productRankDao.addIfExists(rankKey, productDTO.getItemCd(), score == null ? 0 : score);
+	}
+
+	/**
+	 * 상품을 랭킹에서 제거한다.
+	 *
+	 * @param productDTO
+	 */
+	public void removeProduct(ProductDTO productDTO) {
+		for(String cntKey : CNT_KEYS) {
+			String rankKey = RedisKeyFactory.generateRankKey(cntKey, productDTO.getCategoryCd(), productDTO.getDivisionCd());
+			productRankDao.remove(rankKey, productDTO.getItemCd());
+		}
+		productRankDao.removeScope(productDTO.getItemCd());
+	}
+
+	/**
+	 * 카테고리/구분코드의 랭킹을 DB 기준으로 다시 생성한다.
+	 *
+	 * @param categoryCd
+	 * @param divisionCd
+	 */
+	public void rebuildRank(String categoryCd, String divisionCd) {
+		Search search = new Search();
+		search.add("categoryCd", categoryCd);
+		search.add("divisionCd", divisionCd);
+		List<ProductDTO> productList = productMapper.productRankInfo(search);
+
+		String scope = RedisKeyFactory.generateRankScope(categoryCd, divisionCd);
+		Map<String, String> scopeMap      = new HashMap<>();
+		Map<String, Double> viewScoreMap  = new HashMap<>();
+		Map<String, Double> likeScoreMap  = new HashMap<>();
+		Map<String, Double> orderScoreMap = new HashMap<>();
+		for(ProductDTO productDTO : productList) {
+			scopeMap.put(productDTO.getItemCd(), scope);
+			viewScoreMap.put(productDTO.getItemCd(),  toScore(productDTO.getViewCnt()));
+			likeScoreMap.put(productDTO.getItemCd(),  toScore(productDTO.getLikeCnt()));
+			orderScoreMap.put(productDTO.getItemCd(), toScore(productDTO.getOrderCnt()));
+		}
+
+		productRankDao.putScopes(scopeMap);
+		productRankDao.replace(RedisKeyFactory.generateRankKey(RedisKeyFactory.VIEW_CNT_KEY,  scope), viewScoreMap,  emptyExpire);
+		productRankDao.replace(RedisKeyFactory.generateRankKey(RedisKeyFactory.LIKE_CNT_KEY,  scope), likeScoreMap,  emptyExpire);
+		productRankDao.replace(RedisKeyFactory.generateRankKey(RedisKeyFactory.ORDER_CNT_KEY, scope), orderScoreMap, emptyExpire);
+	}
+
+	private double toScore(Integer cnt) {
+		return cnt == null ? 0 : cnt;
+	}
+
+	/**
+	 * 매일 전체 랭킹을 DB 기준으로 다시 생성한다.(누락된 증가분 보정)
+	 */
+	@Scheduled(cron = "0 30 4 * * *") // 매일 04:30
+	public void rebuildRankBySchedule() {
+		List<ProductDTO> scopeList = productMapper.productRankScope();
+		for(ProductDTO scope : scopeList) {
+			try {
+				rebuildRank(scope.getCategoryCd(), scope.getDivisionCd());
+			}catch (Exception e) {
+				log.error("Rebuild Rank ERROR! categoryCd : {}, divisionCd : {}", scope.getCategoryCd(), scope.getDivisionCd(), e);
+			}
+		}
+	}
+
+}
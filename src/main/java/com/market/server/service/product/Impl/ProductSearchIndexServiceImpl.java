@@ -0,0 +1,472 @@
+package com.market.server.service.product.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.CursorPage;
+import com.market.server.dto.Search;
+import com.market.server.dto.product.ProductCardDTO;
+import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductDetailDTO;
+import com.market.server.error.exception.InvalidCursorException;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.utils.CursorUtil;
+import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품 키워드 검색 인덱스(서버 메모리 역색인)
+ *
+ * 상품명/제목/설명을 문자 n-gram(1-gram, 2-gram)으로 나누어 색인한다.
+ * 한글은 띄어쓰기/조사가 일정하지 않으므로 형태소 대신 n-gram을 사용한다.
+ * 서버 시작 시 TBL_PRODUCT 전체를 적재하고, 이후에는 변경된 상품만 다시 색인한다.
+ * 다른 서버의 변경은 상품변경 채널(PRODUCT:CHANGE)로 전달받는다.
+ */
+@Service
+@Log4j2
+public class ProductSearchIndexServiceImpl implements MessageListener {
+
+	// 필드별 가중치
+	private static final int NAME_WEIGHT  = 3;
+	private static final int TITLE_WEIGHT = 2;
+	private static final int DESC_WEIGHT  = 1;
+
+	private static final long SCORE_SCALE = 1000; // cursor 비교를 위해 점수를 정수로 변환
+	private static final Pattern SPLIT_PATTERN = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// 점수 내림차순, 상품코드 내림차순
+	private static final Comparator<ScoredItem> RANK_ORDER =
+			Comparator.comparingLong((ScoredItem item) -> item.score).reversed()
+			          .thenComparing((ScoredItem item) -> item.itemCd, Comparator.reverseOrder());
+
+	@Autowired
+	private ProductMapper productMapper;
+
+	@Autowired
+	private ProductDetailCacheServiceImpl productDetailCacheService;
+
+	@Autowired
+	@Qualifier("redisMessageListenerContainer")
+	private RedisMessageListenerContainer redisMessageListenerContainer;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${product.search.index.chunkSize}")
+	private int chunkSize;
+
+	private volatile SearchIndex index = new SearchIndex();
+	private volatile boolean building;
+
+	// 전체 적재 중 변경된 상품, 적재 완료 후 다시 색인한다.
+	private final Set<String> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+	private Timer queryTimer;
+	private DistributionSummary candidateSummary;
+
+	@PostConstruct
+	public void init() {
+		queryTimer = Timer.builder("product.search.query")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		candidateSummary = meterRegistry.summary("product.search.candidates");
+		meterRegistry.gauge("product.search.index.docs",  this, service -> service.index.docs.size());
+		meterRegistry.gauge("product.search.index.grams", this, service -> service.index.postings.size());
+
+		// 상품변경 채널 구독
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyFactory.PRODUCT_CHANGE_TOPIC));
+	}
+
+	/**
+	 * 서버 시작 시 인덱스를 적재한다.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildOnStartup() {
+		rebuild();
+	}
+
+	/**
+	 * 매일 인덱스를 다시 적재한다.(누락된 변경 보정)
+	 */
+	@Scheduled(cron = "0 40 4 * * *") // 매일 04:40
+	public void rebuildBySchedule() {
+		rebuild();
+	}
+
+	/**
+	 * TBL_PRODUCT를 상품코드 순으로 나누어 조회하여 새 인덱스를 만든 뒤 교체한다.
+	 * 적재 중에도 기존 인덱스로 검색이 가능하다.
+	 */
+	public synchronized void rebuild() {
+		long startTime = System.nanoTime();
+		SearchIndex newIndex = new SearchIndex();
+		building = true;
+
+		try {
+			String lastItemCd = null;
+			while(true) {
+				Search search = new Search();
+				search.add("lastItemCd", lastItemCd);
+				search.add("chunkSize", chunkSize);
+				List<ProductDTO> productList = productMapper.productSearchIndexInfo(search);
+
+				for(ProductDTO productDTO : productList) {
+					newIndex.put(toDocument(productDTO));
+				}
+				if(productList.size() < chunkSize) {
+					break;
+				}
+				lastItemCd = productList.get(productList.size() - 1).getItemCd();
+			}
+			index = newIndex;
+		}catch (Exception e) {
+			log.error("Product Search Index Build ERROR!", e);
+			return;
+		}finally {
+			building = false;
+		}
+		reindexChanged(); // 적재 중 변경된 상품 (적재 종료 후 처리해야 다시 변경 목록에 쌓이지 않는다)
+
+		log.info("Product Search Index Build! docs : {}, grams : {}, elapsed : {}ms",
+				newIndex.docs.size(), newIndex.postings.size(), (System.nanoTime() - startTime) / 1_000_000);
+	}
+
+	private void reindexChanged() {
+		for(String itemCd : new ArrayList<>(changedDuringBuild)) {
+			changedDuringBuild.remove(itemCd);
+			reindex(itemCd);
+		}
+	}
+
+	/**
+	 * 상품을 DB 기준으로 다시 색인한다.
+	 * 전시중이 아니거나 삭제된 상품은 인덱스에서 제거한다.
+	 *
+	 * @param itemCd 상품코드
+	 */
+	public void reindex(String itemCd) {
+		if(building) {
+			changedDuringBuild.add(itemCd);
+		}
+		List<ProductDTO> productList = productMapper.productSearchIndexInfo(new Search("itemCd", itemCd));
+		if(productList.isEmpty()) {
+			index.remove(itemCd);
+		}else {
+			index.put(toDocument(productList.get(0)));
+		}
+	}
+
+	/**
+	 * 트랜잭션 커밋 이후 상품을 다시 색인한다.
+	 *
+	 * @param itemCd 상품코드
+	 */
+	public void reindexAfterCommit(String itemCd) {
+		TransactionUtil.afterCommit(() -> {
+			try {
+				reindex(itemCd);
+			}catch (Exception e) {
+				log.error("Product Search Reindex ERROR! itemCd : {}", itemCd, e);
+			}
+		});
+	}
+
+	/**
+	 * 다른 서버에서 상품이 변경된 경우 해당 상품을 다시 색인한다.
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String itemCd = new String(message.getBody(), StandardCharsets.UTF_8);
+		try {
+			reindex(itemCd);
+		}catch (Exception e) {
+			log.error("Product Search Reindex ERROR! itemCd : {}", itemCd, e);
+		}
+	}
+
+	/**
+	 * 키워드로 상품을 검색한다.
+	 * 키워드의 모든 n-gram을 포함하는 상품을 필드 가중치 * idf 합계로 정렬하며,
+	 * 이전 페이지 마지막 상품의 점수 + 상품코드를 cursor로 사용한다.
+	 * 점수는 인덱스 변경에 따라 달라질 수 있으므로 페이지 사이에 순서가 일부 바뀔 수 있다.
+	 *
+	 * @param keyword    검색어
+	 * @param categoryCd 상품카테고리코드(선택)
+	 * @param divisionCd 상품구분코드(선택)
+	 * @param cursor     이전 응답의 nextCursor, 첫 페이지는 null
+	 * @param pageSize
+	 * @return
+	 */
+	public CursorPage<ProductCardDTO> search(String keyword, String categoryCd, String divisionCd, String cursor, int pageSize) {
+		return queryTimer.record(() -> doSearch(keyword, categoryCd, divisionCd, cursor, pageSize));
+	}
+
+	private CursorPage<ProductCardDTO> doSearch(String keyword, String categoryCd, String divisionCd, String cursor, int pageSize) {
+		ScoredItem cursorItem = decodeCursor(cursor);
+		List<String> queryTokens = tokenize(keyword);
+		Set<String> queryGrams   = toQueryGrams(queryTokens);
+		if(queryGrams.isEmpty()) {
+			return new CursorPage<>(new ArrayList<>(), null);
+		}
+
+		SearchIndex current = index;
+		List<Map<String, Integer>> postingList = new ArrayList<>();
+		for(String gram : queryGrams) {
+			Map<String, Integer> posting = current.postings.get(gram);
+			if(posting == null) {
+				return new CursorPage<>(new ArrayList<>(), null); // 포함하는 상품 없음
+			}
+			postingList.add(posting);
+		}
+		postingList.sort(Comparator.comparingInt(Map::size)); // 후보가 가장 적은 gram부터 확인
+
+		int docCnt   = current.docs.size();
+		double[] idf = new double[postingList.size()];
+		for(int i = 0; i < postingList.size(); i++) {
+			idf[i] = Math.log(1 + (double) docCnt / Math.max(1, postingList.get(i).size()));
+		}
+
+		// 상위 pageSize + 1건만 유지(다음 페이지 확인용 1건 포함)
+		PriorityQueue<ScoredItem> topItems = new PriorityQueue<>(RANK_ORDER.reversed());
+		Map<String, Integer> candidates = postingList.get(0);
+		candidateSummary.record(candidates.size());
+
+		for(Map.Entry<String, Integer> entry : candidates.entrySet()) {
+			String itemCd = entry.getKey();
+			Document document = current.docs.get(itemCd);
+			if(document == null
+					|| (categoryCd != null && !categoryCd.equals(document.categoryCd))
+					|| (divisionCd != null && !divisionCd.equals(document.divisionCd))) {
+				continue;
+			}
+
+			Double score = score(itemCd, entry.getValue(), postingList, idf);
+			if(score == null) {
+				continue;
+			}
+			for(String token : queryTokens) {
+				if(document.name.contains(token)) {
+					score += NAME_WEIGHT; // 상품명에 검색어가 그대로 포함된 경우 가산
+				}
+			}
+
+			ScoredItem item = new ScoredItem(itemCd, Math.round(score * SCORE_SCALE));
+			if(cursorItem != null && RANK_ORDER.compare(item, cursorItem) <= 0) {
+				continue; // 이전 페이지에서 조회된 상품
+			}
+			topItems.offer(item);
+			if(topItems.size() > pageSize + 1) {
+				topItems.poll();
+			}
+		}
+
+		List<ScoredItem> rankedItems = new ArrayList<>(topItems);
+		rankedItems.sort(RANK_ORDER);
+		boolean hasNext = rankedItems.size() > pageSize;
+		if(hasNext) {
+			rankedItems = rankedItems.subList(0, pageSize);
+		}
+
+		List<String> itemCds = new ArrayList<>();
+		for(ScoredItem item : rankedItems) {
+			itemCds.add(item.itemCd);
+		}
+		Map<String, ProductDetailDTO> detailMap = productDetailCacheService.getAll(itemCds);
+		List<ProductCardDTO> productList = new ArrayList<>();
+		for(String itemCd : itemCds) {
+			ProductDetailDTO productDetailDTO = detailMap.get(itemCd);
+			if(productDetailDTO == null || productDetailDTO.getProductDTO() == null) {
+				continue;
+			}
+			ProductDTO productDTO = productDetailDTO.getProductDTO();
+			if("Y".equals(productDTO.getDispYn()) && "N".equals(productDTO.getDelYn())) {
+				productList.add(ProductCardDTO.of(productDTO));
+			}
+		}
+
+		String nextCursor = null;
+		if(hasNext) {
+			ScoredItem lastItem = rankedItems.get(pageSize - 1);
+			nextCursor = CursorUtil.encode(String.valueOf(lastItem.score), lastItem.itemCd);
+		}
+		return new CursorPage<>(productList, nextCursor);
+	}
+
+	/**
+	 * 모든 gram을 포함하는 경우 점수를 반환한다.
+	 *
+	 * @return 포함하지 않는 gram이 있으면 null
+	 */
+	private Double score(String itemCd, int firstWeight, List<Map<String, Integer>> postingList, double[] idf) {
+		double score = idf[0] * firstWeight;
+		for(int i = 1; i < postingList.size(); i++) {
+			Integer weight = postingList.get(i).get(itemCd);
+			if(weight == null) {
+				return null;
+			}
+			score += idf[i] * weight;
+		}
+		return score;
+	}
+
+	private ScoredItem decodeCursor(String cursor) {
+		if(cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		String[] cursorValues = CursorUtil.decode(cursor, 2);
+		try {
+			return new ScoredItem(cursorValues[1], Long.parseLong(cursorValues[0]));
+		}catch (NumberFormatException e) {
+			throw new InvalidCursorException("Invalid search cursor : " + cursor);
+		}
+	}
+
+	private Document toDocument(ProductDTO productDTO) {
+		Map<String, Integer> gramWeights = new HashMap<>();
+		addGrams(gramWeights, productDTO.getItemNm(),      NAME_WEIGHT);
+		addGrams(gramWeights, productDTO.getTitle(),       TITLE_WEIGHT);
+		addGrams(gramWeights, productDTO.getDescription(), DESC_WEIGHT);
+
+		String name = String.join(" ", tokenize(productDTO.getItemNm()));
+		return new Document(productDTO.getItemCd(), productDTO.getCategoryCd(), productDTO.getDivisionCd(), name, gramWeights);
+	}
+
+	/**
+	 * 필드의 1-gram, 2-gram을 추가한다. 여러 필드에 있는 gram은 높은 가중치를 사용한다.
+	 */
+	private void addGrams(Map<String, Integer> gramWeights, String text, int weight) {
+		for(String token : tokenize(text)) {
+			for(int i = 0; i < token.length(); i++) {
+				gramWeights.merge(token.substring(i, i + 1), weight, Math::max);
+				if(i + 1 < token.length()) {
+					gramWeights.merge(token.substring(i, i + 2), weight, Math::max);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 검색어의 gram을 반환한다. 한 글자 단어는 1-gram, 그 외는 2-gram을 사용한다.
+	 */
+	private Set<String> toQueryGrams(List<String> tokens) {
+		Set<String> grams = new LinkedHashSet<>();
+		for(String token : tokens) {
+			if(token.length() == 1) {
+				grams.add(token);
+				continue;
+			}
+			for(int i = 0; i + 1 < token.length(); i++) {
+				grams.add(token.substring(i, i + 2));
+			}
+		}
+		return grams;
+	}
+
+	/**
+	 * 유니코드 정규화(NFKC), 소문자 변환 후 문자/숫자가 아닌 문자로 나눈다.
+	 */
+	private static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if(text == null) {
+			return tokens;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+		for(String token : SPLIT_PATTERN.split(normalized)) {
+			if(!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	// -------------- 인덱스 --------------
+
+	/**
+	 * 색인 변경은 한번에 하나씩 처리하고, 검색은 잠금 없이 조회한다.
+	 */
+	private static class SearchIndex {
+		private final ConcurrentHashMap<String, Document> docs = new ConcurrentHashMap<>();                             // 상품코드 -> 문서
+		private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> postings = new ConcurrentHashMap<>(); // gram -> 상품코드 -> 가중치
+
+		private synchronized void put(Document document) {
+			remove(document.itemCd);
+			docs.put(document.itemCd, document);
+			for(Map.Entry<String, Integer> entry : document.gramWeights.entrySet()) {
+				postings.computeIfAbsent(entry.getKey(), gram -> new ConcurrentHashMap<>()).put(document.itemCd, entry.getValue());
+			}
+		}
+
+		private synchronized void remove(String itemCd) {
+			Document document = docs.remove(itemCd);
+			if(document == null) {
+				return;
+			}
+			for(String gram : document.gramWeights.keySet()) {
+				Map<String, Integer> posting = postings.get(gram);
+				if(posting != null) {
+					posting.remove(itemCd);
+					if(posting.isEmpty()) {
+						postings.remove(gram);
+					}
+				}
+			}
+		}
+	}
+
+	private static class Document {
+		private final String itemCd;
+		private final String categoryCd;
+		private final String divisionCd;
+		private final String name;                      // 정규화된 상품명
+		private final Map<String, Integer> gramWeights; // gram -> 가중치
+
+		private Document(String itemCd, String categoryCd, String divisionCd, String name, Map<String, Integer> gramWeights) {
+			this.itemCd      = itemCd;
+			this.categoryCd  = categoryCd;
+			this.divisionCd  = divisionCd;
+			this.name        = name;
+			this.gramWeights = gramWeights;
+		}
+	}
+
+	private static class ScoredItem {
+		private final String itemCd;
+		private final long score;
+
+		private ScoredItem(String itemCd, long score) {
+			this.itemCd = itemCd;
+			this.score  = score;
+		}
+	}
+
+}
@@ -1,20 +1,33 @@
 package com.market.server.service.product.Impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.market.server.dao.ProductDao;
+import com.market.server.dto.CursorPage;
 import com.market.server.dto.Search;
+import com.market.server.dto.product.ProductCardDTO;
 import com.market.server.dto.product.ProductDTO;
 import com.market.server.dto.product.ProductDetailDTO;
 import com.market.server.dto.product.ProductDivisionDTO;
+import com.market.server.error.exception.BatchSizeExceededException;
+import com.market.server.error.exception.InvalidCursorException;
 import com.market.server.mapper.product.ProductMapper;
 import com.market.server.service.option.Impl.OptionServiceImpl;
 import com.market.server.service.product.ProductService;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
+import com.market.server.utils.CursorUtil;
 import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -22,6 +35,13 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class ProductServiceImpl implements ProductService{
 	
+	private static final List<String> SORT_STATUS = Arrays.asList("NEWEST", "OLDEST", "HIGHPRICE", "LOWPRICE", "HIGHVIEWCNT", "HIGHLIKECNT", "HIGHORDERCNT");
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE     = 100;
+	
+	@Value("${product.detail.batch.maxSize}")
+	private int detailBatchMaxSize;
+	
 	@Autowired
 	private ProductMapper productMapper;
 	
@@ -31,11 +51,26 @@ public class ProductServiceImpl implements ProductService{
 	@Autowired
 	private TradingAreaServiceImpl tradingAreaService;
 	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	@Autowired 
 	private ProductDivisionServiceImpl productDivisionService;
 	
 	@Autowired
-	private ProductDao productDao;
+	private ProductCntCounterServiceImpl productCntCounterService;
+	
+	@Autowired
+	private ProductDetailCacheServiceImpl productDetailCacheService;
+	
+	@Autowired
+	private ProductRankingServiceImpl productRankingService;
+	
+	@Autowired
+	private ProductSearchIndexServiceImpl productSearchIndexService;
+	
+	@Autowired
+	private ProductPriceServiceImpl productPriceService;
 	
 	
 	
@@ -43,8 +78,88 @@ public class ProductServiceImpl implements ProductService{
 	 * 본인이 등록한 상품을 조회한다.
 	 */
 	@Override
-	public List<ProductDTO> productInfo(Search search) {
-		return productMapper.productInfo(search);
+	public List<ProductCardDTO> productInfo(Search search) {
+		return productMapper.productCardInfo(search);
+	}
+	
+	/**
+	 * 상품을 keyset 방식으로 조회한다.
+	 * 이전 페이지 마지막 상품의 정렬값 + 상품코드를 cursor로 사용하므로 페이지 깊이와 관계없이 조회 비용이 같다.
+	 */
+	@Override
+	public CursorPage<ProductCardDTO> productInfoByCursor(Search search, String cursor, int pgSz) {
+		String sortStatus = SORT_STATUS.contains(search.getString("sortStatus")) ? search.getString("sortStatus") : "NEWEST";
+		int pageSize      = (pgSz > 0 && pgSz <= MAX_PAGE_SIZE) ? pgSz : DEFAULT_PAGE_SIZE;
+		
+		// 인기순 정렬은 Redis 랭킹에서 조회
+		String rankCntKey = ProductRankingServiceImpl.getRankCntKey(sortStatus);
+		if(rankCntKey != null && search.get("loginNo") == null) {
+			return productRankingService.getRankedProducts(rankCntKey, search.getString("categoryCd"), search.getString("divisionCd"),
+					                                       cursor, pageSize);
+		}
+		
+		search.add("sortStatus", sortStatus);
+		if(cursor != null && !cursor.isEmpty()) {
+			String[] cursorValues = CursorUtil.decode(cursor, 2);
+			search.add("cursorKey",    toCursorKey(sortStatus, cursorValues[0])); // 정렬값
+			search.add("cursorItemCd", cursorValues[1]);                          // 상품코드
+		}
+		search.add("cursorSize", pageSize + 1); // 다음 페이지 존재여부 확인을 위해 1건 더 조회
+		
+		List<ProductCardDTO> productList = productMapper.productCardInfo(search);
+		String nextCursor = null;
+		
+		if(productList.size() > pageSize) {
+			productList = new ArrayList<>(productList.subList(0, pageSize));
+			ProductCardDTO lastProduct = productList.get(pageSize - 1);
+			nextCursor = CursorUtil.encode(getSortKey(sortStatus, lastProduct), lastProduct.getItemCd());
+		}
+		
+		return new CursorPage<>(productList, nextCursor);
+	}
+	
+	/**
+	 * 키워드로 상품을 검색한다.(검색 인덱스 사용)
+	 */
+	@Override
+	public CursorPage<ProductCardDTO> productInfoByKeyword(Search search, String cursor, int pgSz) {
+		int pageSize = (pgSz > 0 && pgSz <= MAX_PAGE_SIZE) ? pgSz : DEFAULT_PAGE_SIZE;
+		
+		return productSearchIndexService.search(search.getString("keyword"), search.getString("categoryCd"),
+				                                search.getString("divisionCd"), cursor, pageSize);
+	}
+	
+	/**
+	 * 정렬조건에 해당하는 상품의 정렬값을 반환한다.
+	 */
+	private String getSortKey(String sortStatus, ProductCardDTO productDTO) {
+		switch (sortStatus) {
+		case "HIGHPRICE":
+		case "LOWPRICE":
+			return String.valueOf(productDTO.getItemPrice() == null ? 0 : productDTO.getItemPrice());
+		case "HIGHVIEWCNT":
+			return String.valueOf(productDTO.getViewCnt() == null ? 0 : productDTO.getViewCnt());
+		case "HIGHLIKECNT":
+			return String.valueOf(productDTO.getLikeCnt() == null ? 0 : productDTO.getLikeCnt());
+		case "HIGHORDERCNT":
+			return String.valueOf(productDTO.getOrderCnt() == null ? 0 : productDTO.getOrderCnt());
+		default: // NEWEST, OLDEST
+			return productDTO.getRegDttm();
+		}
+	}
+	
+	/**
+	 * cursor의 정렬값을 컬럼 타입에 맞게 변환한다.
+	 */
+	private Object toCursorKey(String sortStatus, String sortKey) {
+		if("NEWEST".equals(sortStatus) || "OLDEST".equals(sortStatus)) {
+			return sortKey;
+		}
+		try {
+			return Long.valueOf(sortKey);
+		}catch (NumberFormatException e) {
+			throw new InvalidCursorException("Invalid cursor sort key : " + sortKey);
+		}
 	}
 	
 	/**
@@ -52,21 +167,55 @@ public class ProductServiceImpl implements ProductService{
 	 */
 	@Override
 	public ProductDetailDTO productDetail(Search search) {
-		ProductDetailDTO productDetailDTO = new ProductDetailDTO();
+		String itemCd = search.getString("itemCd");
+		ProductDetailDTO productDetailDTO;
 		
-		productDetailDTO.setProductDTO(productMapper.productDetail(search));           // 상품 정보 set
-		productDetailDTO.setOptionList(optionService.getOption(search));               // 상품 옵션정보 set
-		productDetailDTO.setTradingAreaDTO(tradingAreaService.getTradingArea(search)); // 상품 거래정보 set
+		if(search.get("loginNo") == null) { // 상품 조회 시 캐시 사용
+			productDetailDTO = productDetailCacheService.get(itemCd);
+		}else { // 본인 상품 조회는 DB 조회
+			productDetailDTO = productDetailCacheService.load(search);
+		}
 		
 		//조회수 증가
-		String itemCd = search.getString("itemCd");
-		int viewCnt = productDao.getProductCntInfo(RedisKeyFactory.VIEW_CNT_KEY, itemCd);
-		productDao.addProductCntInfo(RedisKeyFactory.VIEW_CNT_KEY, itemCd, viewCnt + 1);
+		productCntCounterService.increment(RedisKeyFactory.VIEW_CNT_KEY, itemCd, 1);
 		
 		return productDetailDTO;
 	}
 	
 	
+	/**
+	 * 여러 상품의 상세 정보를 한번에 조회한다.
+	 * 요청 순서대로 반환하며, 존재하지 않는 상품은 제외한다.
+	 */
+	@Override
+	public List<ProductDetailDTO> productDetailList(List<String> itemCdList, boolean countView) {
+		if(itemCdList == null || itemCdList.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		Set<String> itemCds = new LinkedHashSet<>(itemCdList); // 중복 상품코드 제거
+		if(itemCds.size() > detailBatchMaxSize) {
+			throw new BatchSizeExceededException("Too many items! max : " + detailBatchMaxSize + ", request : " + itemCds.size());
+		}
+		
+		Map<String, ProductDetailDTO> detailMap = productDetailCacheService.getAll(itemCds);
+		List<ProductDetailDTO> productDetailList = new ArrayList<>();
+		
+		for(String itemCd : itemCds) {
+			ProductDetailDTO productDetailDTO = detailMap.get(itemCd);
+			if(productDetailDTO == null || productDetailDTO.getProductDTO() == null) {
+				continue;
+			}
+			productDetailList.add(productDetailDTO);
+			
+			if(countView) { //조회수 증가
+				productCntCounterService.increment(RedisKeyFactory.VIEW_CNT_KEY, itemCd, 1);
+			}
+		}
+		
+		return productDetailList;
+	}
+	
 	/**
 	 * 상품 정보를 등록한다.
 	 */
@@ -80,11 +229,13 @@ public class ProductServiceImpl implements ProductService{
 		}
 		
 		// 상품등록
+		int itemSeq = sequenceService.next(Sequence.PRODUCT); // 상품시퀀스 채번
+		String itemCd = ProductDTO.generateItemCd(itemSeq);
+		productDetailDTO.getProductDTO().setItemSeq(itemSeq);
+		productDetailDTO.getProductDTO().setItemCd(itemCd);
 		int result = productMapper.InsertProduct(productDetailDTO.getProductDTO());
 		
 		if(result == 1) { // 상품등록 성공인 경우
-			String itemCd = productMapper.findByItemCd(productDetailDTO.getProductDTO().getItemSeq()); // 방금 등록한 상품의 상품코드 Get
-			
 			
 			if(productDetailDTO.getOptionList() != null) { //상품옵션이 NULL이 아닌경우 상품옵션 등록진행 
 				// 상품코드 Set
@@ -116,6 +267,12 @@ public class ProductServiceImpl implements ProductService{
 				log.error("Insert Product TradingArea Error! {}", productDivisionDTO.get(0).getDirectYn());
 			    throw new RuntimeException("Insert Product TradingArea Error");
 			}
+			
+			productDetailCacheService.evictAfterCommit(itemCd); // 상품상세 캐시 삭제
+			productSearchIndexService.reindexAfterCommit(itemCd); // 검색 인덱스 반영
+			
+			ProductDTO productDTO = productDetailDTO.getProductDTO();
+			TransactionUtil.afterCommit(() -> productRankingService.addProduct(productDTO)); // 인기 랭킹 추가
 		}else { //상품등록 실패인 경우
 			log.error("Insert Product Error! {}", productDetailDTO.toString());
 		    throw new RuntimeException("Insert Product Error");
@@ -134,6 +291,9 @@ public class ProductServiceImpl implements ProductService{
 			throw new RuntimeException("Insert ERROR! 상품 정보를 확인해주세요.\n" + "opCategoryNm : " + productDetailDTO);
 		}
 		
+		// 수정 전 상품정보
+		ProductDTO beforeProductDTO = productDetailCacheService.get(productDetailDTO.getProductDTO().getItemCd()).getProductDTO();
+		
 		// 상품정보 수정
 		int result = productMapper.UpdateProduct(productDetailDTO.getProductDTO());
 		
@@ -164,6 +324,25 @@ public class ProductServiceImpl implements ProductService{
 			    throw new RuntimeException("Update Product TradingArea Error");
 			}
 			
+			productDetailCacheService.evictAfterCommit(productDetailDTO.getProductDTO().getItemCd()); // 상품상세 캐시 삭제
+			productSearchIndexService.reindexAfterCommit(productDetailDTO.getProductDTO().getItemCd()); // 검색 인덱스 반영
+			productPriceService.evictAfterCommit(productDetailDTO.getProductDTO().getItemCd()); // 가격 캐시 삭제
+			
+			// 인기 랭킹 변경 (카테고리, 전시여부가 변경될 수 있으므로 기존 랭킹에서 제거 후 추가)
+			ProductDTO afterProductDTO = productDetailDTO.getProductDTO();
+			if(beforeProductDTO != null) {
+				afterProductDTO.setDivisionCd(beforeProductDTO.getDivisionCd());
+				afterProductDTO.setViewCnt(beforeProductDTO.getViewCnt());
+				afterProductDTO.setLikeCnt(beforeProductDTO.getLikeCnt());
+				afterProductDTO.setOrderCnt(beforeProductDTO.getOrderCnt());
+				TransactionUtil.afterCommit(() -> {
+					productRankingService.removeProduct(beforeProductDTO);
+					if("Y".equals(afterProductDTO.getDispYn())) {
+						productRankingService.addProduct(afterProductDTO);
+					}
+				});
+			}
+			
 		}else { //상품정보 수정 실패인 경우
 			log.error("Insert Product Error! {}", productDetailDTO.toString());
 		    throw new RuntimeException("Insert Product Error");
@@ -192,6 +371,14 @@ public class ProductServiceImpl implements ProductService{
 			log.error("Delete Product Error! {}", search.get("itemCd"));
 		    throw new RuntimeException("Delete Product Error");
 		}
+		
+		ProductDTO productDTO = productDetailCacheService.get(search.getString("itemCd")).getProductDTO();
+		if(productDTO != null) {
+			TransactionUtil.afterCommit(() -> productRankingService.removeProduct(productDTO)); // 인기 랭킹 제거
+		}
+		productDetailCacheService.evictAfterCommit(search.getString("itemCd")); // 상품상세 캐시 삭제
+		productSearchIndexService.reindexAfterCommit(search.getString("itemCd")); // 검색 인덱스 제거
+		productPriceService.evictAfterCommit(search.getString("itemCd")); // 가격 캐시 삭제
 	}
 
 	/**
@@ -199,8 +386,7 @@ public class ProductServiceImpl implements ProductService{
 	 */
 	@Override
 	public void productLikeCnt(String itemCd) {
-		int likeCnt = productDao.getProductCntInfo(RedisKeyFactory.LIKE_CNT_KEY, itemCd);
-		productDao.addProductCntInfo(RedisKeyFactory.LIKE_CNT_KEY, itemCd, likeCnt + 1);
+		productCntCounterService.increment(RedisKeyFactory.LIKE_CNT_KEY, itemCd, 1);
 	}
 
 }
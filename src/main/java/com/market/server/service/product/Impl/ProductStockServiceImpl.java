@@ -0,0 +1,286 @@
+package com.market.server.service.product.Impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.StockDao;
+import com.market.server.dto.Search;
+import com.market.server.dto.option.OptionDTO;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.dto.product.ProductStockDTO;
+import com.market.server.error.exception.OutOfStockException;
+import com.market.server.mapper.option.OptionMapper;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.mapper.product.ProductStockMapper;
+import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 상품옵션별 재고 예약
+ *
+ * 주문 시 Redis에서 재고를 차감하고 주문별 예약을 만든다.
+ * - 확정 : 주문 저장이 커밋되면(OrderWriterServiceImpl) 예약을 판매로 확정한다.
+ * - 취소 : 주문 저장에 실패하면 재고를 되돌린다.
+ *          저장 여부를 알 수 없는 예약은 stock.reservation.ttl 이후 주문이 없으면 취소하고, 주문이 있으면 확정한다.
+ * - 환불 : 환불완료(OSC009) 시 확정된 예약이 있는 경우에만 판매된 재고를 되돌린다.(stock.confirmed.ttl 동안 유지)
+ * 확정된 판매수량은 Redis에 모아두었다가 주기적으로 DB(TBL_PRODUCT_STOCK.SOLD_QTY)에 반영한다.
+ * 반영할 때 snapshot 번호를 함께 저장하므로 반영 후 snapshot에서 제거하기 전에 종료되어도 다시 반영하지 않는다.
+ *
+ * Redis에 재고가 없으면 DB 재고 - DB 판매수량 - 예약수량 - DB 미반영 판매수량으로 적재한다.
+ * DB 반영 중 적재하면 반영된 판매수량이 두번 차감될 수 있으나 재고가 실제보다 적게 잡히는 방향이므로 초과 판매는 발생하지 않는다.
+ * 재고를 등록하지 않은 상품옵션은 재고 관리를 하지 않는다.
+ */
+@Service
+@Log4j2
+public class ProductStockServiceImpl {
+
+	@Autowired
+	private StockDao stockDao;
+
+	@Autowired
+	private ProductStockMapper productStockMapper;
+
+	@Autowired
+	private ProductMapper productMapper;
+
+	@Autowired
+	private OptionMapper optionMapper;
+
+	@Autowired
+	private OrderMapper orderMapper;
+
+	@Autowired
+	@Qualifier("batchSqlSessionTemplate")
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${stock.reservation.ttl}")
+	private long reservationTtl;
+
+	@Value("${stock.confirmed.ttl}")
+	private long confirmedTtl;
+
+	@Value("${stock.reservation.sweep.size}")
+	private int sweepSize;
+
+	@Value("${stock.unlimited.expire}")
+	private long unlimitedExpire;
+
+	@Value("${stock.reconcile.chunkSize}")
+	private int reconcileChunkSize;
+
+	/**
+	 * 주문수량만큼 재고를 예약한다. 재고 관리를 하지 않는 상품옵션은 예약하지 않는다.
+	 *
+	 * @param orderDTO
+	 * @throws OutOfStockException 재고가 부족한 경우
+	 */
+	public void reserve(OrderDTO orderDTO) {
+		reserve(orderDTO.getItemCd(), orderDTO.getOptionCd(), orderDTO.getOrderCnt(), orderDTO.getOrderCd());
+	}
+
+	/**
+	 * 저장이 커밋된 주문의 재고 예약을 판매로 확정한다. 이미 확정된 예약은 변경하지 않는다.
+	 *
+	 * @param orderCd
+	 * @return 확정여부(예약이 없는 경우 false, 재고 관리를 하지 않는 상품옵션 포함)
+	 */
+	public boolean confirm(String orderCd) {
+		boolean confirmed = stockDao.confirm(orderCd, confirmedTtl);
+		meterRegistry.counter("stock.confirm", "result", confirmed ? "confirmed" : "missing").increment();
+		return confirmed;
+	}
+
+	/**
+	 * 재고 예약을 취소한다.
+	 *
+	 * @param orderCd
+	 * @param reason  rollback, expired, refund
+	 * @return 취소여부(예약이 없는 경우 false)
+	 */
+	public boolean release(String orderCd, String reason) {
+		boolean released = stockDao.release(orderCd);
+		if(released) {
+			meterRegistry.counter("stock.release", "reason", reason).increment();
+			log.info("Stock Release! orderCd : {}, reason : {}", orderCd, reason);
+		}
+		return released;
+	}
+
+	/**
+	 * 환불된 주문의 재고를 되돌린다. 확정된 예약이 없으면(재고 관리를 하지 않는 상품옵션, 유지기간 경과) 변경하지 않는다.
+	 *
+	 * @param orderDTO
+	 */
+	public void restock(OrderDTO orderDTO) {
+		if(release(orderDTO.getOrderCd(), "refund")) {
+			return; // 확정 전 환불
+		}
+
+		long result = stockDao.restock(orderDTO.getOrderCd());
+		if(result == StockDao.NOT_LOADED) {
+			load(orderDTO.getItemCd(), orderDTO.getOptionCd());
+			result = stockDao.restock(orderDTO.getOrderCd());
+		}
+		meterRegistry.counter("stock.restock", "result", result == StockDao.RESERVED ? "restocked" : "not_confirmed").increment();
+	}
+
+	/**
+	 * 판매자가 상품옵션의 재고수량을 등록/변경한다.
+	 * 판매가능 재고는 변경 전후 재고수량의 차이만큼 증감한다.
+	 *
+	 * @param loginNo 판매자 로그인번호
+	 * @param productStockDTO
+	 */
+	@Transactional(rollbackFor = RuntimeException.class)
+	public void setStock(int loginNo, ProductStockDTO productStockDTO) {
+		String itemCd   = productStockDTO.getItemCd();
+		String optionCd = productStockDTO.getOptionCd();
+
+		if(productStockDTO.getStockQty() == null || productStockDTO.getStockQty() < 0) {
+			throw new RuntimeException("Stock ERROR! 재고수량을 확인해주세요.\n" + "stockQty : " + productStockDTO.getStockQty());
+		}
+
+		// 본인 상품의 옵션인지 확인
+		Search search = new Search("itemCd", itemCd);
+		search.add("loginNo", loginNo);
+		boolean hasOption = productMapper.productDetail(search) != null &&
+				optionMapper.getOption(new Search("itemCd", itemCd)).stream().map(OptionDTO::getOptionCd).anyMatch(optionCd::equals);
+		if(!hasOption) {
+			log.error("Stock ERROR! itemCd : {}, optionCd : {}, loginNo : {}", itemCd, optionCd, loginNo);
+			throw new RuntimeException("Stock ERROR! 상품코드, 옵션코드를 확인해주세요.\n" + "itemCd : " + itemCd + ", optionCd : " + optionCd);
+		}
+
+		ProductStockDTO before = productStockMapper.getStockForUpdate(itemCd, optionCd);
+		productStockMapper.mergeStock(productStockDTO);
+
+		long delta = productStockDTO.getStockQty() - (before == null ? 0 : before.getStockQty());
+		TransactionUtil.afterCommit(() -> stockDao.adjust(RedisKeyFactory.generateSku(itemCd, optionCd), delta));
+	}
+
+	/**
+	 * 만료된 재고 예약을 정리한다.
+	 * 저장 대기시간 초과 이후 커밋되었으나 확정하지 못한 주문은 확정하고, 저장되지 않은 주문은 예약을 취소한다.
+	 */
+	@Scheduled(fixedDelayString = "${stock.reservation.sweep.interval}")
+	public void releaseExpiredReservations() {
+		try {
+			Set<String> orderCds;
+			do {
+				orderCds = stockDao.getExpiredReservations(System.currentTimeMillis(), sweepSize);
+				for(String orderCd : orderCds) {
+					if(orderMapper.getOrderInfo(orderCd) != null) {
+						confirm(orderCd);
+					}else {
+						release(orderCd, "expired");
+					}
+				}
+			}while(orderCds.size() >= sweepSize);
+		}catch (Exception e) {
+			log.error("Stock Reservation Sweep ERROR!", e);
+		}
+	}
+
+	/**
+	 * DB 미반영 판매수량을 JDBC batch로 DB에 반영한다.(chunk 단위 commit, 이미 반영한 snapshot의 상품옵션은 제외)
+	 */
+	@Scheduled(fixedDelayString = "${stock.reconcile.interval}")
+	public void reconcile() {
+		long startTime = System.nanoTime();
+		int skuCnt = 0;
+
+		try {
+			Map<String, Long> soldMap = stockDao.takeSoldSnapshot();
+			if(soldMap.isEmpty()) {
+				stockDao.delSoldSnapshot();
+				return;
+			}
+
+			long snapshotId = stockDao.getSoldSnapshotId();
+			List<Map.Entry<String, Long>> chunk = new ArrayList<>(reconcileChunkSize);
+			for(Map.Entry<String, Long> entry : soldMap.entrySet()) {
+				chunk.add(entry);
+				if(chunk.size() >= reconcileChunkSize) {
+					skuCnt += addSoldQty(chunk, snapshotId);
+					chunk.clear();
+				}
+			}
+			if(!chunk.isEmpty()) {
+				skuCnt += addSoldQty(chunk, snapshotId);
+			}
+			stockDao.delSoldSnapshot();
+		}catch (Exception e) {
+			log.error("Stock Reconcile ERROR! skus : {}", skuCnt, e);
+		}finally {
+			meterRegistry.timer("stock.reconcile").record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+			meterRegistry.counter("stock.reconcile.skus").increment(skuCnt);
+		}
+	}
+
+	private int addSoldQty(List<Map.Entry<String, Long>> chunk, long snapshotId) {
+		transactionTemplate.execute(status -> {
+			ProductStockMapper batchMapper = batchSqlSessionTemplate.getMapper(ProductStockMapper.class);
+			for(Map.Entry<String, Long> entry : chunk) {
+				int index = entry.getKey().indexOf(':');
+				batchMapper.addSoldQty(entry.getKey().substring(0, index), entry.getKey().substring(index + 1), entry.getValue(), snapshotId);
+			}
+			return batchSqlSessionTemplate.flushStatements();
+		});
+
+		List<String> skus = new ArrayList<>(chunk.size());
+		for(Map.Entry<String, Long> entry : chunk) {
+			skus.add(entry.getKey());
+		}
+		stockDao.delSoldSnapshotFields(skus); // 반영한 상품옵션은 snapshot에서 제거
+		return chunk.size();
+	}
+
+	private long reserve(String itemCd, String optionCd, int qty, String orderCd) {
+		String sku = RedisKeyFactory.generateSku(itemCd, optionCd);
+		long expireAt = System.currentTimeMillis() + reservationTtl;
+
+		long result = stockDao.reserve(sku, qty, orderCd, expireAt, reservationTtl * 2);
+		if(result == StockDao.NOT_LOADED) {
+			load(itemCd, optionCd);
+			result = stockDao.reserve(sku, qty, orderCd, expireAt, reservationTtl * 2);
+		}
+
+		if(result == StockDao.OUT_OF_STOCK) {
+			meterRegistry.counter("stock.reserve", "result", "out_of_stock").increment();
+			throw new OutOfStockException("재고가 부족합니다. itemCd : " + itemCd + ", optionCd : " + optionCd);
+		}
+		meterRegistry.counter("stock.reserve", "result", result == StockDao.RESERVED ? "reserved" : "no_limit").increment();
+		return result;
+	}
+
+	/**
+	 * DB 재고로 Redis 판매가능 재고를 적재한다.
+	 */
+	private void load(String itemCd, String optionCd) {
+		ProductStockDTO productStockDTO = productStockMapper.getStock(itemCd, optionCd);
+		Long availableQty = productStockDTO == null ? null : productStockDTO.getStockQty() - productStockDTO.getSoldQty();
+		stockDao.loadStock(RedisKeyFactory.generateSku(itemCd, optionCd), availableQty, unlimitedExpire);
+	}
+
+}
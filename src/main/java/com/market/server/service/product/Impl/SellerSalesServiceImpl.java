@@ -0,0 +1,292 @@
+package com.market.server.service.product.Impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.SellerSalesDao;
+import com.market.server.dto.Search;
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.dto.product.SellerSalesDTO;
+import com.market.server.mapper.product.SellerSalesMapper;
+import com.market.server.service.order.Impl.OrderEventServiceImpl;
+import com.market.server.service.order.Impl.OrderLogServiceImpl;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 판매자 상품별 일별 판매집계 (TBL_SELLER_SALES_DAILY)
+ *
+ * 주문상태 변경 이벤트를 일자/상품별로 묶어 누적한다.(배송완료(OSC007) : 판매, 환불완료(OSC009) : 환불)
+ * 판매통계 조회는 집계 테이블만 조회한다.
+ * 재집계(rebuild)는 일자별로 집계를 삭제 후 주문이력에서 다시 계산하므로 같은 기간을 여러 번 실행해도 결과가 같다.
+ * 매일 전일자를 재집계하여 누락된 이벤트를 보정한다.
+ * 전일자 이벤트가 판매집계/주문이력에 모두 반영된 뒤에만 재집계하고(재집계 이후 누적되면 중복 집계), 아니면 retryDelay(ms) 후 다시 확인한다.
+ * 반영 여부는 서버별 반영시각(이벤트 대기열과 주문이력 stream 지연시간 기준)을 fence.interval(ms)마다 Redis에 저장하여
+ * 모든 서버의 반영시각이 다음날 0시 이후인지로 확인한다.
+ * fence.staleAfter(ms) 동안 갱신되지 않은 서버(종료된 서버)는 제외한다.(종료된 서버의 메모리 대기열 이벤트는 재집계로 보정)
+ */
+@Service
+@Log4j2
+public class SellerSalesServiceImpl {
+
+	@Autowired
+	private SellerSalesMapper sellerSalesMapper;
+
+	@Autowired
+	private SellerSalesDao sellerSalesDao;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Lazy // 판매집계 이벤트 소비자 -> 판매집계 순환 참조
+	@Autowired
+	private OrderEventServiceImpl orderEventService;
+
+	@Autowired
+	private OrderLogServiceImpl orderLogService;
+
+	@Value("${seller.sales.maxDays}")
+	private int maxDays;
+
+	@Value("${seller.sales.rebuild.maxDays}")
+	private int rebuildMaxDays;
+
+	@Value("${seller.sales.rebuild.retryDelay}")
+	private long rebuildRetryDelay;
+
+	@Value("${seller.sales.rebuild.maxRetries}")
+	private int rebuildMaxRetries;
+
+	@Value("${seller.sales.fence.staleAfter}")
+	private long fenceStaleAfter;
+
+	private static final DateTimeFormatter DTTM_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private ScheduledExecutorService rebuildScheduler; // 공용 스케줄러 스레드를 점유하지 않도록 별도 스레드에서 재집계
+
+	@PostConstruct
+	public void init() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sellerSalesRebuild-");
+		threadFactory.setDaemon(true);
+		rebuildScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		rebuildScheduler.shutdownNow();
+	}
+
+	/**
+	 * 주문상태 변경 이벤트를 집계에 누적한다.
+	 *
+	 * @param eventList
+	 */
+	public void add(List<OrderStatusChangedEvent> eventList) {
+		Map<String, SellerSalesDTO> salesMap = new TreeMap<>(); // 일자, 상품코드 순으로 저장(lock 순서 고정)
+
+		for(OrderStatusChangedEvent event : eventList) {
+			boolean sale   = "OSC007".equals(event.getOrderStatusCd()); // 배송완료
+			boolean refund = "OSC009".equals(event.getOrderStatusCd()); // 환불완료
+			if((!sale && !refund) || event.getItemCd() == null || event.getChangedDttm() == null) {
+				continue;
+			}
+
+			String salesDate = event.getChangedDttm().substring(0, 10);
+			SellerSalesDTO sales = salesMap.computeIfAbsent(salesDate + "|" + event.getItemCd(),
+					key -> new SellerSalesDTO(salesDate, event.getItemCd()));
+
+			long qty = event.getOrderCnt() == null ? 0 : event.getOrderCnt();
+			long amt = event.getTotalPrice() == null ? 0 : event.getTotalPrice();
+			if(sale) {
+				sales.setSalesCnt(sales.getSalesCnt() + 1);
+				sales.setSalesQty(sales.getSalesQty() + qty);
+				sales.setSalesAmt(sales.getSalesAmt() + amt);
+			}else {
+				sales.setRefundCnt(sales.getRefundCnt() + 1);
+				sales.setRefundQty(sales.getRefundQty() + qty);
+				sales.setRefundAmt(sales.getRefundAmt() + amt);
+			}
+		}
+
+		if(!salesMap.isEmpty()) {
+			sellerSalesMapper.addSalesList(new ArrayList<>(salesMap.values()));
+		}
+	}
+
+	/**
+	 * 판매자 일별 판매집계를 조회한다.
+	 *
+	 * @param loginNo 판매자 로그인번호
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @param itemCd 상품코드(선택)
+	 * @return 집계일자 역순, 상품코드 순
+	 */
+	public List<SellerSalesDTO> getSalesList(int loginNo, String fromDate, String toDate, String itemCd) {
+		LocalDate from = toDate(fromDate);
+		LocalDate to   = toDate(toDate);
+		checkRange(from, to, maxDays);
+
+		Search search = new Search();
+		search.add("loginNo",  loginNo);
+		search.add("fromDate", from.toString());
+		search.add("toDate",   to.toString());
+		search.add("itemCd",   itemCd);
+		return sellerSalesMapper.getSalesList(search);
+	}
+
+	/**
+	 * 일별 판매집계를 상품별로 합산한다.
+	 *
+	 * @param salesList
+	 * @return 상품별 합계(집계일자 null)
+	 */
+	public List<SellerSalesDTO> sumByItem(List<SellerSalesDTO> salesList) {
+		Map<String, SellerSalesDTO> totalMap = new LinkedHashMap<>();
+		for(SellerSalesDTO sales : salesList) {
+			SellerSalesDTO total = totalMap.computeIfAbsent(sales.getItemCd(), itemCd -> {
+				SellerSalesDTO itemTotal = new SellerSalesDTO(null, itemCd);
+				itemTotal.setLoginNo(sales.getLoginNo());
+				return itemTotal;
+			});
+			total.add(sales);
+		}
+		return new ArrayList<>(totalMap.values());
+	}
+
+	/**
+	 * 기간 내 일별 판매집계를 주문이력에서 다시 계산한다.(일자별 트랜잭션)
+	 *
+	 * @param fromDate yyyy-MM-dd
+	 * @param toDate yyyy-MM-dd
+	 * @return 재집계 일수
+	 */
+	public int rebuild(String fromDate, String toDate) {
+		LocalDate from = toDate(fromDate);
+		LocalDate to   = toDate(toDate);
+		checkRange(from, to, rebuildMaxDays);
+
+		int days = 0;
+		for(LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			String salesDate = date.toString();
+			int rows = transactionTemplate.execute(status -> {
+				sellerSalesMapper.deleteSales(salesDate);
+				return sellerSalesMapper.rebuildSales(salesDate);
+			});
+			log.info("Seller Sales Rebuild! salesDate : {}, rows : {}", salesDate, rows);
+			days++;
+		}
+		return days;
+	}
+
+	/**
+	 * 전일자 판매집계를 다시 계산한다.(누락된 이벤트 보정)
+	 */
+	@Scheduled(cron = "0 10 5 * * *") // 매일 05:10
+	public void rebuildYesterday() {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		rebuildScheduler.execute(() -> rebuildWhenConsumed(yesterday, 0));
+	}
+
+	void rebuildWhenConsumed(LocalDate salesDate, int retries) {
+		if(!isConsumed(salesDate)) {
+			if(retries < rebuildMaxRetries) {
+				log.info("Seller Sales Rebuild Deferred! salesDate : {}, retries : {}", salesDate, retries);
+				rebuildScheduler.schedule(() -> rebuildWhenConsumed(salesDate, retries + 1), rebuildRetryDelay, TimeUnit.MILLISECONDS);
+			}else {
+				log.error("Seller Sales Rebuild SKIP! 반영되지 않은 이벤트가 남아있습니다. salesDate : {}", salesDate);
+			}
+			return;
+		}
+
+		try {
+			rebuild(salesDate.toString(), salesDate.toString());
+		}catch (Exception e) {
+			log.error("Seller Sales Rebuild ERROR! salesDate : {}", salesDate, e);
+		}
+	}
+
+	/**
+	 * 이 서버의 이벤트 반영시각을 Redis에 저장한다.
+	 */
+	@Scheduled(fixedDelayString = "${seller.sales.fence.interval}")
+	public void reportConsumed() {
+		try {
+			sellerSalesDao.setConsumedUntil(orderLogService.getConsumerName(), System.currentTimeMillis(), consumedUntil());
+		}catch (Exception e) {
+			log.error("Seller Sales Consumed Report ERROR!", e);
+		}
+	}
+
+	/**
+	 * 집계일자의 이벤트가 모든 서버에서 판매집계와 주문이력(재집계 원본)에 반영되었는지 확인한다.
+	 *
+	 * @param salesDate
+	 * @return 갱신중인 모든 서버의 반영시각이 다음날 0시 이후인 경우 true
+	 */
+	boolean isConsumed(LocalDate salesDate) {
+		long now = System.currentTimeMillis();
+		sellerSalesDao.setConsumedUntil(orderLogService.getConsumerName(), now, consumedUntil());
+
+		Long consumedUntil = sellerSalesDao.getConsumedUntil(now - fenceStaleAfter);
+		return consumedUntil != null && consumedUntil >= toMillis(salesDate.plusDays(1).atStartOfDay());
+	}
+
+	/**
+	 * 이 서버의 이벤트 반영시각을 계산한다.
+	 *
+	 * @return 판매집계/주문이력 소비자에 남은 가장 오래된 이벤트의 변경일시와 주문이력 stream 저장시각 중 이른 시각(ms)
+	 */
+	long consumedUntil() {
+		long consumedUntil = System.currentTimeMillis() - orderLogService.getLag();
+		for(String consumerName : new String[] {"sellerSales", "orderLog"}) {
+			String pendingSince = orderEventService.getPendingSince(consumerName);
+			if(pendingSince != null) {
+				consumedUntil = Math.min(consumedUntil, toMillis(LocalDateTime.parse(pendingSince, DTTM_FORMAT)));
+			}
+		}
+		return consumedUntil;
+	}
+
+	private static long toMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private void checkRange(LocalDate from, LocalDate to, int limitDays) {
+		if(from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= limitDays) {
+			throw new RuntimeException("Sales ERROR! 조회기간은 " + limitDays + "일 이내입니다.\n" + "fromDate : " + from + ", toDate : " + to);
+		}
+	}
+
+	private LocalDate toDate(String date) {
+		try {
+			return LocalDate.parse(date);
+		}catch (DateTimeParseException | NullPointerException e) {
+			throw new RuntimeException("Sales ERROR! yyyy-MM-dd 형식으로 입력해주세요.\n" + "date : " + date);
+		}
+	}
+
+}
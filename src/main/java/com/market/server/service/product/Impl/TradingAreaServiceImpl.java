@@ -1,5 +1,7 @@
 package com.market.server.service.product.Impl;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +27,14 @@ public class TradingAreaServiceImpl implements TradingAreaService{
 		return tradingAreaMapper.getTradingArea(search);
 	}
 	
+	/**
+	 * 여러 상품의 거래가능 지역을 한번에 조회한다.(itemCdList)
+	 */
+	@Override
+	public List<TradingAreaDTO> getTradingAreaList(Search search) {
+		return tradingAreaMapper.getTradingAreaList(search);
+	}
+	
 	/**
 	 * 상품 거래지역 정보를 등록한다.(상품구분코드 중 직거래가능한 경우만 해당) 
 	 */
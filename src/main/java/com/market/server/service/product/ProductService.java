@@ -2,16 +2,23 @@ package com.market.server.service.product;
 
 import java.util.List;
 
+import com.market.server.dto.CursorPage;
 import com.market.server.dto.Search;
-import com.market.server.dto.product.ProductDTO;
+import com.market.server.dto.product.ProductCardDTO;
 import com.market.server.dto.product.ProductDetailDTO;
 
 public interface ProductService {
 	
-	public List<ProductDTO> productInfo(Search search);
+	public List<ProductCardDTO> productInfo(Search search);
+	
+	public CursorPage<ProductCardDTO> productInfoByCursor(Search search, String cursor, int pgSz);
+	
+	public CursorPage<ProductCardDTO> productInfoByKeyword(Search search, String cursor, int pgSz);
 	
 	public ProductDetailDTO productDetail(Search search);
 	
+	public List<ProductDetailDTO> productDetailList(List<String> itemCdList, boolean countView);
+	
 	public void insertProduct(ProductDetailDTO productDetailDTO);
 	
 	public void updateProduct(ProductDetailDTO productDetailDTO);
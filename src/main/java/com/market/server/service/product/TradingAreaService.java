@@ -1,5 +1,7 @@
 package com.market.server.service.product;
 
+import java.util.List;
+
 import com.market.server.dto.Search;
 import com.market.server.dto.product.TradingAreaDTO;
 
@@ -7,6 +9,8 @@ public interface TradingAreaService {
 	
 	public TradingAreaDTO getTradingArea(Search search);
 	
+	public List<TradingAreaDTO> getTradingAreaList(Search search);
+	
 	public int insertTradingArea(TradingAreaDTO tradingAreaDTO);
 	
 	public int UpdateTradingArea(TradingAreaDTO tradingAreaDTO);
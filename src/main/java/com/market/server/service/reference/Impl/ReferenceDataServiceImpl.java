@@ -0,0 +1,258 @@
+package com.market.server.service.reference.Impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dto.Search;
+import com.market.server.dto.option.OptionCategoryDTO;
+import com.market.server.dto.product.ProductCategoryDTO;
+import com.market.server.dto.product.ProductDivisionDTO;
+import com.market.server.dto.reference.ReferenceDataSnapshot;
+import com.market.server.mapper.option.OptionCategoryMapper;
+import com.market.server.mapper.product.ProductCategoryMapper;
+import com.market.server.mapper.product.ProductDivisionMapper;
+import com.market.server.utils.RedisKeyFactory;
+import com.market.server.utils.TransactionUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 기준정보(상품카테고리, 상품구분, 옵션카테고리) 조회
+ *
+ * 자주 변경되지 않는 기준정보를 서버 메모리의 snapshot에서 조회한다.
+ * 관리자가 기준정보를 변경하면 Redis의 버전을 증가시키고 새 snapshot으로 교체한 뒤,
+ * 기준정보 변경 채널(REFERENCE:CHANGE)로 다른 서버에 새 버전을 알린다.
+ * 조회한 DTO는 snapshot이 공유하므로 수정하지 않는다.
+ */
+@Service
+@Log4j2
+public class ReferenceDataServiceImpl implements MessageListener {
+
+	@Autowired
+	private ProductCategoryMapper productCategoryMapper;
+
+	@Autowired
+	private ProductDivisionMapper productDivisionMapper;
+
+	@Autowired
+	private OptionCategoryMapper optionCategoryMapper;
+
+	@Autowired
+	private StringRedisTemplate stringRedisTemplate;
+
+	@Autowired
+	@Qualifier("redisMessageListenerContainer")
+	private RedisMessageListenerContainer redisMessageListenerContainer;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final AtomicReference<ReferenceDataSnapshot> snapshotRef = new AtomicReference<>(ReferenceDataSnapshot.empty());
+
+	private Counter reloadCounter;
+
+	@PostConstruct
+	public void init() {
+		reloadCounter = meterRegistry.counter("reference.reload");
+		meterRegistry.gauge("reference.version", snapshotRef, ref -> ref.get().getVersion());
+
+		try {
+			reload(getGlobalVersion());
+		}catch (Exception e) {
+			log.error("Reference Data Load ERROR! load on first read", e);
+		}
+
+		// 기준정보 변경 채널 구독
+		redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyFactory.REFERENCE_CHANGE_TOPIC));
+	}
+
+	/**
+	 * 현재 snapshot을 반환한다. 적재되지 않은 경우 DB에서 적재한다.
+	 *
+	 * @return
+	 */
+	public ReferenceDataSnapshot getSnapshot() {
+		ReferenceDataSnapshot snapshot = snapshotRef.get();
+		if(snapshot.getVersion() < 0) {
+			reload(0);
+			snapshot = snapshotRef.get();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * DB에서 기준정보를 조회하여 snapshot을 교체한다.
+	 * 현재 snapshot보다 이전 버전으로는 교체하지 않는다.
+	 *
+	 * @param version
+	 */
+	public synchronized void reload(long version) {
+		ReferenceDataSnapshot newSnapshot = new ReferenceDataSnapshot(version,
+				productCategoryMapper.getCategory(new Search()),
+				productDivisionMapper.getDivision(new Search()),
+				optionCategoryMapper.getOpCategory(new Search()));
+
+		ReferenceDataSnapshot current = snapshotRef.accumulateAndGet(newSnapshot,
+				(before, after) -> after.getVersion() >= before.getVersion() ? after : before);
+		reloadCounter.increment();
+
+		log.info("Reference Data Reload! version : {}, categories : {}, divisions : {}, opCategories : {}", current.getVersion(),
+				current.getCategoryList().size(), current.getDivisionList().size(), current.getOpCategoryList().size());
+	}
+
+	/**
+	 * 트랜잭션 커밋 이후 기준정보 버전을 증가시키고 snapshot을 교체한 뒤 다른 서버에 알린다.
+	 * 트랜잭션이 없으면 즉시 실행한다.
+	 */
+	public void reloadAfterCommit() {
+		TransactionUtil.afterCommit(() -> {
+			long version;
+			try {
+				version = stringRedisTemplate.opsForValue().increment(RedisKeyFactory.REFERENCE_VERSION_KEY);
+			}catch (Exception e) {
+				// Redis 장애 시 현재 서버만 교체하고, 다른 서버는 주기 적재에서 반영한다.
+				log.error("Reference Version Increment ERROR!", e);
+				reload(snapshotRef.get().getVersion() + 1);
+				return;
+			}
+			reload(version);
+			stringRedisTemplate.convertAndSend(RedisKeyFactory.REFERENCE_CHANGE_TOPIC, String.valueOf(version));
+		});
+	}
+
+	/**
+	 * 다른 서버에서 기준정보가 변경된 경우 새 버전으로 다시 적재한다.
+	 */
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		try {
+			long version = Long.parseLong(body);
+			if(version > snapshotRef.get().getVersion()) {
+				reload(version);
+			}
+		}catch (Exception e) {
+			log.error("Reference Data Reload ERROR! message : {}", body, e);
+		}
+	}
+
+	/**
+	 * 변경 알림이 누락되거나 DB에서 직접 변경된 경우를 위해 주기적으로 다시 적재한다.
+	 */
+	@Scheduled(fixedDelayString = "${reference.reload.interval}", initialDelayString = "${reference.reload.interval}")
+	public void reloadBySchedule() {
+		try {
+			reload(Math.max(getGlobalVersion(), snapshotRef.get().getVersion()));
+		}catch (Exception e) {
+			log.error("Reference Data Reload ERROR!", e);
+		}
+	}
+
+	private long getGlobalVersion() {
+		try {
+			String version = stringRedisTemplate.opsForValue().get(RedisKeyFactory.REFERENCE_VERSION_KEY);
+			return version == null ? 0 : Long.parseLong(version);
+		}catch (Exception e) {
+			log.error("Reference Version Get ERROR!", e);
+			return 0;
+		}
+	}
+
+	// -------------- 상품카테고리 --------------
+
+	/**
+	 * 상품 카테고리를 조회한다.(delYn, dispYn, categoryCd, 페이징 조건)
+	 */
+	public List<ProductCategoryDTO> getCategory(Search search) {
+		return filter(getSnapshot().getCategoryList(), search, category ->
+				matches(search, "delYn", category.getDelYn()) && matches(search, "dispYn", category.getDispYn()) &&
+				matches(search, "categoryCd", category.getCategoryCd()));
+	}
+
+	public boolean isDuplicatedCategoryNm(String categoryNm) {
+		return getSnapshot().getCategoryNms().contains(categoryNm);
+	}
+
+	// -------------- 상품구분 --------------
+
+	/**
+	 * 상품 구분정보를 조회한다.(delYn, dispYn, directYn, divisionCd, 페이징 조건)
+	 */
+	public List<ProductDivisionDTO> getDivision(Search search) {
+		return filter(getSnapshot().getDivisionList(), search, division ->
+				matches(search, "delYn", division.getDelYn()) && matches(search, "dispYn", division.getDispYn()) &&
+				matches(search, "directYn", division.getDirectYn()) && matches(search, "divisionCd", division.getDivisionCd()));
+	}
+
+	/**
+	 * 상품구분코드로 상품 구분정보를 조회한다.
+	 *
+	 * @param divisionCd
+	 * @return 없는 경우 null
+	 */
+	public ProductDivisionDTO getDivision(String divisionCd) {
+		return divisionCd == null ? null : getSnapshot().getDivisionMap().get(divisionCd);
+	}
+
+	public boolean isDuplicatedDivisionNm(String divisionNm) {
+		return getSnapshot().getDivisionNms().contains(divisionNm);
+	}
+
+	// -------------- 옵션카테고리 --------------
+
+	/**
+	 * 옵션 카테고리를 조회한다.(delYn, dispYn, opCategoryCd, 페이징 조건)
+	 */
+	public List<OptionCategoryDTO> getOpCategory(Search search) {
+		return filter(getSnapshot().getOpCategoryList(), search, opCategory ->
+				matches(search, "delYn", opCategory.getDelYn()) && matches(search, "dispYn", opCategory.getDispYn()) &&
+				matches(search, "opCategoryCd", opCategory.getOpCategoryCd()));
+	}
+
+	public boolean isDuplicatedOpCategoryNm(String opCategoryNm) {
+		return getSnapshot().getOpCategoryNms().contains(opCategoryNm);
+	}
+
+	/**
+	 * 조건에 맞는 목록을 조회한다. strtRow, endRow가 있으면 해당 범위만 반환한다.
+	 */
+	private <T> List<T> filter(List<T> list, Search search, Predicate<T> predicate) {
+		List<T> result = list.stream().filter(predicate).collect(Collectors.toList());
+
+		Object strtRow = search.get("strtRow");
+		Object endRow  = search.get("endRow");
+		if(strtRow instanceof Integer && endRow instanceof Integer) {
+			int fromIndex = Math.min((Integer) strtRow, result.size());
+			int toIndex   = Math.min(fromIndex + (Integer) endRow, result.size());
+			result = new ArrayList<>(result.subList(fromIndex, toIndex));
+		}
+		return result;
+	}
+
+	/**
+	 * 조건이 없거나 조건과 값이 같은 경우 true
+	 */
+	private static boolean matches(Search search, String key, String value) {
+		Object condition = search.get(key);
+		return condition == null || "".equals(condition) || condition.equals(value);
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.market.server.service.sequence.Impl;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.mapper.sequence.SequenceMapper;
+import com.market.server.service.sequence.Sequence;
+import com.market.server.service.sequence.SequenceBlockSource;
+
+/**
+ * 시퀀스 테이블(TBL_SEQUENCE)로 시퀀스 구간을 할당한다.(sequence.source=db)
+ * 
+ * 호출한 트랜잭션과 별도의 트랜잭션에서 할당하고 바로 커밋하여 시퀀스 row의 lock을 짧게 유지한다.
+ */
+@Service
+@ConditionalOnProperty(name = "sequence.source", havingValue = "db")
+public class DbSequenceBlockSourceImpl implements SequenceBlockSource {
+
+	@Autowired
+	private SequenceMapper sequenceMapper;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+	
+	@Override
+	public long allocate(Sequence sequence, long size) {
+		return transactionTemplate.execute(status -> {
+			if(sequenceMapper.allocateSequence(sequence.name(), size) == 0) {
+				// 시퀀스가 없는 경우 테이블의 최대값으로 생성 후 할당
+				sequenceMapper.initSequence(sequence.name(), sequence.getTableNm(), sequence.getColumnNm());
+				sequenceMapper.allocateSequence(sequence.name(), size);
+			}
+			return sequenceMapper.getLastInsertId();
+		});
+	}
+
+}
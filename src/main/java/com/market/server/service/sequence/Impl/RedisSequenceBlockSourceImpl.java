@@ -0,0 +1,48 @@
+package com.market.server.service.sequence.Impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.market.server.dao.SequenceDao;
+import com.market.server.mapper.sequence.SequenceMapper;
+import com.market.server.service.sequence.Sequence;
+import com.market.server.service.sequence.SequenceBlockSource;
+import com.market.server.utils.RedisKeyFactory;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Redis INCRBY로 시퀀스 구간을 할당한다.(기본값)
+ * 
+ * 시퀀스 키가 없으면 테이블의 최대값으로 생성한 뒤 할당한다.
+ * Redis 데이터가 유실된 경우에도 테이블 최대값부터 이어서 채번되지만,
+ * 다른 서버가 이미 할당받아 아직 insert하지 않은 구간과는 겹칠 수 있으므로 Redis는 영속화(AOF)하여 사용한다.
+ */
+@Service
+@ConditionalOnProperty(name = "sequence.source", havingValue = "redis", matchIfMissing = true)
+@Log4j2
+public class RedisSequenceBlockSourceImpl implements SequenceBlockSource {
+
+	@Autowired
+	private SequenceDao sequenceDao;
+	
+	@Autowired
+	private SequenceMapper sequenceMapper;
+	
+	@Override
+	public long allocate(Sequence sequence, long size) {
+		String key = RedisKeyFactory.generateSequenceKey(sequence.name());
+		
+		long max = sequenceDao.incrementSequence(key, size);
+		if(max < 0) {
+			long maxSeq = sequenceMapper.getMaxSeq(sequence.getTableNm(), sequence.getColumnNm());
+			log.info("Sequence Init! sequence : {}, value : {}", sequence, maxSeq);
+			
+			sequenceDao.initSequence(key, maxSeq);
+			max = sequenceDao.incrementSequence(key, size);
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.market.server.service.sequence.Impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.market.server.service.sequence.Sequence;
+import com.market.server.service.sequence.SequenceBlockSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 시퀀스 채번
+ * 
+ * 시퀀스 구간(sequence.blockSize)을 미리 할당받아 서버 메모리에서 lock 없이(CAS) 채번한다.
+ * 구간을 모두 사용한 경우에만 SequenceBlockSource에서 다음 구간을 할당받는다.
+ * 서버가 재시작되면 사용하지 않은 구간은 버려지므로 시퀀스는 증가하지만 연속되지 않을 수 있다.
+ */
+@Service
+@Log4j2
+public class SequenceServiceImpl {
+
+	@Autowired
+	private SequenceBlockSource sequenceBlockSource;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@Value("${sequence.blockSize}")
+	private int blockSize;
+	
+	private final Map<Sequence, AtomicReference<Block>> blockMap = new EnumMap<>(Sequence.class);
+	
+	private final Map<Sequence, Timer> allocateTimerMap = new EnumMap<>(Sequence.class);
+	
+	@PostConstruct
+	public void init() {
+		for(Sequence sequence : Sequence.values()) {
+			blockMap.put(sequence, new AtomicReference<>(Block.EMPTY));
+			allocateTimerMap.put(sequence, meterRegistry.timer("sequence.allocate", "sequence", sequence.name()));
+		}
+	}
+	
+	/**
+	 * 시퀀스를 채번한다.
+	 * 
+	 * @param sequence
+	 * @return
+	 */
+	public int next(Sequence sequence) {
+		return nextRange(sequence, 1);
+	}
+	
+	/**
+	 * 연속된 count개의 시퀀스를 채번한다.(목록 insert 시 첫번째 값부터 1씩 증가시켜 사용)
+	 * 
+	 * @param sequence
+	 * @param count
+	 * @return 첫번째 시퀀스
+	 */
+	public int nextRange(Sequence sequence, int count) {
+		if(count < 1) {
+			throw new IllegalArgumentException("count must be greater than 0");
+		}
+		
+		AtomicReference<Block> blockRef = blockMap.get(sequence);
+		while(true) {
+			Block block = blockRef.get();
+			if(block.remaining() >= count) {
+				if(blockRef.compareAndSet(block, new Block(block.next + count, block.max))) {
+					return Math.toIntExact(block.next);
+				}
+				continue;
+			}
+			
+			synchronized (blockRef) {
+				// 다른 스레드가 이미 새 구간을 할당받은 경우 다시 채번
+				if(blockRef.get() == block) {
+					long size = Math.max(blockSize, count);
+					long max  = allocate(sequence, size);
+					blockRef.set(new Block(max - size + 1, max));
+				}
+			}
+		}
+	}
+	
+	private long allocate(Sequence sequence, long size) {
+		try {
+			return allocateTimerMap.get(sequence).recordCallable(() -> sequenceBlockSource.allocate(sequence, size));
+		}catch (Exception e) {
+			log.error("Sequence Allocate ERROR! sequence : {}", sequence, e);
+			throw new RuntimeException("Sequence Allocate ERROR! 시퀀스 저장소를 확인해주세요.\n" + "sequence : " + sequence);
+		}
+	}
+	
+	/**
+	 * 할당받은 시퀀스 구간(next ~ max)
+	 */
+	private static final class Block {
+		
+		private static final Block EMPTY = new Block(1, 0);
+		
+		private final long next;
+		private final long max;
+		
+		private Block(long next, long max) {
+			this.next = next;
+			this.max  = max;
+		}
+		
+		private long remaining() {
+			return max - next + 1;
+		}
+	}
+
+}
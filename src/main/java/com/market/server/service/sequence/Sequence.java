@@ -0,0 +1,37 @@
+package com.market.server.service.sequence;
+
+/**
+ * 채번 대상 시퀀스
+ * 최초 할당 시 테이블의 시퀀스 컬럼 최대값부터 이어서 채번한다.
+ * 구간 채번으로 건너뛰는 시퀀스가 있으므로 시퀀스로 만드는 코드(OSC001 등)는 자리수를 넘으면 자르지 않고 늘린다.
+ */
+public enum Sequence {
+
+	PRODUCT("TBL_PRODUCT", "ITEM_SEQ"),                         // 상품
+	PRODUCT_CATEGORY("TBL_PRODUCT_CATEGORY", "CATEGORY_SEQ"),   // 상품카테고리
+	PRODUCT_DIVISION("TBL_PRODUCT_DIVISION", "DIVISION_SEQ"),   // 상품구분
+	OPTION("TBL_OPTION", "OPTION_SEQ"),                         // 옵션
+	OPTION_CATEGORY("TBL_OPTION_CATEGORY", "OP_CATEGORY_SEQ"),  // 옵션카테고리
+	ORDER("TBL_ORDER_INFO", "ORDER_SEQ"),                       // 주문
+	ORDER_STATUS("TBL_ORDER_STATUS", "ORDER_STATUS_SEQ"),       // 주문상태
+	CART("TBL_RESERVATION_INFO", "LIKE_SEQ"),                   // 장바구니
+	USER("TBL_USER_INFO", "LOGIN_NO"),                          // 회원
+	ADMIN("TBL_ADMIN", "ADMIN_NO");                             // 관리자
+
+	private final String tableNm;
+	private final String columnNm;
+
+	Sequence(String tableNm, String columnNm) {
+		this.tableNm  = tableNm;
+		this.columnNm = columnNm;
+	}
+
+	public String getTableNm() {
+		return tableNm;
+	}
+
+	public String getColumnNm() {
+		return columnNm;
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.market.server.service.sequence;
+
+/**
+ * 시퀀스 구간 할당(sequence.source : redis, db)
+ */
+public interface SequenceBlockSource {
+
+	/**
+	 * size만큼의 시퀀스 구간을 예약한다.
+	 * 
+	 * @param sequence
+	 * @param size
+	 * @return 예약한 구간의 마지막 값 (구간 : 반환값 - size + 1 ~ 반환값)
+	 */
+	public long allocate(Sequence sequence, long size);
+
+}
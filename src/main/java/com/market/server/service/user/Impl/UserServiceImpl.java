@@ -6,6 +6,8 @@ import org.springframework.stereotype.Service;
 import com.market.server.dto.user.UserDTO;
 import com.market.server.error.exception.DuplicateIdException;
 import com.market.server.mapper.user.UserMapper;
+import com.market.server.service.sequence.Impl.SequenceServiceImpl;
+import com.market.server.service.sequence.Sequence;
 import com.market.server.service.user.UserService;
 import com.market.server.utils.SHA256Util;
 
@@ -18,6 +20,9 @@ public class UserServiceImpl implements UserService{
 	@Autowired
 	private final UserMapper userMapper;
 	
+	@Autowired
+	private SequenceServiceImpl sequenceService;
+	
 	public UserServiceImpl(UserMapper userMapper) {
         this.userMapper = userMapper;
     }
@@ -59,6 +64,7 @@ public class UserServiceImpl implements UserService{
 		}
 		
 		userDTO.setLoginPw(SHA256Util.encryptSHA256(userDTO.getLoginPw())); //비밀번호 암호화
+		userDTO.setLoginNo(sequenceService.next(Sequence.USER)); // 회원번호 채번
 		return userMapper.insert(userDTO);
 	}
 
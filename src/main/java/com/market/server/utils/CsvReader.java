@@ -0,0 +1,73 @@
+package com.market.server.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV(RFC 4180) 레코드 단위 reader
+ * 큰따옴표로 감싼 값의 쉼표, 줄바꿈, 이스케이프("")를 처리하며 파일 전체를 메모리에 올리지 않는다.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+
+    public CsvReader(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    /**
+     * 다음 레코드를 읽는다.
+     *
+     * @return 컬럼 값 목록, 더 이상 레코드가 없으면 null
+     * @throws IOException
+     */
+    public List<String> readRecord() throws IOException {
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean inQuotes = false;
+      boolean read = false;
+
+      int c;
+      while((c = reader.read()) != -1) {
+        read = true;
+        if(inQuotes) {
+          if(c == '"') {
+            reader.mark(1);
+            if(reader.read() == '"') {
+              field.append('"'); // 이스케이프된 큰따옴표
+            }else {
+              reader.reset();
+              inQuotes = false;
+            }
+          }else {
+            field.append((char) c);
+          }
+        }else if(c == '"') {
+          inQuotes = true;
+        }else if(c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        }else if(c == '\n') {
+          fields.add(field.toString());
+          return fields;
+        }else if(c != '\r') {
+          field.append((char) c);
+        }
+      }
+
+      if(!read) {
+        return null;
+      }
+      fields.add(field.toString());
+      return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+
+}
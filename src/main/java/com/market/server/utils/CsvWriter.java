@@ -0,0 +1,62 @@
+package com.market.server.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV(RFC 4180) 레코드 단위 writer
+ * 쉼표, 큰따옴표, 줄바꿈이 포함된 값은 큰따옴표로 감싸고 큰따옴표는 ""로 이스케이프한다.
+ */
+public class CsvWriter implements Closeable {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+      this.writer = writer;
+    }
+
+    /**
+     * 레코드를 쓴다. null은 빈 값으로 쓴다.
+     *
+     * @param values 컬럼 값 목록
+     * @throws IOException
+     */
+    public void writeRecord(Object... values) throws IOException {
+      for(int i = 0; i < values.length; i++) {
+        if(i > 0) {
+          writer.write(',');
+        }
+        if(values[i] != null) {
+          writeField(String.valueOf(values[i]));
+        }
+      }
+      writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+      boolean quote = false;
+      for(int i = 0; i < value.length() && !quote; i++) {
+        char c = value.charAt(i);
+        quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+
+      if(!quote) {
+        writer.write(value);
+        return;
+      }
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    public void flush() throws IOException {
+      writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.market.server.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.market.server.error.exception.InvalidCursorException;
+
+/**
+ * keyset 페이징에 사용하는 cursor 생성/해석
+ * 마지막 row의 정렬값과 tie-breaker(코드)를 이어붙여 base64(url-safe)로 인코딩한다.
+ */
+public class CursorUtil {
+
+    private static final String DELIMITER = "|";
+
+    // 인스턴스화 방지
+    private CursorUtil() {}
+
+    /**
+     * cursor를 생성한다.
+     *
+     * @param values 정렬값, tie-breaker 순
+     * @return
+     */
+    public static String encode(String... values) {
+      String raw = String.join(DELIMITER, values);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * cursor를 해석한다.
+     *
+     * @param cursor
+     * @param size 값 개수
+     * @return
+     */
+    public static String[] decode(String cursor, int size) {
+      String[] values;
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        values = raw.split("\\" + DELIMITER, -1);
+      }catch (IllegalArgumentException e) {
+        throw new InvalidCursorException("Invalid cursor : " + cursor);
+      }
+
+      if(values.length != size) {
+        throw new InvalidCursorException("Invalid cursor : " + cursor);
+      }
+      return values;
+    }
+}
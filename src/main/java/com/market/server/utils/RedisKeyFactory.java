@@ -2,10 +2,31 @@ package com.market.server.utils;
 
 public class RedisKeyFactory {
 	
-	public static final String ORDER_KEY     = "ORDERS";
+	public static final String ORDER_KEY     = "ORDERS:STREAM"; // 주문이력 stream (shard별 ORDERS:STREAM:{n})
 	public static final String VIEW_CNT_KEY  = "VIEWCNT";
 	public static final String LIKE_CNT_KEY  = "LIKECNT";
 	public static final String ORDER_CNT_KEY = "ORDERCNT";
+	
+	public static final String PRODUCT_DETAIL_CACHE = "PRODUCTDETAIL";  // 상품상세 캐시명
+	public static final String PRODUCT_CHANGE_TOPIC = "PRODUCT:CHANGE"; // 상품변경 pub/sub 채널
+	public static final String RANK_KEY             = "RANK";           // 상품 랭킹
+	public static final String RANK_SCOPE_KEY       = "RANK_SCOPE";     // 상품별 랭킹 범위(카테고리코드:구분코드)
+	
+	public static final String REFERENCE_VERSION_KEY  = "REFERENCE:VERSION"; // 기준정보 버전
+	public static final String REFERENCE_CHANGE_TOPIC = "REFERENCE:CHANGE";  // 기준정보 변경 pub/sub 채널
+	
+	public static final String SEQUENCE_KEY = "SEQUENCE"; // 시퀀스
+	public static final String ORDER_CODE_NODE_KEY = "ORDERCODE:NODE"; // 주문코드 노드번호 lease
+	
+	public static final String STOCK_KEY                    = "STOCK:SKU";                // 상품옵션별 판매가능 재고
+	public static final String STOCK_RESERVED_KEY           = "STOCK:RESERVED";           // 상품옵션별 예약수량
+	public static final String STOCK_SOLD_KEY               = "STOCK:SOLD";               // 상품옵션별 DB 미반영 판매수량
+	public static final String STOCK_RESERVATION_KEY        = "STOCK:RESERVATION";        // 주문별 재고 예약
+	public static final String STOCK_RESERVATION_EXPIRY_KEY = "STOCK:RESERVATION_EXPIRY"; // 재고 예약 만료시각
+	
+	public static final String ORDER_IDEMPOTENCY_KEY = "ORDER:IDEMPOTENCY"; // 주문 요청 멱등키
+	
+	public static final String SELLER_SALES_CONSUMED_KEY = "SELLER_SALES:CONSUMED"; // 서버별 판매집계 이벤트 반영시각
   
     public enum Key {
       FCM_USER, FCM_USER_ERROR, CHAT_USER
@@ -39,5 +60,111 @@ public class RedisKeyFactory {
     public static String generateFcmUserErrorKey(String userId) {
       return generateKey(userId, Key.FCM_USER_ERROR);
     }
+    
+    /**
+     * 카테고리/구분코드별 상품 랭킹 키를 생성한다.
+     * 
+     * @param cntKey VIEW_CNT_KEY, LIKE_CNT_KEY, ORDER_CNT_KEY
+     * @param categoryCd
+     * @param divisionCd
+     * @return RANK:VIEWCNT:카테고리코드:구분코드
+     */
+    public static String generateRankKey(String cntKey, String categoryCd, String divisionCd) {
+      return generateRankKey(cntKey, generateRankScope(categoryCd, divisionCd));
+    }
+    
+    /**
+     * 랭킹 범위로 상품 랭킹 키를 생성한다.
+     * 
+     * @param cntKey
+     * @param rankScope generateRankScope
+     * @return RANK:VIEWCNT:카테고리코드:구분코드
+     */
+    public static String generateRankKey(String cntKey, String rankScope) {
+      return RANK_KEY + ":" + cntKey + ":" + rankScope;
+    }
+    
+    /**
+     * 랭킹 범위를 생성한다.
+     * 
+     * @param categoryCd
+     * @param divisionCd
+     * @return 카테고리코드:구분코드
+     */
+    public static String generateRankScope(String categoryCd, String divisionCd) {
+      return categoryCd + ":" + divisionCd;
+    }
+    
+    /**
+     * 시퀀스 키를 생성한다.
+     * 
+     * @param seqNm 시퀀스명
+     * @return SEQUENCE:시퀀스명
+     */
+    public static String generateSequenceKey(String seqNm) {
+      return SEQUENCE_KEY + ":" + seqNm;
+    }
+    
+    /**
+     * 주문코드 노드번호 lease 키를 생성한다.
+     * 
+     * @param nodeId 노드번호
+     * @return ORDERCODE:NODE:노드번호
+     */
+    public static String generateOrderCodeNodeKey(int nodeId) {
+      return ORDER_CODE_NODE_KEY + ":" + nodeId;
+    }
+    
+    /**
+     * 재고 관리 단위(상품코드:옵션코드)를 생성한다.
+     * 
+     * @param itemCd
+     * @param optionCd
+     * @return 상품코드:옵션코드
+     */
+    public static String generateSku(String itemCd, String optionCd) {
+      return itemCd + ":" + optionCd;
+    }
+    
+    /**
+     * 판매가능 재고 키를 생성한다.
+     * 
+     * @param sku 상품코드:옵션코드
+     * @return STOCK:SKU:상품코드:옵션코드
+     */
+    public static String generateStockKey(String sku) {
+      return STOCK_KEY + ":" + sku;
+    }
+    
+    /**
+     * 주문별 재고 예약 키를 생성한다.
+     * 
+     * @param orderCd
+     * @return STOCK:RESERVATION:주문코드
+     */
+    public static String generateStockReservationKey(String orderCd) {
+      return STOCK_RESERVATION_KEY + ":" + orderCd;
+    }
+    
+    /**
+     * 주문 요청 멱등키를 생성한다.
+     * 
+     * @param loginNo 로그인번호
+     * @param idempotencyKey 클라이언트 멱등키
+     * @return ORDER:IDEMPOTENCY:로그인번호:멱등키
+     */
+    public static String generateOrderIdempotencyKey(int loginNo, String idempotencyKey) {
+      return ORDER_IDEMPOTENCY_KEY + ":" + loginNo + ":" + idempotencyKey;
+    }
+    
+    /**
+     * 주문이력 stream 키를 생성한다.
+     * 
+     * @param shard
+     * @return ORDERS:STREAM:shard
+     */
+    public static String generateOrderStreamKey(int shard) {
+      return ORDER_KEY + ":" + shard;
+    }
   
 }
@@ -0,0 +1,49 @@
+package com.market.server.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtil {
+
+    // 인스턴스화 방지
+    private TransactionUtil() {}
+
+    /**
+     * 현재 트랜잭션이 커밋된 이후 실행한다.
+     * 트랜잭션이 없으면 즉시 실행한다.
+     *
+     * @param task
+     */
+    public static void afterCommit(Runnable task) {
+      if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+        task.run();
+        return;
+      }
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          task.run();
+        }
+      });
+    }
+
+    /**
+     * 현재 트랜잭션이 롤백된 이후 실행한다.
+     * 트랜잭션이 없으면 실행하지 않는다.
+     *
+     * @param task
+     */
+    public static void afterRollback(Runnable task) {
+      if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+        return;
+      }
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if(status == STATUS_ROLLED_BACK) {
+            task.run();
+          }
+        }
+      });
+    }
+}
@@ -0,0 +1,131 @@
+package com.market.server.dto.product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 상품 목록 응답 크기/직렬화 처리량(benchmark) (상품정보 전체 vs 목록 조회용 DTO)
+ */
+class ProductCardDTOTest {
+
+	private static final int PAGE_SIZE = 20;
+
+	private static final int ITERATIONS = 2000;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void cardHasOnlyListColumns() throws Exception {
+		JsonNode card = objectMapper.valueToTree(ProductCardDTO.of(product(1)));
+
+		assertEquals("IE0000001", card.get("itemCd").asText());
+		assertEquals("https://cdn.market.com/item/1/1.jpg", card.get("image1").asText());
+		assertFalse(card.has("description"));
+		assertFalse(card.has("image2"));
+	}
+
+	/**
+	 * 상품 목록 한 페이지(20건)의 JSON 크기를 비교한다.
+	 */
+	@Test
+	void cardPageIsSmaller() throws Exception {
+		int productBytes = objectMapper.writeValueAsBytes(productPage()).length;
+		int cardBytes    = objectMapper.writeValueAsBytes(cardPage()).length;
+
+		assertTrue(cardBytes * 4 < productBytes, "product : " + productBytes + ", card : " + cardBytes);
+	}
+
+	/**
+	 * 상품 목록 한 페이지(20건)의 직렬화 처리량을 비교한다.(성능 측정, 기본 테스트에서 제외)
+	 */
+	@Test
+	@Tag("benchmark")
+	void cardPageIsFasterToSerialize() throws Exception {
+		List<ProductDTO> productPage = productPage();
+		List<ProductCardDTO> cardPage = cardPage();
+
+		serialize(productPage, ITERATIONS); // warm up
+		serialize(cardPage, ITERATIONS);
+		double productPages = serialize(productPage, ITERATIONS);
+		double cardPages    = serialize(cardPage, ITERATIONS);
+
+		assertTrue(cardPages > productPages, "product : " + productPages + ", card : " + cardPages);
+	}
+
+	private static List<ProductDTO> productPage() {
+		List<ProductDTO> productPage = new ArrayList<>();
+		for(int i = 1; i <= PAGE_SIZE; i++) {
+			productPage.add(product(i));
+		}
+		return productPage;
+	}
+
+	private static List<ProductCardDTO> cardPage() {
+		List<ProductCardDTO> cardPage = new ArrayList<>();
+		for(ProductDTO productDTO : productPage()) {
+			cardPage.add(ProductCardDTO.of(productDTO));
+		}
+		return cardPage;
+	}
+
+	/**
+	 * @return 초당 직렬화 페이지 수
+	 */
+	private double serialize(Object page, int iterations) throws Exception {
+		long bytes = 0;
+		long startTime = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			bytes += objectMapper.writeValueAsBytes(page).length;
+		}
+		long elapsed = Math.max(1, System.nanoTime() - startTime);
+		assertTrue(bytes > 0);
+		return (double) iterations * TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	private static ProductDTO product(int itemSeq) {
+		ProductDTO productDTO = new ProductDTO();
+		productDTO.setItemSeq(itemSeq);
+		productDTO.setItemCd(ProductDTO.generateItemCd(itemSeq));
+		productDTO.setLoginNo(1);
+		productDTO.setItemNm("상품 " + itemSeq);
+		productDTO.setItemPrice(10000L + itemSeq);
+		productDTO.setViewCnt(100);
+		productDTO.setLikeCnt(10);
+		productDTO.setOrderCnt(1);
+		productDTO.setCategoryCd("PC0000001");
+		productDTO.setDispYn("Y");
+		productDTO.setDelYn("N");
+		productDTO.setImage1("https://cdn.market.com/item/" + itemSeq + "/1.jpg");
+		productDTO.setImage2("https://cdn.market.com/item/" + itemSeq + "/2.jpg");
+		productDTO.setImage3("https://cdn.market.com/item/" + itemSeq + "/3.jpg");
+		productDTO.setImage4("https://cdn.market.com/item/" + itemSeq + "/4.jpg");
+		productDTO.setDescription(description());
+		productDTO.setDeliveryPrice(3000L);
+		productDTO.setTitle("상품 제목 " + itemSeq);
+		productDTO.setDivisionCd("PD0000001");
+		productDTO.setStatus(ProductDTO.Status.DEFAULT);
+		productDTO.setRegDttm("2026-10-17 00:00:00");
+		productDTO.setUpdDttm("2026-10-17 00:00:00");
+		return productDTO;
+	}
+
+	private static String description() {
+		StringBuilder description = new StringBuilder();
+		for(int i = 0; i < 40; i++) {
+			description.append("상품 설명입니다. 소재, 크기, 배송 안내를 포함합니다. ");
+		}
+		return description.toString();
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.market.server.dao.OrderCodeNodeDao;
+
+/**
+ * 주문코드 생성, 노드번호 lease (Redis mock)
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderCodeGeneratorServiceImplTest {
+
+	private static final long LEASE  = 60000;
+	private static final long RENEW  = 20000;
+	private static final long MARGIN = 10000;
+
+	@Mock
+	private OrderCodeNodeDao orderCodeNodeDao;
+
+	@InjectMocks
+	private OrderCodeGeneratorServiceImpl orderCodeGeneratorService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "configNodeId", -1);
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "leaseMillis", LEASE);
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "renewMillis", RENEW);
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "marginMillis", MARGIN);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderCodeGeneratorService.destroy();
+	}
+
+	@Test
+	void generatesIncreasingOrderCodes() {
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.init();
+
+		String prev = orderCodeGeneratorService.nextOrderCd();
+		for(int i = 0; i < 10000; i++) {
+			String next = orderCodeGeneratorService.nextOrderCd();
+			assertEquals(21, next.length());
+			assertTrue(next.compareTo(prev) > 0);
+			prev = next;
+		}
+	}
+
+	@Test
+	void stopsGeneratingWhenLeaseIsAboutToExpire() {
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.init();
+
+		setRenewedAt(System.currentTimeMillis() - (LEASE - MARGIN) - 1);
+		assertThrows(IllegalStateException.class, orderCodeGeneratorService::nextId);
+	}
+
+	@Test
+	void failedRenewDoesNotExtendLease() {
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.init();
+		int nodeId = nodeId();
+
+		long renewedAt = System.currentTimeMillis() - (LEASE - MARGIN) - 1;
+		setRenewedAt(renewedAt);
+		when(orderCodeNodeDao.renew(anyInt(), anyString(), anyLong())).thenThrow(new RedisConnectionFailureException("down"));
+		orderCodeGeneratorService.renewNodeId();
+
+		assertEquals(nodeId, nodeId());
+		assertThrows(IllegalStateException.class, orderCodeGeneratorService::nextId);
+	}
+
+	@Test
+	void renewExtendsLease() {
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.init();
+
+		setRenewedAt(System.currentTimeMillis() - LEASE);
+		when(orderCodeNodeDao.renew(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.renewNodeId();
+
+		orderCodeGeneratorService.nextId();
+	}
+
+	@Test
+	void acquiresAnotherNodeWhenLeaseLost() {
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenReturn(true);
+		orderCodeGeneratorService.init();
+		int nodeId = nodeId();
+
+		when(orderCodeNodeDao.renew(anyInt(), anyString(), anyLong())).thenReturn(false);
+		when(orderCodeNodeDao.acquire(anyInt(), anyString(), anyLong())).thenAnswer(invocation -> !invocation.getArgument(0).equals(nodeId));
+		orderCodeGeneratorService.renewNodeId();
+
+		assertNotEquals(nodeId, nodeId());
+		orderCodeGeneratorService.nextId();
+	}
+
+	@Test
+	void configuredNodeIdHasNoLease() {
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "configNodeId", 7);
+		orderCodeGeneratorService.init();
+
+		long id = orderCodeGeneratorService.nextId();
+
+		assertEquals(7, (id >>> 12) & 1023);
+		verify(orderCodeNodeDao, never()).acquire(anyInt(), anyString(), anyLong());
+	}
+
+	private int nodeId() {
+		return (int) ReflectionTestUtils.getField(orderCodeGeneratorService, "nodeId");
+	}
+
+	private void setRenewedAt(long renewedAt) {
+		ReflectionTestUtils.setField(orderCodeGeneratorService, "leaseRenewedAt", renewedAt);
+	}
+
+}
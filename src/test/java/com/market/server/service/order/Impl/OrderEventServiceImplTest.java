@@ -0,0 +1,154 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.service.order.OrderStatusEventConsumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문상태 변경 이벤트 커밋 직후 처리, 소비 실패 시 재시도, dead letter
+ */
+class OrderEventServiceImplTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OrderEventServiceImpl orderEventService;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if(orderEventService != null) {
+			orderEventService.destroy();
+		}
+	}
+
+	@Test
+	void synchronousConsumerRunsInPublisherThread() {
+		FailingConsumer consumer = new FailingConsumer("orderLog", true, 0, true);
+		orderEventService = orderEventService(consumer);
+
+		orderEventService.publish(event());
+
+		assertEquals(0, consumer.consumed.getCount()); // 발행한 스레드에서 바로 처리
+		assertEquals(Thread.currentThread().getName(), consumer.threadName);
+		assertNull(orderEventService.getPendingSince("orderLog"));
+	}
+
+	@Test
+	void failedSynchronousEventIsRetriedFromQueue() throws Exception {
+		FailingConsumer consumer = new FailingConsumer("orderLog", true, 1, true);
+		orderEventService = orderEventService(consumer);
+
+		orderEventService.publish(event());
+
+		assertTrue(consumer.consumed.await(5, TimeUnit.SECONDS));
+		assertEquals(2, consumer.attempts.get());
+		assertEquals("orderEvent-orderLog", consumer.threadName);
+	}
+
+	@Test
+	void durableConsumerRetriesUntilConsumed() throws Exception {
+		FailingConsumer consumer = new FailingConsumer("orderLog", true, 2, false);
+		orderEventService = orderEventService(consumer);
+
+		orderEventService.publish(event());
+
+		assertTrue(consumer.consumed.await(5, TimeUnit.SECONDS));
+		assertEquals(3, consumer.attempts.get());
+		assertEquals(2, meterRegistry.counter("order.event.error", "consumer", "orderLog").count());
+		assertEquals(0, meterRegistry.counter("order.event.dead", "consumer", "orderLog").count());
+	}
+
+	@Test
+	void failedEventsAreDeadLettered() throws Exception {
+		FailingConsumer durable = new FailingConsumer("orderCnt", true, Integer.MAX_VALUE, false);
+		FailingConsumer push    = new FailingConsumer("orderPush", false, Integer.MAX_VALUE, false);
+		orderEventService = orderEventService(durable, push);
+
+		orderEventService.publish(event());
+		orderEventService.destroy();
+
+		assertEquals(3, durable.attempts.get()); // retryMaxAttempts
+		assertEquals(1, push.attempts.get());    // 재시도하지 않는다.
+		assertEquals(1, meterRegistry.counter("order.event.dead", "consumer", "orderCnt").count());
+		assertEquals(1, meterRegistry.counter("order.event.dead", "consumer", "orderPush").count());
+	}
+
+	private OrderEventServiceImpl orderEventService(OrderStatusEventConsumer... consumers) {
+		OrderEventServiceImpl orderEventService = new OrderEventServiceImpl();
+		ReflectionTestUtils.setField(orderEventService, "consumers", Arrays.asList(consumers));
+		ReflectionTestUtils.setField(orderEventService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(orderEventService, "queueCapacity", 10);
+		ReflectionTestUtils.setField(orderEventService, "batchSize", 10);
+		ReflectionTestUtils.setField(orderEventService, "offerTimeout", 10L);
+		ReflectionTestUtils.setField(orderEventService, "retryMaxAttempts", 3);
+		ReflectionTestUtils.setField(orderEventService, "retryBackoff", 1L);
+		orderEventService.init();
+		return orderEventService;
+	}
+
+	private static OrderStatusChangedEvent event() {
+		return new OrderStatusChangedEvent(1, "C1", "OSC002", 1, "I1", "O1", 1, 1000L, 0L, 0L, 1000L,
+				"2026-10-17 00:00:00", "2026-10-17 00:00:01");
+	}
+
+	/**
+	 * failures번 실패한 이후 처리하는 소비자
+	 */
+	private static class FailingConsumer implements OrderStatusEventConsumer {
+
+		private final String name;
+		private final boolean durable;
+		private final int failures;
+		private final boolean synchronous;
+		private final AtomicInteger attempts = new AtomicInteger();
+		private final CountDownLatch consumed = new CountDownLatch(1);
+		private volatile String threadName;
+
+		private FailingConsumer(String name, boolean durable, int failures, boolean synchronous) {
+			this.name = name;
+			this.durable = durable;
+			this.failures = failures;
+			this.synchronous = synchronous;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean isDurable() {
+			return durable;
+		}
+
+		@Override
+		public boolean isSynchronous() {
+			return synchronous;
+		}
+
+		@Override
+		public void consume(List<OrderStatusChangedEvent> eventList) {
+			if(attempts.incrementAndGet() <= failures) {
+				throw new RuntimeException("consume failed");
+			}
+			threadName = Thread.currentThread().getName();
+			consumed.countDown();
+		}
+	}
+
+}
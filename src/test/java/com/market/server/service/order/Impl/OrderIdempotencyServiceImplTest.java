@@ -0,0 +1,169 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.DigestUtils;
+
+import com.market.server.dao.OrderIdempotencyDao;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.error.exception.IdempotencyConflictException;
+import com.market.server.error.exception.OrderWriteTimeoutException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문 요청 멱등 처리 상태 (Redis mock)
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceImplTest {
+
+	private static final int    LOGIN_NO = 1;
+	private static final String KEY      = "key-1";
+	private static final long   TTL      = 3600000;
+	private static final long   PENDING  = 30000;
+
+	@Mock
+	private OrderIdempotencyDao orderIdempotencyDao;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private OrderIdempotencyServiceImpl orderIdempotencyService;
+
+	private final OrderDTO orderDTO = order();
+
+	private final String fingerprint = DigestUtils.md5DigestAsHex("I1|O1|1|0|1000".getBytes(StandardCharsets.UTF_8));
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(orderIdempotencyService, "ttlMillis", TTL);
+		ReflectionTestUtils.setField(orderIdempotencyService, "pendingMillis", PENDING);
+		ReflectionTestUtils.setField(orderIdempotencyService, "waitTimeout", 100L);
+	}
+
+	@Test
+	void executesOnceAndStoresResult() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(true);
+
+		String orderCd = orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> "C1");
+
+		assertEquals("C1", orderCd);
+		verify(orderIdempotencyDao).complete(LOGIN_NO, KEY, fingerprint, "C1", TTL);
+	}
+
+	@Test
+	void replaysCompletedResult() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(false);
+		when(orderIdempotencyDao.get(LOGIN_NO, KEY)).thenReturn(new String[] {OrderIdempotencyDao.DONE, fingerprint, "C1"});
+		AtomicInteger calls = new AtomicInteger();
+
+		String orderCd = orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> "C" + calls.incrementAndGet());
+
+		assertEquals("C1", orderCd);
+		assertEquals(0, calls.get());
+	}
+
+	@Test
+	void rejectsDifferentRequestWithSameKey() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(false);
+		when(orderIdempotencyDao.get(LOGIN_NO, KEY)).thenReturn(new String[] {OrderIdempotencyDao.DONE, "other", "C1"});
+
+		assertThrows(IdempotencyConflictException.class, () -> orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> "C2"));
+	}
+
+	@Test
+	void rejectsWhilePendingOnAnotherServer() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(false);
+		when(orderIdempotencyDao.get(LOGIN_NO, KEY)).thenReturn(new String[] {OrderIdempotencyDao.PENDING, fingerprint});
+
+		assertThrows(IdempotencyConflictException.class, () -> orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> "C2"));
+	}
+
+	@Test
+	void removesKeyWhenOrderFails() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(true);
+
+		assertThrows(IllegalStateException.class, () -> orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> {
+			throw new IllegalStateException("fail");
+		}));
+
+		verify(orderIdempotencyDao).remove(LOGIN_NO, KEY);
+	}
+
+	@Test
+	void completesKeyWhenTimedOutWriteCommits() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(true);
+		CompletableFuture<Void> result = new CompletableFuture<>();
+
+		assertThrows(OrderWriteTimeoutException.class, () -> orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> {
+			throw new OrderWriteTimeoutException("timeout", "C1", result);
+		}));
+		verify(orderIdempotencyDao).expire(LOGIN_NO, KEY, TTL); // 저장 결과가 나올 때까지 처리중 유지
+		verify(orderIdempotencyDao, never()).complete(eq(LOGIN_NO), eq(KEY), anyString(), anyString(), anyLong());
+
+		result.complete(null);
+
+		verify(orderIdempotencyDao).complete(LOGIN_NO, KEY, fingerprint, "C1", TTL);
+		verify(orderIdempotencyDao, never()).remove(LOGIN_NO, KEY);
+	}
+
+	@Test
+	void removesKeyWhenTimedOutWriteFails() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenReturn(true);
+		CompletableFuture<Void> result = new CompletableFuture<>();
+
+		assertThrows(OrderWriteTimeoutException.class, () -> orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> {
+			throw new OrderWriteTimeoutException("timeout", "C1", result);
+		}));
+		result.completeExceptionally(new RuntimeException("insert"));
+
+		verify(orderIdempotencyDao).remove(LOGIN_NO, KEY);
+		verify(orderIdempotencyDao, never()).complete(eq(LOGIN_NO), eq(KEY), anyString(), anyString(), anyLong());
+	}
+
+	@Test
+	void executesWithoutKeyWhenRedisIsDown() {
+		when(orderIdempotencyDao.begin(LOGIN_NO, KEY, fingerprint, PENDING)).thenThrow(new RedisConnectionFailureException("down"));
+
+		assertEquals("C1", orderIdempotencyService.execute(LOGIN_NO, KEY, orderDTO, () -> "C1"));
+	}
+
+	@Test
+	void rejectsInvalidKey() {
+		assertThrows(RuntimeException.class, () -> orderIdempotencyService.execute(LOGIN_NO, "bad key!", orderDTO, () -> "C1"));
+		verify(orderIdempotencyDao, never()).begin(LOGIN_NO, "bad key!", fingerprint, PENDING);
+	}
+
+	private static OrderDTO order() {
+		OrderDTO orderDTO = new OrderDTO();
+		orderDTO.setItemCd("I1");
+		orderDTO.setOptionCd("O1");
+		orderDTO.setOrderCnt(1);
+		orderDTO.setDiscountPrice(0L);
+		orderDTO.setTotalPrice(1000L);
+		return orderDTO;
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.OrderLogDao;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.mapper.order.OrderMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문이력 stream 저장/ack (Redis, DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderLogServiceImplTest {
+
+	private static final String CONSUMER = "test";
+
+	@Mock
+	private OrderMapper orderMapper;
+
+	@Mock
+	private OrderLogDao orderLogDao;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private OrderLogServiceImpl orderLogService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(orderLogService, "consumer", CONSUMER);
+		ReflectionTestUtils.setField(orderLogService, "batchSize", 10);
+		ReflectionTestUtils.setField(orderLogService, "maxBatches", 1);
+		ReflectionTestUtils.setField(orderLogService, "claimIdle", 60000L);
+		ReflectionTestUtils.setField(orderLogService, "slowMillis", 60000L);
+		when(orderLogDao.getShards()).thenReturn(1);
+		orderLogService.init();
+
+		when(orderLogDao.read(0, CONSUMER, true, 10)).thenReturn(Collections.emptyList());
+		// 묶음 저장 실패 -> 건별 저장
+		when(transactionTemplate.execute(any(TransactionCallback.class))).thenThrow(new RuntimeException("batch"));
+	}
+
+	@Test
+	void skipsOnlyDataIntegrityViolation() {
+		when(orderLogDao.read(0, CONSUMER, false, 10)).thenReturn(Arrays.asList(record("1-0", "C1"), record("2-0", "C2")));
+		doThrow(new DuplicateKeyException("dup")).when(orderMapper).insertOrderLog(orderCd("C1"));
+
+		orderLogService.drain();
+
+		verify(orderMapper).insertOrderLog(orderCd("C2"));
+		verify(orderLogDao).ackAndDelete(0, Arrays.asList("1-0", "2-0"));
+		assertEquals(1, meterRegistry.counter("order.log.skipped").count());
+	}
+
+	@Test
+	void leavesRecordsUnackedOnDatabaseError() {
+		when(orderLogDao.read(0, CONSUMER, false, 10)).thenReturn(Arrays.asList(record("1-0", "C1"), record("2-0", "C2")));
+		doThrow(new QueryTimeoutException("timeout")).when(orderMapper).insertOrderLog(orderCd("C1"));
+
+		orderLogService.drain();
+
+		verify(orderMapper, never()).insertOrderLog(orderCd("C2"));
+		verify(orderLogDao, never()).ackAndDelete(anyInt(), anyList());
+		assertEquals(0, meterRegistry.counter("order.log.skipped").count());
+	}
+
+	@Test
+	void acksAllRecordsWhenBatchSucceeds() {
+		when(orderLogDao.read(0, CONSUMER, false, 10)).thenReturn(Arrays.asList(record("1-0", "C1"), record("2-0", "C2")));
+		when(transactionTemplate.execute(any(TransactionCallback.class))).thenReturn(Collections.emptyList());
+
+		orderLogService.drain();
+
+		verify(orderMapper, never()).insertOrderLog(any());
+		verify(orderLogDao).ackAndDelete(eq(0), eq(Arrays.asList("1-0", "2-0")));
+	}
+
+	@Test
+	void acksOnlyPersistedRecordsOnDatabaseError() {
+		when(orderLogDao.read(0, CONSUMER, false, 10))
+				.thenReturn(Arrays.asList(record("1-0", "C1"), record("2-0", "C2"), record("3-0", "C3")));
+		doThrow(new QueryTimeoutException("timeout")).when(orderMapper).insertOrderLog(orderCd("C2"));
+
+		orderLogService.drain();
+
+		verify(orderLogDao).ackAndDelete(0, Collections.singletonList("1-0")); // 2-0, 3-0은 pending으로 남는다.
+		verify(orderMapper, never()).insertOrderLog(orderCd("C3"));
+	}
+
+	@Test
+	void acksUnparsableRecordAsPoison() {
+		MapRecord<String, Object, Object> poison = record("1-0", "C1");
+		poison.getValue().put("orderSeq", "x");
+		when(orderLogDao.read(0, CONSUMER, false, 10)).thenReturn(Arrays.asList(poison, record("2-0", "C2")));
+		when(transactionTemplate.execute(any(TransactionCallback.class))).thenReturn(Collections.emptyList());
+
+		orderLogService.drain();
+
+		verify(orderLogDao).ackAndDelete(0, Arrays.asList("1-0", "2-0"));
+		assertEquals(1, meterRegistry.counter("order.log.skipped").count());
+	}
+
+	static MapRecord<String, Object, Object> record(String id, String orderCd) {
+		Map<Object, Object> fields = new HashMap<>();
+		fields.put("orderCd", orderCd);
+		fields.put("orderStatusCd", "OSC001");
+		fields.put("orderSeq", "1");
+		return StreamRecords.newRecord().in("ORDERS:STREAM:0").withId(RecordId.of(id)).ofMap(fields);
+	}
+
+	private static OrderDTO orderCd(String orderCd) {
+		ArgumentMatcher<OrderDTO> matcher = orderDTO -> orderDTO != null && orderCd.equals(orderDTO.getOrderCd());
+		return argThat(matcher);
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.dto.order.OrderStatusChangedEvent;
+import com.market.server.error.exception.InvalidOrderStatusException;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.service.product.Impl.ProductStockServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문상태 조건부(CAS) 변경 (DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceImplTest {
+
+	@Mock
+	private OrderMapper orderMapper;
+
+	@Mock
+	private OrderSummaryServiceImpl orderSummaryService;
+
+	@Mock
+	private ProductStockServiceImpl productStockService;
+
+	@Mock
+	private OrderEventServiceImpl orderEventService;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private OrderServiceImpl orderService;
+
+	@Test
+	void appliesTransitionFromReadStatus() {
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC001"));
+		when(orderMapper.updateOrderStatus("C1", "OSC002", "OSC001")).thenReturn(1);
+
+		orderService.updateOrderStatus(order("C1", "OSC002"));
+
+		verify(orderSummaryService).updateStatus("C1", "OSC002");
+		ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+		verify(orderEventService).publishAfterCommit(event.capture());
+		assertEquals("OSC002", event.getValue().getOrderStatusCd());
+		assertEquals(1, transitions("applied"));
+	}
+
+	@Test
+	void sameStatusIsNoop() {
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC002"));
+
+		orderService.updateOrderStatus(order("C1", "OSC002"));
+
+		verify(orderMapper, never()).updateOrderStatus(anyString(), anyString(), anyString());
+		verify(orderEventService, never()).publishAfterCommit(any());
+		assertEquals(1, transitions("noop"));
+	}
+
+	@Test
+	void concurrentSameChangeIsNoop() {
+		// 조회 이후 다른 요청에서 같은 주문상태로 먼저 변경한 경우 (일반 조회는 트랜잭션 시작 시점 주문상태를 계속 반환)
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC001"));
+		when(orderMapper.updateOrderStatus("C1", "OSC002", "OSC001")).thenReturn(0);
+		when(orderMapper.getOrderStatusForUpdate("C1")).thenReturn("OSC002");
+
+		orderService.updateOrderStatus(order("C1", "OSC002"));
+
+		verify(orderMapper, times(1)).getOrderInfo("C1");
+		verify(orderSummaryService, never()).updateStatus(anyString(), anyString());
+		verify(orderEventService, never()).publishAfterCommit(any());
+		assertEquals(1, transitions("noop"));
+	}
+
+	@Test
+	void concurrentDifferentChangeConflicts() {
+		// 조회 이후 다른 요청에서 환불로 먼저 변경한 경우
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC001"));
+		when(orderMapper.updateOrderStatus("C1", "OSC002", "OSC001")).thenReturn(0);
+		when(orderMapper.getOrderStatusForUpdate("C1")).thenReturn("OSC008");
+
+		InvalidOrderStatusException e = assertThrows(InvalidOrderStatusException.class,
+				() -> orderService.updateOrderStatus(order("C1", "OSC002")));
+
+		assertTrue(e.getMessage().contains("OSC008"), e.getMessage()); // 최신 주문상태
+		verify(orderEventService, never()).publishAfterCommit(any());
+		assertEquals(1, transitions("conflict"));
+	}
+
+	@Test
+	void rejectsSkippedDeliveryStep() {
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC001"));
+
+		assertThrows(InvalidOrderStatusException.class, () -> orderService.updateOrderStatus(order("C1", "OSC003")));
+
+		verify(orderMapper, never()).updateOrderStatus(anyString(), anyString(), anyString());
+		assertEquals(1, transitions("rejected"));
+	}
+
+	@Test
+	void refundCompletedRestocks() {
+		when(orderMapper.getOrderInfo("C1")).thenReturn(order("C1", "OSC008"));
+		when(orderMapper.updateOrderStatus("C1", "OSC009", "OSC008")).thenReturn(1);
+
+		orderService.updateOrderStatus(order("C1", "OSC009"));
+
+		verify(productStockService).restock(any()); // 트랜잭션이 없으므로 바로 실행
+	}
+
+	private double transitions(String result) {
+		return meterRegistry.counter("order.status.transition", "result", result).count();
+	}
+
+	private static OrderDTO order(String orderCd, String orderStatusCd) {
+		OrderDTO orderDTO = new OrderDTO();
+		orderDTO.setOrderCd(orderCd);
+		orderDTO.setOrderStatusCd(orderStatusCd);
+		return orderDTO;
+	}
+
+}
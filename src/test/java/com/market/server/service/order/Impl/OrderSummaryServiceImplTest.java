@@ -0,0 +1,98 @@
+package com.market.server.service.order.Impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dto.order.OrderDetailDTO;
+import com.market.server.mapper.order.OrderSummaryMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문내역 요약 커밋 이후 반영 (DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderSummaryServiceImplTest {
+
+	@Mock
+	private OrderSummaryMapper orderSummaryMapper;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private OrderSummaryServiceImpl orderSummaryService;
+
+	@BeforeEach
+	void setUp() {
+		when(transactionTemplate.getTransactionManager()).thenReturn(transactionManager);
+		when(orderSummaryMapper.getOrderDetailList(any())).thenReturn(Collections.singletonList(new OrderDetailDTO()));
+		orderSummaryService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void refreshesAfterOrderTransactionCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		orderSummaryService.refreshAfterCommit(Collections.singletonList("C1"));
+		verify(orderSummaryMapper, never()).getOrderDetailList(any()); // 주문 트랜잭션 안에서는 join 조회를 하지 않는다.
+
+		for(TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		verify(orderSummaryMapper).upsertOrderSummaryList(any());
+		verify(transactionManager).commit(any());
+	}
+
+	@Test
+	void refreshesRightAwayWithoutTransaction() {
+		orderSummaryService.refreshAfterCommit(Collections.singletonList("C1"));
+
+		verify(orderSummaryMapper).upsertOrderSummaryList(any());
+	}
+
+	@Test
+	void updateStatusRefreshesMissingSummaryAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		when(orderSummaryMapper.updateOrderSummaryStatus("C1", "OSC002")).thenReturn(0);
+
+		orderSummaryService.updateStatus("C1", "OSC002");
+
+		verify(orderSummaryMapper, never()).getOrderDetailList(any());
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.market.server.service.order.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.error.exception.OrderWriteTimeoutException;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.service.product.Impl.ProductStockServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주문 저장 group commit (DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderWriterServiceImplTest {
+
+	@Mock
+	private OrderMapper orderMapper;
+
+	@Mock
+	private OrderSummaryServiceImpl orderSummaryService;
+
+	@Mock
+	private ProductStockServiceImpl productStockService;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private OrderWriterServiceImpl orderWriterService;
+
+	private final List<Integer> batchSizes = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(orderWriterService, "enabled", true);
+		ReflectionTestUtils.setField(orderWriterService, "batchSize", 16);
+		ReflectionTestUtils.setField(orderWriterService, "maxWait", 20L);
+		ReflectionTestUtils.setField(orderWriterService, "queueCapacity", 100);
+		ReflectionTestUtils.setField(orderWriterService, "timeout", 2000L);
+
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		when(orderMapper.insertOrderList(anyList())).thenAnswer(invocation -> {
+			List<OrderDTO> orderList = invocation.getArgument(0);
+			synchronized(batchSizes) {
+				batchSizes.add(orderList.size());
+			}
+			return orderList.size();
+		});
+		when(orderMapper.doOrder(any())).thenReturn(1);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		orderWriterService.destroy();
+	}
+
+	@Test
+	void groupsConcurrentOrdersIntoFewerCommits() throws Exception {
+		orderWriterService.init();
+
+		int writers = 32;
+		ExecutorService executor = Executors.newFixedThreadPool(writers);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for(int i = 0; i < writers; i++) {
+				OrderDTO orderDTO = order("C" + i);
+				futures.add(executor.submit(() -> {
+					start.await();
+					orderWriterService.write(orderDTO);
+					return null;
+				}));
+			}
+			start.countDown();
+			for(Future<?> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+		}finally {
+			executor.shutdownNow();
+		}
+
+		int total = 0;
+		for(int size : batchSizes) {
+			total += size;
+		}
+		assertEquals(writers, total);
+		assertTrue(batchSizes.size() < writers, "commits : " + batchSizes.size());
+		verify(productStockService, timeout(1000).times(writers)).confirm(any());
+	}
+
+	@Test
+	void fallsBackToSingleInsertWhenBatchFails() {
+		when(orderMapper.insertOrderList(anyList())).thenThrow(new RuntimeException("batch"));
+		when(orderMapper.doOrder(any())).thenAnswer(invocation ->
+				"BAD".equals(invocation.<OrderDTO>getArgument(0).getOrderCd()) ? 0 : 1);
+		orderWriterService.init();
+
+		orderWriterService.write(order("C1"));
+		assertThrows(RuntimeException.class, () -> orderWriterService.write(order("BAD")));
+
+		verify(productStockService).confirm("C1");
+		verify(productStockService, never()).confirm("BAD");
+	}
+
+	@Test
+	void timeoutExposesQueuedResult() throws Exception {
+		ReflectionTestUtils.setField(orderWriterService, "timeout", 50L);
+		CountDownLatch commit = new CountDownLatch(1);
+		when(orderMapper.insertOrderList(anyList())).thenAnswer(invocation -> {
+			commit.await();
+			return 1;
+		});
+		orderWriterService.init();
+
+		OrderWriteTimeoutException e = assertThrows(OrderWriteTimeoutException.class, () -> orderWriterService.write(order("C1")));
+		CompletableFuture<Void> result = e.getResult().toCompletableFuture();
+		assertFalse(result.isDone());
+
+		commit.countDown();
+		result.get(5, TimeUnit.SECONDS);
+		verify(productStockService).confirm("C1"); // 대기시간 초과 이후 커밋된 주문도 재고 예약을 확정한다.
+	}
+
+	@Test
+	void writesDirectlyWhenDisabled() {
+		ReflectionTestUtils.setField(orderWriterService, "enabled", false);
+		orderWriterService.init();
+
+		orderWriterService.write(order("C1"));
+
+		verify(orderMapper).doOrder(any());
+		verify(orderMapper, never()).insertOrderList(anyList());
+		verify(productStockService).confirm("C1");
+	}
+
+	private static OrderDTO order(String orderCd) {
+		OrderDTO orderDTO = new OrderDTO();
+		orderDTO.setOrderCd(orderCd);
+		return orderDTO;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.market.server.service.order;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 주문상태 변경 가능 여부
+ */
+class OrderStatusTransitionTest {
+
+	@Test
+	void deliveryFlowMovesOneStepAtATime() {
+		assertTrue(OrderStatusTransition.canChange("OSC001", "OSC002"));
+		assertTrue(OrderStatusTransition.canChange("OSC006", "OSC007"));
+		assertFalse(OrderStatusTransition.canChange("OSC001", "OSC003"));
+		assertFalse(OrderStatusTransition.canChange("OSC003", "OSC002"));
+	}
+
+	@Test
+	void refundFromDeliveryFlowOnly() {
+		assertTrue(OrderStatusTransition.canChange("OSC001", "OSC008"));
+		assertTrue(OrderStatusTransition.canChange("OSC007", "OSC008"));
+		assertTrue(OrderStatusTransition.canChange("OSC008", "OSC009"));
+		assertFalse(OrderStatusTransition.canChange("OSC007", "OSC009"));
+		assertFalse(OrderStatusTransition.canChange("OSC009", "OSC008"));
+	}
+
+	@Test
+	void unknownStatusIsRejected() {
+		assertFalse(OrderStatusTransition.canChange("OSC001", "OSC999"));
+		assertFalse(OrderStatusTransition.canChange(null, "OSC002"));
+		assertFalse(OrderStatusTransition.canChange("OSC001", null));
+	}
+
+}
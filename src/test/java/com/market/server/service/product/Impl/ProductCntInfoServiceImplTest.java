@@ -0,0 +1,102 @@
+package com.market.server.service.product.Impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.ProductDao;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.utils.RedisKeyFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 상품 count snapshot DB 반영 (Redis, DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductCntInfoServiceImplTest {
+
+	private static final String SNAPSHOT_KEY = RedisKeyFactory.VIEW_CNT_KEY + ":SNAPSHOT";
+
+	@Mock
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private ProductDao productDao;
+
+	@Mock
+	private ProductMapper productMapper;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private ProductCntInfoServiceImpl productCntInfoService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(productCntInfoService, "chunkSize", 100);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		when(batchSqlSessionTemplate.getMapper(ProductMapper.class)).thenReturn(productMapper);
+		when(batchSqlSessionTemplate.flushStatements()).thenReturn(Collections.emptyList());
+		when(productDao.getSnapshotId(anyString())).thenReturn(7L);
+		doAnswer(invocation -> {
+			Consumer<Map<String, Long>> chunkConsumer = invocation.getArgument(2);
+			if(SNAPSHOT_KEY.equals(invocation.getArgument(0))) {
+				chunkConsumer.accept(Collections.singletonMap("I1", 3L));
+			}
+			return null;
+		}).when(productDao).scanProductCntInfo(anyString(), eq(100), any());
+	}
+
+	@Test
+	void appliesSnapshotWithItsId() {
+		when(productDao.renameProductCntInfo(RedisKeyFactory.VIEW_CNT_KEY, SNAPSHOT_KEY)).thenReturn(true);
+
+		productCntInfoService.ProductCntInfoBySchedule();
+
+		verify(productMapper).addViewCnt("I1", 3L, 7L);
+		verify(productDao).delProductCntInfo(SNAPSHOT_KEY);
+	}
+
+	@Test
+	void leftoverSnapshotKeepsItsId() {
+		// DB 반영 후 snapshot 제거 전에 종료된 경우 같은 번호로 다시 반영한다.(DB에서 이미 반영한 상품은 제외)
+		when(productDao.hasProductCntInfo(SNAPSHOT_KEY)).thenReturn(true);
+
+		productCntInfoService.ProductCntInfoBySchedule();
+
+		verify(productDao, never()).renameProductCntInfo(RedisKeyFactory.VIEW_CNT_KEY, SNAPSHOT_KEY);
+		verify(productDao).getSnapshotId(SNAPSHOT_KEY);
+		verify(productMapper).addViewCnt("I1", 3L, 7L);
+	}
+
+}
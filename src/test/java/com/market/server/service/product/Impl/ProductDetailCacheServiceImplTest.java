@@ -0,0 +1,98 @@
+package com.market.server.service.product.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.market.server.dto.product.ProductDTO;
+import com.market.server.mapper.product.ProductMapper;
+import com.market.server.service.option.Impl.OptionServiceImpl;
+import com.market.server.utils.RedisKeyFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 상품상세 L1/L2 캐시 (Redis, DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductDetailCacheServiceImplTest {
+
+	@Mock
+	private RedisCacheManager redisCacheManager;
+
+	@Mock
+	private RedisMessageListenerContainer redisMessageListenerContainer;
+
+	@Mock
+	private Cache remoteCache;
+
+	@Mock
+	private ProductMapper productMapper;
+
+	@Mock
+	private OptionServiceImpl optionService;
+
+	@Mock
+	private TradingAreaServiceImpl tradingAreaService;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private ProductDetailCacheServiceImpl productDetailCacheService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(productDetailCacheService, "localMaxSize", 100L);
+		ReflectionTestUtils.setField(productDetailCacheService, "localExpireSecond", 60L);
+		ReflectionTestUtils.setField(productDetailCacheService, "fanOutEnabled", false);
+		ReflectionTestUtils.setField(productDetailCacheService, "fanOutTimeout", 1000L);
+		when(redisCacheManager.getCache(RedisKeyFactory.PRODUCT_DETAIL_CACHE)).thenReturn(remoteCache);
+		productDetailCacheService.init();
+	}
+
+	@Test
+	void cachesExistingProduct() {
+		ProductDTO productDTO = new ProductDTO();
+		productDTO.setItemCd("I1");
+		when(productMapper.productDetail(any())).thenReturn(productDTO);
+
+		productDetailCacheService.get("I1");
+		assertEquals("I1", productDetailCacheService.get("I1").getProductDTO().getItemCd());
+
+		verify(productMapper, times(1)).productDetail(any());
+		verify(remoteCache).put(eq("I1"), any());
+	}
+
+	@Test
+	void doesNotCacheMissingProduct() {
+		assertNull(productDetailCacheService.get("NONE").getProductDTO());
+		assertNull(productDetailCacheService.get("NONE").getProductDTO());
+
+		verify(productMapper, times(2)).productDetail(any()); // L1에 없는 상품으로 남지 않는다.
+		verify(remoteCache, never()).put(anyString(), any());
+	}
+
+}
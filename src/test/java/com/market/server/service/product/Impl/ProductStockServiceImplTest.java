@@ -0,0 +1,215 @@
+package com.market.server.service.product.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.StockDao;
+import com.market.server.dto.order.OrderDTO;
+import com.market.server.dto.product.ProductStockDTO;
+import com.market.server.error.exception.OutOfStockException;
+import com.market.server.mapper.order.OrderMapper;
+import com.market.server.mapper.product.ProductStockMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 재고 예약 확정/취소/환불 흐름, 판매수량 DB 반영 (Redis, DB mock)
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductStockServiceImplTest {
+
+	private static final long RESERVATION_TTL = 1800000;
+	private static final long CONFIRMED_TTL   = 2592000000L;
+
+	@Mock
+	private StockDao stockDao;
+
+	@Mock
+	private ProductStockMapper productStockMapper;
+
+	@Mock
+	private OrderMapper orderMapper;
+
+	@Mock
+	private SqlSessionTemplate batchSqlSessionTemplate;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@InjectMocks
+	private ProductStockServiceImpl productStockService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(productStockService, "reservationTtl", RESERVATION_TTL);
+		ReflectionTestUtils.setField(productStockService, "confirmedTtl", CONFIRMED_TTL);
+		ReflectionTestUtils.setField(productStockService, "sweepSize", 10);
+		ReflectionTestUtils.setField(productStockService, "unlimitedExpire", 600000L);
+		ReflectionTestUtils.setField(productStockService, "reconcileChunkSize", 1);
+	}
+
+	@Test
+	void reserveLoadsStockWhenNotLoaded() {
+		when(stockDao.reserve(eq("I1:O1"), eq(2), eq("C1"), anyLong(), eq(RESERVATION_TTL * 2)))
+				.thenReturn(StockDao.NOT_LOADED, StockDao.RESERVED);
+		when(productStockMapper.getStock("I1", "O1")).thenReturn(stock(10L, 3L));
+
+		productStockService.reserve(order("C1", 2));
+
+		verify(stockDao).loadStock("I1:O1", 7L, 600000L);
+		verify(stockDao, times(2)).reserve(eq("I1:O1"), eq(2), eq("C1"), anyLong(), anyLong());
+	}
+
+	@Test
+	void reserveThrowsWhenOutOfStock() {
+		when(stockDao.reserve(anyString(), anyInt(), anyString(), anyLong(), anyLong())).thenReturn(StockDao.OUT_OF_STOCK);
+
+		assertThrows(OutOfStockException.class, () -> productStockService.reserve(order("C1", 2)));
+	}
+
+	@Test
+	void confirmDoesNotReserveAgain() {
+		when(stockDao.confirm("C1", CONFIRMED_TTL)).thenReturn(false);
+
+		assertFalse(productStockService.confirm("C1"));
+		verify(stockDao, never()).reserve(anyString(), anyInt(), anyString(), anyLong(), anyLong());
+	}
+
+	@Test
+	void restockIsNoopWithoutConfirmedReservation() {
+		when(stockDao.release("C1")).thenReturn(false);
+		when(stockDao.restock("C1")).thenReturn(StockDao.NOT_CONFIRMED);
+
+		productStockService.restock(order("C1", 2));
+
+		verify(stockDao, times(1)).restock("C1");
+		verify(productStockMapper, never()).getStock(anyString(), anyString());
+		assertEquals(1, meterRegistry.counter("stock.restock", "result", "not_confirmed").count());
+	}
+
+	@Test
+	void restockReleasesReservationBeforeConfirm() {
+		when(stockDao.release("C1")).thenReturn(true);
+
+		productStockService.restock(order("C1", 2));
+
+		verify(stockDao, never()).restock(anyString());
+	}
+
+	@Test
+	void restockLoadsStockWhenNotLoaded() {
+		when(stockDao.release("C1")).thenReturn(false);
+		when(stockDao.restock("C1")).thenReturn(StockDao.NOT_LOADED, StockDao.RESERVED);
+		when(productStockMapper.getStock("I1", "O1")).thenReturn(stock(10L, 3L));
+
+		productStockService.restock(order("C1", 2));
+
+		verify(stockDao).loadStock("I1:O1", 7L, 600000L);
+		assertEquals(1, meterRegistry.counter("stock.restock", "result", "restocked").count());
+	}
+
+	@Test
+	void expiredReservationIsConfirmedWhenOrderCommitted() {
+		LinkedHashSet<String> expired = new LinkedHashSet<>();
+		expired.add("SAVED");
+		expired.add("LOST");
+		when(stockDao.getExpiredReservations(anyLong(), eq(10))).thenReturn(expired);
+		when(orderMapper.getOrderInfo("SAVED")).thenReturn(order("SAVED", 1));
+		when(orderMapper.getOrderInfo("LOST")).thenReturn(null);
+		when(stockDao.confirm("SAVED", CONFIRMED_TTL)).thenReturn(true);
+		when(stockDao.release("LOST")).thenReturn(true);
+
+		productStockService.releaseExpiredReservations();
+
+		verify(stockDao, never()).release("SAVED");
+		verify(stockDao, never()).confirm(eq("LOST"), anyLong());
+		assertEquals(1, meterRegistry.counter("stock.release", "reason", "expired").count());
+	}
+
+	@Test
+	void sweepStopsWhenNothingExpired() {
+		when(stockDao.getExpiredReservations(anyLong(), eq(10))).thenReturn(Collections.emptySet());
+
+		productStockService.releaseExpiredReservations();
+
+		verify(orderMapper, never()).getOrderInfo(anyString());
+	}
+
+	@Test
+	void reconcileAppliesSoldQtyWithSnapshotId() {
+		Map<String, Long> soldMap = new TreeMap<>();
+		soldMap.put("I1:O1", 2L);
+		soldMap.put("I2:O1", 3L);
+		when(stockDao.takeSoldSnapshot()).thenReturn(soldMap);
+		when(stockDao.getSoldSnapshotId()).thenReturn(7L);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		when(batchSqlSessionTemplate.getMapper(ProductStockMapper.class)).thenReturn(productStockMapper);
+
+		productStockService.reconcile();
+
+		// 반영 후 snapshot에서 제거하기 전에 종료되어 다시 처리하더라도 같은 snapshot 번호로 반영한다.(DB에서 이미 반영한 상품옵션은 제외)
+		verify(productStockMapper).addSoldQty("I1", "O1", 2L, 7L);
+		verify(productStockMapper).addSoldQty("I2", "O1", 3L, 7L);
+		verify(stockDao).delSoldSnapshotFields(Collections.singletonList("I1:O1"));
+		verify(stockDao).delSoldSnapshot();
+	}
+
+	@Test
+	void reconcileSkipsEmptySnapshot() {
+		when(stockDao.takeSoldSnapshot()).thenReturn(Collections.emptyMap());
+
+		productStockService.reconcile();
+
+		verify(stockDao, never()).getSoldSnapshotId();
+		verify(stockDao).delSoldSnapshot();
+	}
+
+	private static OrderDTO order(String orderCd, int orderCnt) {
+		OrderDTO orderDTO = new OrderDTO();
+		orderDTO.setOrderCd(orderCd);
+		orderDTO.setItemCd("I1");
+		orderDTO.setOptionCd("O1");
+		orderDTO.setOrderCnt(orderCnt);
+		return orderDTO;
+	}
+
+	private static ProductStockDTO stock(Long stockQty, Long soldQty) {
+		ProductStockDTO productStockDTO = new ProductStockDTO();
+		productStockDTO.setStockQty(stockQty);
+		productStockDTO.setSoldQty(soldQty);
+		return productStockDTO;
+	}
+
+}
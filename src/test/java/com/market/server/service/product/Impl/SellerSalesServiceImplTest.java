@@ -0,0 +1,128 @@
+package com.market.server.service.product.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.market.server.dao.SellerSalesDao;
+import com.market.server.mapper.product.SellerSalesMapper;
+import com.market.server.service.order.Impl.OrderEventServiceImpl;
+import com.market.server.service.order.Impl.OrderLogServiceImpl;
+
+/**
+ * 판매집계 재집계 시점 (이벤트 대기열, 주문이력, 서버별 반영시각 mock)
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SellerSalesServiceImplTest {
+
+	private static final LocalDate SALES_DATE = LocalDate.of(2026, 10, 16);
+
+	private static final long NEXT_DAY = SALES_DATE.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+	@Mock
+	private SellerSalesMapper sellerSalesMapper;
+
+	@Mock
+	private SellerSalesDao sellerSalesDao;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private OrderEventServiceImpl orderEventService;
+
+	@Mock
+	private OrderLogServiceImpl orderLogService;
+
+	@InjectMocks
+	private SellerSalesServiceImpl sellerSalesService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(sellerSalesService, "rebuildMaxDays", 366);
+		ReflectionTestUtils.setField(sellerSalesService, "rebuildRetryDelay", 60000L);
+		ReflectionTestUtils.setField(sellerSalesService, "rebuildMaxRetries", 0);
+		ReflectionTestUtils.setField(sellerSalesService, "fenceStaleAfter", 60000L);
+		sellerSalesService.init();
+
+		when(orderLogService.getConsumerName()).thenReturn("node1");
+		when(sellerSalesDao.getConsumedUntil(anyLong())).thenReturn(NEXT_DAY);
+
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	@AfterEach
+	void tearDown() {
+		sellerSalesService.destroy();
+	}
+
+	@Test
+	void consumedUntilOldestPendingEvent() {
+		when(orderEventService.getPendingSince("sellerSales")).thenReturn("2026-10-17 00:00:00");
+
+		assertEquals(NEXT_DAY, sellerSalesService.consumedUntil());
+	}
+
+	@Test
+	void consumedUntilOrderLogIsStored() {
+		when(orderLogService.getLag()).thenReturn(System.currentTimeMillis() - NEXT_DAY + 1000); // 다음날 0시 1초 전까지 저장
+
+		assertTrue(sellerSalesService.consumedUntil() < NEXT_DAY);
+	}
+
+	@Test
+	void consumedWhenAllNodesPassedNextDay() {
+		assertTrue(sellerSalesService.isConsumed(SALES_DATE));
+		verify(sellerSalesDao).setConsumedUntil(eq("node1"), anyLong(), anyLong()); // 이 서버의 반영시각을 먼저 저장
+	}
+
+	@Test
+	void notConsumedWhileOtherNodeIsBehind() {
+		when(sellerSalesDao.getConsumedUntil(anyLong())).thenReturn(NEXT_DAY - 1);
+
+		assertFalse(sellerSalesService.isConsumed(SALES_DATE));
+	}
+
+	@Test
+	void skipsRebuildWhileEventsArePending() {
+		when(sellerSalesDao.getConsumedUntil(anyLong())).thenReturn(NEXT_DAY - 1);
+
+		sellerSalesService.rebuildWhenConsumed(SALES_DATE, 0);
+
+		verify(sellerSalesMapper, never()).deleteSales(anyString());
+	}
+
+	@Test
+	void rebuildsWhenConsumed() {
+		sellerSalesService.rebuildWhenConsumed(SALES_DATE, 0);
+
+		verify(sellerSalesMapper).deleteSales("2026-10-16");
+		verify(sellerSalesMapper).rebuildSales("2026-10-16");
+	}
+
+}
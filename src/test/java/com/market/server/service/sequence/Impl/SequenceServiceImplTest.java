@@ -0,0 +1,143 @@
+package com.market.server.service.sequence.Impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.market.server.service.sequence.Sequence;
+import com.market.server.service.sequence.SequenceBlockSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 시퀀스 구간 채번, 동시 채번 처리량(benchmark) (구간 저장소 mock)
+ */
+class SequenceServiceImplTest {
+
+	private static final int WRITERS = 64;
+
+	private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200); // DB 왕복 1회
+
+	@Test
+	void concurrentWritersGetUniqueIds() throws Exception {
+		FakeBlockSource blockSource = new FakeBlockSource(0);
+		SequenceServiceImpl sequenceService = sequenceService(blockSource, 100);
+
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		run(WRITERS, 500, () -> ids.add(sequenceService.next(Sequence.ORDER)));
+
+		assertEquals(WRITERS * 500, ids.size());
+		assertEquals(WRITERS * 500 / 100, blockSource.calls.get()); // 구간을 모두 사용한 경우에만 할당
+	}
+
+	@Test
+	void nextRangeReturnsContiguousIds() {
+		FakeBlockSource blockSource = new FakeBlockSource(0);
+		SequenceServiceImpl sequenceService = sequenceService(blockSource, 10);
+
+		assertEquals(1, sequenceService.next(Sequence.OPTION));
+		assertEquals(2, sequenceService.nextRange(Sequence.OPTION, 5));
+		assertEquals(11, sequenceService.nextRange(Sequence.OPTION, 30)); // 남은 구간(7~10)보다 크면 새 구간
+		assertEquals(41, sequenceService.next(Sequence.OPTION));
+	}
+
+	/**
+	 * 64개 스레드가 동시에 채번하는 경우의 처리량을 비교한다.(성능 측정, 기본 테스트에서 제외)
+	 * - 건별 : insert마다 시퀀스 저장소에 1회 왕복(SELECT MAX()+1과 같이 채번이 직렬화)
+	 * - 구간 : 1000건마다 1회 왕복
+	 */
+	@Test
+	@Tag("benchmark")
+	void blockAllocationThroughputWith64Writers() throws Exception {
+		int perWriter = 50;
+
+		SequenceServiceImpl perInsert = sequenceService(new FakeBlockSource(ROUND_TRIP_NANOS), 1);
+		SequenceServiceImpl perBlock  = sequenceService(new FakeBlockSource(ROUND_TRIP_NANOS), 1000);
+
+		double perInsertOps = run(WRITERS, perWriter, () -> perInsert.next(Sequence.ORDER));
+		double perBlockOps  = run(WRITERS, perWriter, () -> perBlock.next(Sequence.ORDER));
+
+		assertTrue(perBlockOps > perInsertOps * 5, "per insert : " + perInsertOps + ", per block : " + perBlockOps);
+	}
+
+	private static SequenceServiceImpl sequenceService(SequenceBlockSource blockSource, int blockSize) {
+		SequenceServiceImpl sequenceService = new SequenceServiceImpl();
+		ReflectionTestUtils.setField(sequenceService, "sequenceBlockSource", blockSource);
+		ReflectionTestUtils.setField(sequenceService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(sequenceService, "blockSize", blockSize);
+		sequenceService.init();
+		return sequenceService;
+	}
+
+	/**
+	 * writers개 스레드에서 task를 perWriter번씩 동시에 실행한다.
+	 *
+	 * @return 초당 처리 건수
+	 */
+	private static double run(int writers, int perWriter, Runnable task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(writers);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for(int i = 0; i < writers; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for(int j = 0; j < perWriter; j++) {
+						task.run();
+					}
+					return null;
+				}));
+			}
+
+			long startTime = System.nanoTime();
+			start.countDown();
+			for(Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			long elapsed = Math.max(1, System.nanoTime() - startTime);
+			return (double) writers * perWriter * TimeUnit.SECONDS.toNanos(1) / elapsed;
+		}finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 왕복 지연시간이 있는 시퀀스 저장소 (호출은 직렬화)
+	 */
+	private static class FakeBlockSource implements SequenceBlockSource {
+
+		private final long latencyNanos;
+		private final AtomicInteger calls = new AtomicInteger();
+		private long max;
+
+		private FakeBlockSource(long latencyNanos) {
+			this.latencyNanos = latencyNanos;
+		}
+
+		@Override
+		public synchronized long allocate(Sequence sequence, long size) {
+			calls.incrementAndGet();
+			if(latencyNanos > 0) {
+				LockSupport.parkNanos(latencyNanos);
+			}
+			max += size;
+			return max;
+		}
+	}
+
+}